@@ -0,0 +1,430 @@
+package com.school.timetabling.benchmark;
+
+import com.school.timetabling.config.OptaPlannerConfiguration;
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import com.school.timetabling.service.TimetableProblemBuilder;
+import org.optaplanner.constraint.streams.common.AbstractConstraintStreamScoreDirectorFactory;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Replays one move trace against a score director per constraint of {@code TimeTableConstraintProvider}
+ * and reports what each constraint costs: time per move when it is the only constraint in the session,
+ * its share of the summed time, how many matches (tuples reaching the scorer) it holds and how often
+ * a move changes its score. Every constraint sees the same moves from the same start, so the rows compare.
+ *
+ * A trace line is {@code change <lessonId> <timeslotId> <keep>} or {@code swap <lessonId> <lessonId> <keep>};
+ * moves with keep 0 are undone after scoring, as in local search where most moves are not accepted.
+ * The trace used is written to target/constraint-profile-trace.txt, so a run can be repeated after a change.
+ *
+ * System properties:
+ * profiler.classCount  classes of the generated school (default 100)
+ * profiler.request     request json to profile instead of a generated school
+ * profiler.trace       move trace to replay (default: a random trace of profiler.moves moves)
+ * profiler.moves       moves of the random trace (default 20000)
+ * profiler.swapRatio   share of swap moves in the random trace (default 0.3)
+ * profiler.keepRatio   share of moves kept in the random trace (default 0.01)
+ * profiler.sortBy      time, matches, changes or name (default time)
+ */
+public class ConstraintCostProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(ConstraintCostProfiler.class);
+
+    // Samples of the match count per run; reading constraint matches is too slow to do after every move
+    private static final int MATCH_SAMPLES = 200;
+
+    private final TimeTable solution;
+    private final List<TraceMove> trace;
+    private final Timeslot[] initialTimeslots;
+
+    public ConstraintCostProfiler(TimeTable solution, List<TraceMove> trace) {
+        this.solution = solution;
+        this.trace = trace;
+        List<Lesson> lessons = solution.getLessonList();
+        initialTimeslots = new Timeslot[lessons.size()];
+        for (int i = 0; i < lessons.size(); i++) {
+            initialTimeslots[i] = lessons.get(i).getTimeslot();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String requestFile = System.getProperty("profiler.request");
+        TimeTable solution;
+        String problemName;
+        if (requestFile != null) {
+            solution = new TimetableRequestFileIO().read(new File(requestFile));
+            problemName = requestFile;
+        } else {
+            int classCount = Integer.getInteger("profiler.classCount", 100);
+            solution = new TimetableProblemBuilder().convertRequestToProblem(
+                    new SyntheticSchoolGenerator(42L).generate(classCount));
+            problemName = "generated school of " + classCount + " classes";
+        }
+        // Start from a complete, mostly infeasible schedule, like local search after construction
+        new SyntheticSchoolGenerator(42L).assignRandomTimeslots(solution);
+
+        String traceFile = System.getProperty("profiler.trace");
+        List<TraceMove> trace = traceFile != null
+                ? readTrace(new File(traceFile), solution)
+                : randomTrace(solution, Integer.getInteger("profiler.moves", 20_000),
+                        Double.parseDouble(System.getProperty("profiler.swapRatio", "0.3")),
+                        Double.parseDouble(System.getProperty("profiler.keepRatio", "0.01")), new Random(7L));
+        File usedTrace = new File("target", "constraint-profile-trace.txt");
+        writeTrace(trace, usedTrace);
+
+        log.warn("Profiling constraints on {} ({} lessons) with {} moves", problemName,
+                solution.getLessonList().size(), trace.size());
+        ConstraintCostProfiler profiler = new ConstraintCostProfiler(solution, trace);
+        Report report = profiler.run();
+        report.sort(System.getProperty("profiler.sortBy", "time"));
+        report.print();
+        File csv = new File("target", "constraint-profile.csv");
+        report.writeCsv(csv);
+        log.warn("Profile written to {}, trace to {}", csv.getAbsolutePath(), usedTrace.getAbsolutePath());
+    }
+
+    public Report run() {
+        Report report = new Report();
+        DefaultSolverFactory<TimeTable> fullFactory = solverFactory(
+                OptaPlannerConfiguration.scoreDirectorFactoryConfig(OptaPlannerConfiguration.CONSTRAINT_STREAMS_SCORE_CALCULATOR));
+        int constraintCount = constraints(fullFactory).length;
+
+        report.allConstraints = profile("All constraints", fullFactory);
+        for (int i = 0; i < constraintCount; i++) {
+            ScoreDirectorFactoryConfig config = new ScoreDirectorFactoryConfig()
+                    .withConstraintProviderClass(SingleConstraintProvider.class)
+                    .withConstraintProviderCustomProperties(Map.of("constraintIndex", Integer.toString(i)));
+            DefaultSolverFactory<TimeTable> singleFactory = solverFactory(config);
+            report.rows.add(profile(constraints(singleFactory)[0].getConstraintName(), singleFactory));
+        }
+        report.fullCalculationMicros = fullCalculationMicros(fullFactory);
+        report.moveCount = trace.size();
+        return report;
+    }
+
+    /**
+     * Replays the trace three times on one score director: a warmup, a timed run and a run that samples constraint matches
+     */
+    private Row profile(String name, DefaultSolverFactory<TimeTable> solverFactory) {
+        Row row = new Row(name);
+        try (InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector =
+                solverFactory.<HardSoftScore>getScoreDirectorFactory().buildScoreDirector(false, true)) {
+            scoreDirector.overwriteConstraintMatchEnabledPreference(false);
+            replay(scoreDirector, null);
+            long start = System.nanoTime();
+            row.changedMoves = replay(scoreDirector, null);
+            row.nanos = System.nanoTime() - start;
+
+            scoreDirector.overwriteConstraintMatchEnabledPreference(true);
+            replay(scoreDirector, row);
+            row.score = scoreDirector.calculateScore();
+        }
+        log.info("{}: {} ms", name, row.nanos / 1_000_000);
+        return row;
+    }
+
+    /**
+     * @param matchRow receives match count samples, or null to replay without reading matches
+     * @return the number of moves that changed the score
+     */
+    private int replay(InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector, Row matchRow) {
+        restoreInitialTimeslots();
+        scoreDirector.setWorkingSolution(solution);
+        HardSoftScore score = scoreDirector.calculateScore();
+        int sampleInterval = Math.max(1, trace.size() / MATCH_SAMPLES);
+        int changedMoves = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            TraceMove move = trace.get(i);
+            move.apply(scoreDirector);
+            HardSoftScore moveScore = scoreDirector.calculateScore();
+            if (!moveScore.equals(score)) {
+                changedMoves++;
+            }
+            if (matchRow != null && i % sampleInterval == 0) {
+                matchRow.sampleMatches(scoreDirector);
+            }
+            if (move.keep) {
+                score = moveScore;
+            } else {
+                move.undo(scoreDirector);
+                scoreDirector.calculateScore();
+            }
+        }
+        return changedMoves;
+    }
+
+    private double fullCalculationMicros(DefaultSolverFactory<TimeTable> solverFactory) {
+        restoreInitialTimeslots();
+        try (InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector =
+                solverFactory.<HardSoftScore>getScoreDirectorFactory().buildScoreDirector(false, false)) {
+            int repeats = 20;
+            for (int i = 0; i < repeats; i++) {
+                scoreDirector.setWorkingSolution(solution);
+                scoreDirector.calculateScore();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < repeats; i++) {
+                scoreDirector.setWorkingSolution(solution);
+                scoreDirector.calculateScore();
+            }
+            return (System.nanoTime() - start) / 1000.0 / repeats;
+        }
+    }
+
+    private void restoreInitialTimeslots() {
+        List<Lesson> lessons = solution.getLessonList();
+        for (int i = 0; i < lessons.size(); i++) {
+            lessons.get(i).setTimeslot(initialTimeslots[i]);
+        }
+    }
+
+    // Not in definition order, so a constraint's name is looked up in its own factory
+    private static Constraint[] constraints(DefaultSolverFactory<TimeTable> solverFactory) {
+        return ((AbstractConstraintStreamScoreDirectorFactory<TimeTable, HardSoftScore>)
+                solverFactory.<HardSoftScore>getScoreDirectorFactory()).getConstraints();
+    }
+
+    private static DefaultSolverFactory<TimeTable> solverFactory(ScoreDirectorFactoryConfig scoreDirectorFactoryConfig) {
+        SolverConfig solverConfig = new SolverConfig()
+            .withSolutionClass(TimeTable.class)
+            .withEntityClasses(Lesson.class)
+            .withScoreDirectorFactory(scoreDirectorFactoryConfig);
+        return (DefaultSolverFactory<TimeTable>) SolverFactory.<TimeTable>create(solverConfig);
+    }
+
+    static List<TraceMove> randomTrace(TimeTable solution, int moveCount, double swapRatio, double keepRatio, Random random) {
+        List<Lesson> lessons = solution.getLessonList();
+        List<Timeslot> timeslots = solution.getTimeslotList();
+        List<TraceMove> trace = new ArrayList<>(moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            Lesson lesson = lessons.get(random.nextInt(lessons.size()));
+            boolean keep = random.nextDouble() < keepRatio;
+            if (random.nextDouble() < swapRatio) {
+                trace.add(TraceMove.swap(lesson, lessons.get(random.nextInt(lessons.size())), keep));
+            } else {
+                trace.add(TraceMove.change(lesson, timeslots.get(random.nextInt(timeslots.size())), keep));
+            }
+        }
+        return trace;
+    }
+
+    static List<TraceMove> readTrace(File file, TimeTable solution) throws IOException {
+        Map<Long, Lesson> lessonsById = new HashMap<>();
+        solution.getLessonList().forEach(lesson -> lessonsById.put(lesson.getId(), lesson));
+        Map<Long, Timeslot> timeslotsById = new HashMap<>();
+        solution.getTimeslotList().forEach(timeslot -> timeslotsById.put(timeslot.getId(), timeslot));
+        List<TraceMove> trace = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath())) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid trace line '" + line + "'");
+            }
+            Lesson lesson = require(lessonsById, parts[1], "lesson", line);
+            boolean keep = "1".equals(parts[3]);
+            switch (parts[0]) {
+                case "change" -> trace.add(TraceMove.change(lesson, require(timeslotsById, parts[2], "timeslot", line), keep));
+                case "swap" -> trace.add(TraceMove.swap(lesson, require(lessonsById, parts[2], "lesson", line), keep));
+                default -> throw new IllegalArgumentException("Unknown move in trace line '" + line + "'");
+            }
+        }
+        return trace;
+    }
+
+    private static <T> T require(Map<Long, T> byId, String id, String kind, String line) {
+        T value = byId.get(Long.parseLong(id));
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown " + kind + " " + id + " in trace line '" + line + "'");
+        }
+        return value;
+    }
+
+    static void writeTrace(List<TraceMove> trace, File file) throws IOException {
+        file.getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("# change <lessonId> <timeslotId> <keep> | swap <lessonId> <lessonId> <keep>");
+            for (TraceMove move : trace) {
+                writer.println(move);
+            }
+        }
+    }
+
+    /**
+     * A change or swap of timeslots. Undo restores the timeslots from before the last apply.
+     */
+    static class TraceMove {
+        private final Lesson lesson;
+        private final Lesson otherLesson;
+        private final Timeslot timeslot;
+        private final boolean keep;
+
+        private Timeslot previousTimeslot;
+
+        private TraceMove(Lesson lesson, Lesson otherLesson, Timeslot timeslot, boolean keep) {
+            this.lesson = lesson;
+            this.otherLesson = otherLesson;
+            this.timeslot = timeslot;
+            this.keep = keep;
+        }
+
+        static TraceMove change(Lesson lesson, Timeslot timeslot, boolean keep) {
+            return new TraceMove(lesson, null, timeslot, keep);
+        }
+
+        static TraceMove swap(Lesson lesson, Lesson otherLesson, boolean keep) {
+            return new TraceMove(lesson, otherLesson, null, keep);
+        }
+
+        void apply(InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector) {
+            previousTimeslot = lesson.getTimeslot();
+            if (otherLesson == null) {
+                setTimeslot(scoreDirector, lesson, timeslot);
+            } else {
+                Timeslot otherTimeslot = otherLesson.getTimeslot();
+                setTimeslot(scoreDirector, otherLesson, previousTimeslot);
+                setTimeslot(scoreDirector, lesson, otherTimeslot);
+            }
+            scoreDirector.triggerVariableListeners();
+        }
+
+        void undo(InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector) {
+            if (otherLesson != null) {
+                setTimeslot(scoreDirector, otherLesson, lesson.getTimeslot());
+            }
+            setTimeslot(scoreDirector, lesson, previousTimeslot);
+            scoreDirector.triggerVariableListeners();
+        }
+
+        private static void setTimeslot(InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector, Lesson lesson, Timeslot timeslot) {
+            scoreDirector.beforeVariableChanged(lesson, "timeslot");
+            lesson.setTimeslot(timeslot);
+            scoreDirector.afterVariableChanged(lesson, "timeslot");
+        }
+
+        @Override
+        public String toString() {
+            return otherLesson == null
+                    ? "change " + lesson.getId() + " " + timeslot.getId() + " " + (keep ? 1 : 0)
+                    : "swap " + lesson.getId() + " " + otherLesson.getId() + " " + (keep ? 1 : 0);
+        }
+    }
+
+    static class Row {
+        private final String constraintName;
+        private long nanos;
+        private int changedMoves;
+        private HardSoftScore score;
+        private long matchSum;
+        private int matchSamples;
+        private int peakMatches;
+
+        Row(String constraintName) {
+            this.constraintName = constraintName;
+        }
+
+        void sampleMatches(InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector) {
+            int matches = 0;
+            for (ConstraintMatchTotal<HardSoftScore> total : scoreDirector.getConstraintMatchTotalMap().values()) {
+                matches += total.getConstraintMatchCount();
+            }
+            matchSum += matches;
+            matchSamples++;
+            peakMatches = Math.max(peakMatches, matches);
+        }
+
+        double meanMatches() {
+            return matchSamples == 0 ? 0 : (double) matchSum / matchSamples;
+        }
+    }
+
+    public static class Report {
+        private final List<Row> rows = new ArrayList<>();
+        private Row allConstraints;
+        private double fullCalculationMicros;
+        private int moveCount;
+
+        void sort(String sortBy) {
+            Comparator<Row> order = switch (sortBy.toLowerCase(Locale.ROOT)) {
+                case "time" -> Comparator.comparingLong((Row row) -> row.nanos).reversed();
+                case "matches" -> Comparator.comparingDouble(Row::meanMatches).reversed();
+                case "changes" -> Comparator.comparingInt((Row row) -> row.changedMoves).reversed();
+                case "name" -> Comparator.comparing((Row row) -> row.constraintName);
+                default -> throw new IllegalArgumentException(
+                        "Unknown profiler.sortBy '" + sortBy + "' (expected time, matches, changes or name)");
+            };
+            rows.sort(order);
+        }
+
+        private long isolatedNanos() {
+            return rows.stream().mapToLong(row -> row.nanos).sum();
+        }
+
+        void print() {
+            long isolatedNanos = isolatedNanos();
+            System.out.println("=== Constraint Cost Profile ===");
+            System.out.printf(Locale.ROOT, "%-44s %10s %7s %12s %12s %9s  %s%n",
+                    "Constraint", "us/move", "share", "mean matches", "peak matches", "changed", "final score");
+            for (Row row : rows) {
+                printRow(row, String.format(Locale.ROOT, "%6.1f%%", 100.0 * row.nanos / Math.max(1, isolatedNanos)));
+            }
+            System.out.println("-".repeat(118));
+            System.out.printf(Locale.ROOT, "%-44s %10.2f%n", "Sum of isolated constraints", micros(isolatedNanos));
+            printRow(allConstraints, "");
+            System.out.printf(Locale.ROOT, "Full score calculation: %.0f us. Shares are of the summed isolated time;"
+                    + " together, constraints share nodes, so the all constraints run differs from the sum.%n",
+                    fullCalculationMicros);
+        }
+
+        private void printRow(Row row, String share) {
+            System.out.printf(Locale.ROOT, "%-44s %10.2f %7s %12.0f %12d %8.1f%%  %s%n", row.constraintName,
+                    micros(row.nanos), share, row.meanMatches(), row.peakMatches,
+                    100.0 * row.changedMoves / Math.max(1, moveCount), row.score);
+        }
+
+        void writeCsv(File file) throws IOException {
+            file.getParentFile().mkdirs();
+            long isolatedNanos = isolatedNanos();
+            try (PrintWriter writer = new PrintWriter(file)) {
+                writer.println("constraint,microsPerMove,share,meanMatches,peakMatches,changedMoves,moves,finalScore");
+                for (Row row : rows) {
+                    writeCsvRow(writer, row, (double) row.nanos / Math.max(1, isolatedNanos));
+                }
+                writeCsvRow(writer, allConstraints, Double.NaN);
+            }
+        }
+
+        private void writeCsvRow(PrintWriter writer, Row row, double share) {
+            writer.printf(Locale.ROOT, "\"%s\",%.3f,%s,%.1f,%d,%d,%d,%s%n", row.constraintName, micros(row.nanos),
+                    Double.isNaN(share) ? "" : String.format(Locale.ROOT, "%.4f", share),
+                    row.meanMatches(), row.peakMatches, row.changedMoves, moveCount, row.score);
+        }
+
+        private double micros(long nanos) {
+            return nanos / 1000.0 / Math.max(1, moveCount);
+        }
+    }
+}
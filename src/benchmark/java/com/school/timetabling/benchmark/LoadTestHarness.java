@@ -0,0 +1,190 @@
+package com.school.timetabling.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.benchmark.SyntheticSchoolGenerator.Difficulty;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires concurrent blocking solves at a running service and reports latency percentiles,
+ * throughput and how saturated the solver threads were while the load was applied.
+ * Saturation is sampled from GET /api/timetable/load once per second.
+ *
+ * System properties:
+ * loadtest.baseUrl     service url (default http://localhost:8080)
+ * loadtest.concurrency concurrent clients (default 4)
+ * loadtest.requests    total solve requests (default 16)
+ * loadtest.classCount  classes per generated school (default 12)
+ * loadtest.difficulty  tight, normal or loose (default normal)
+ * loadtest.distinctRequests different schools to rotate through (default: one per request, so the
+ *                      solution cache never answers; 1 measures cache hits and attaching to running solves)
+ * loadtest.timeout     per request timeout, ISO-8601 (default PT15M)
+ */
+public class LoadTestHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    private final ObjectMapper objectMapper = SyntheticSchoolGenerator.objectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String baseUrl;
+    private final Duration timeout;
+
+    // Saturation samples, only touched by the sampler thread
+    private final List<JsonNode> loadSamples = new ArrayList<>();
+
+    public LoadTestHarness(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 4);
+        int requestCount = Integer.getInteger("loadtest.requests", 16);
+        int classCount = Integer.getInteger("loadtest.classCount", 12);
+        Difficulty difficulty = Difficulty.valueOf(
+                System.getProperty("loadtest.difficulty", "normal").toUpperCase(Locale.ROOT));
+        Duration timeout = Duration.parse(System.getProperty("loadtest.timeout", "PT15M"));
+
+        int distinctRequests = Integer.getInteger("loadtest.distinctRequests", requestCount);
+
+        LoadTestHarness harness = new LoadTestHarness(baseUrl, timeout);
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < distinctRequests; i++) {
+            TimetableRequest request = new SyntheticSchoolGenerator(42L).generate(classCount, difficulty);
+            bodies.add(harness.objectMapper.writeValueAsString(renameTeachers(request, "School " + i)));
+        }
+        log.warn("Sending {} solve requests ({} distinct, {} classes, {}) to {} with {} concurrent clients",
+                requestCount, distinctRequests, classCount, difficulty, baseUrl, concurrency);
+        harness.run(bodies, concurrency, requestCount);
+    }
+
+    /**
+     * Same school under different teacher names: as hard to solve, but a different solution cache key.
+     */
+    private static TimetableRequest renameTeachers(TimetableRequest request, String school) {
+        for (TimetableRequest.LessonAssignment assignment : request.getLessonAssignmentList()) {
+            assignment.setPossibleTeachers(assignment.getPossibleTeachers().stream()
+                    .map(teacher -> school + " " + teacher)
+                    .toList());
+        }
+        return request;
+    }
+
+    public void run(List<String> bodies, int concurrency, int requestCount) throws Exception {
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(this::sampleLoad, 0, 1, TimeUnit.SECONDS);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<Long>> latencies = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < requestCount; i++) {
+            String body = bodies.get(i % bodies.size());
+            latencies.add(clients.submit(() -> solve(body, failures)));
+        }
+        List<Long> latencyMillis = new ArrayList<>();
+        for (Future<Long> latency : latencies) {
+            latencyMillis.add(latency.get());
+        }
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        clients.shutdown();
+        sampler.shutdown();
+        sampler.awaitTermination(5, TimeUnit.SECONDS);
+
+        report(latencyMillis, failures.get(), wallMillis);
+    }
+
+    private long solve(String body, AtomicInteger failures) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/timetable/solve"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            // The blocking endpoint reports solver errors in the score field with status 200
+            if (response.statusCode() != 200
+                    || objectMapper.readTree(response.body()).path("score").asText().startsWith("Error")) {
+                failures.incrementAndGet();
+                log.warn("Solve failed with status {}", response.statusCode());
+            }
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.warn("Solve request failed: {}", e.toString());
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private void sampleLoad() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/timetable/load"))
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            loadSamples.add(objectMapper.readTree(response.body()));
+        } catch (Exception e) {
+            log.warn("Load sample failed: {}", e.toString());
+        }
+    }
+
+    private void report(List<Long> latencyMillis, int failures, long wallMillis) {
+        Collections.sort(latencyMillis);
+        int requestCount = latencyMillis.size();
+        System.out.println("=== Load Test Results ===");
+        System.out.printf("Requests: %d (%d failed), wall time %.1f s%n", requestCount, failures, wallMillis / 1000.0);
+        System.out.printf("Throughput: %.2f solves/min%n", requestCount * 60_000.0 / Math.max(1, wallMillis));
+        System.out.printf("Latency ms: p50 %d, p90 %d, p99 %d, max %d%n",
+                percentile(latencyMillis, 50), percentile(latencyMillis, 90),
+                percentile(latencyMillis, 99), latencyMillis.get(requestCount - 1));
+
+        if (loadSamples.isEmpty()) {
+            System.out.println("Saturation: no samples from /api/timetable/load");
+            return;
+        }
+        int parallelSolverCount = loadSamples.get(0).path("parallelSolverCount").asInt();
+        double solvingSum = 0;
+        double scheduledSum = 0;
+        long maxScheduled = 0;
+        int saturatedSamples = 0;
+        for (JsonNode sample : loadSamples) {
+            long solving = sample.path("solvingJobs").asLong();
+            long scheduled = sample.path("scheduledJobs").asLong();
+            solvingSum += solving;
+            scheduledSum += scheduled;
+            maxScheduled = Math.max(maxScheduled, scheduled);
+            if (solving >= parallelSolverCount) {
+                saturatedSamples++;
+            }
+        }
+        int sampleCount = loadSamples.size();
+        System.out.printf("Solver threads: %d, mean busy %.2f (%.0f%%), saturated in %.0f%% of samples%n",
+                parallelSolverCount, solvingSum / sampleCount, 100.0 * solvingSum / sampleCount / parallelSolverCount,
+                100.0 * saturatedSamples / sampleCount);
+        System.out.printf("Queued jobs: mean %.2f, max %d%n", scheduledSum / sampleCount, maxScheduled);
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+}
@@ -0,0 +1,49 @@
+package com.school.timetabling.benchmark;
+
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import com.school.timetabling.service.TimetableProblemBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures request-to-problem conversion: constraint config interning, the timeslot grid
+ * and the greedy teacher allocation in {@link TimetableProblemBuilder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemBuildingBenchmark {
+
+    @Param({"10", "50", "100", "500"})
+    private int classCount;
+
+    private TimetableProblemBuilder problemBuilder;
+    private TimetableRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        problemBuilder = new TimetableProblemBuilder();
+        request = new SyntheticSchoolGenerator(42L).generate(classCount);
+    }
+
+    @Benchmark
+    public TimeTable convertRequestToProblem() {
+        return problemBuilder.convertRequestToProblem(request);
+    }
+}
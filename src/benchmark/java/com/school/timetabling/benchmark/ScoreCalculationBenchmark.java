@@ -0,0 +1,110 @@
+package com.school.timetabling.benchmark;
+
+import com.school.timetabling.config.OptaPlannerConfiguration;
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import com.school.timetabling.service.TimetableProblemBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the score director of each scoring engine on synthetic schools.
+ * fullScoreCalculation resets the working solution and scores it from scratch, as at solver start.
+ * moveScoreCalculation applies one random timeslot change through the ScoreDirector and rescores,
+ * which is what every local search step pays for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreCalculationBenchmark {
+
+    private static final int MOVE_COUNT = 1 << 16;
+
+    @Param({"10", "50", "100", "500"})
+    private int classCount;
+
+    @Param({OptaPlannerConfiguration.CONSTRAINT_STREAMS_SCORE_CALCULATOR,
+            OptaPlannerConfiguration.INCREMENTAL_SCORE_CALCULATOR})
+    private String scoreCalculator;
+
+    private TimeTable solution;
+    private InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector;
+
+    // Pre-drawn change moves, so random number generation is not measured
+    private Lesson[] moveLessons;
+    private Timeslot[] moveTimeslots;
+    private int moveIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSchoolGenerator generator = new SyntheticSchoolGenerator(42L);
+        solution = new TimetableProblemBuilder().convertRequestToProblem(generator.generate(classCount));
+        generator.assignRandomTimeslots(solution);
+
+        SolverConfig solverConfig = new SolverConfig()
+            .withSolutionClass(TimeTable.class)
+            .withEntityClasses(Lesson.class)
+            .withScoreDirectorFactory(OptaPlannerConfiguration.scoreDirectorFactoryConfig(scoreCalculator));
+        DefaultSolverFactory<TimeTable> solverFactory =
+            (DefaultSolverFactory<TimeTable>) SolverFactory.<TimeTable>create(solverConfig);
+        scoreDirector = solverFactory.<HardSoftScore>getScoreDirectorFactory().buildScoreDirector(false, false);
+        scoreDirector.setWorkingSolution(solution);
+        scoreDirector.calculateScore();
+
+        Random random = new Random(7L);
+        List<Lesson> lessons = solution.getLessonList();
+        List<Timeslot> timeslots = solution.getTimeslotList();
+        moveLessons = new Lesson[MOVE_COUNT];
+        moveTimeslots = new Timeslot[MOVE_COUNT];
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            moveLessons[i] = lessons.get(random.nextInt(lessons.size()));
+            moveTimeslots[i] = timeslots.get(random.nextInt(timeslots.size()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public HardSoftScore fullScoreCalculation() {
+        scoreDirector.setWorkingSolution(solution);
+        return scoreDirector.calculateScore();
+    }
+
+    @Benchmark
+    public HardSoftScore moveScoreCalculation() {
+        int index = moveIndex++ & (MOVE_COUNT - 1);
+        Lesson lesson = moveLessons[index];
+        scoreDirector.beforeVariableChanged(lesson, "timeslot");
+        lesson.setTimeslot(moveTimeslots[index]);
+        scoreDirector.afterVariableChanged(lesson, "timeslot");
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+}
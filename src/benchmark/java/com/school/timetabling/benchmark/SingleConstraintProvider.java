@@ -0,0 +1,25 @@
+package com.school.timetabling.benchmark;
+
+import com.school.timetabling.solver.TimeTableConstraintProvider;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+/**
+ * One constraint of {@link TimeTableConstraintProvider}, chosen with the {@code constraintIndex}
+ * constraint provider custom property, so its cost can be measured without the others.
+ * The other constraints are defined but not returned, so they get no nodes in the session.
+ */
+public class SingleConstraintProvider implements ConstraintProvider {
+
+    private int constraintIndex;
+
+    public void setConstraintIndex(int constraintIndex) {
+        this.constraintIndex = constraintIndex;
+    }
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        return new Constraint[] { new TimeTableConstraintProvider().defineConstraints(constraintFactory)[constraintIndex] };
+    }
+}
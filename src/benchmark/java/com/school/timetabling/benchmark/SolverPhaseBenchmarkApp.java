@@ -0,0 +1,139 @@
+package com.school.timetabling.benchmark;
+
+import com.school.timetabling.config.OptaPlannerConfiguration;
+import com.school.timetabling.config.SolverProfile;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+import org.optaplanner.benchmark.config.PlannerBenchmarkConfig;
+import org.optaplanner.benchmark.config.ProblemBenchmarksConfig;
+import org.optaplanner.benchmark.config.SolverBenchmarkConfig;
+import org.optaplanner.benchmark.config.statistic.ProblemStatisticType;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicType;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchType;
+import org.optaplanner.core.config.localsearch.decider.acceptor.AcceptorType;
+import org.optaplanner.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import org.optaplanner.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Offline OptaPlanner benchmark comparing local search phase setups on bundled and generated schools.
+ * Every setup gets the same construction heuristic, scoring engine and time budget, so the
+ * best score over time charts in the HTML report show which one reaches feasibility first.
+ *
+ * System properties:
+ * benchmark.spentLimit      time budget per solve, ISO-8601 (default PT2M)
+ * benchmark.warmUp          JIT warm up before the first solve (default PT30S)
+ * benchmark.scoreCalculator constraint-streams or incremental (default constraint-streams)
+ * benchmark.classCounts     sizes of the generated schools (default 100,300)
+ * benchmark.untilFeasible   stop each solve at the first feasible solution, so the report's
+ *                           time spent column ranks time to feasibility (default false)
+ * benchmark.partitionThreads part threads of the partitioned production setup, AUTO or a number (default AUTO)
+ */
+public class SolverPhaseBenchmarkApp {
+
+    private static final Logger log = LoggerFactory.getLogger(SolverPhaseBenchmarkApp.class);
+
+    private static final File BENCHMARK_DIRECTORY = new File("target/benchmarks");
+    private static final File DATA_DIRECTORY = new File("target/benchmark-data");
+    private static final File BUNDLED_REQUEST = new File("web-ui/request.json");
+
+    public static void main(String[] args) throws IOException {
+        Duration spentLimit = Duration.parse(System.getProperty("benchmark.spentLimit", "PT2M"));
+        Duration warmUp = Duration.parse(System.getProperty("benchmark.warmUp", "PT30S"));
+        String scoreCalculator = System.getProperty("benchmark.scoreCalculator",
+                OptaPlannerConfiguration.CONSTRAINT_STREAMS_SCORE_CALCULATOR);
+        boolean untilFeasible = Boolean.parseBoolean(System.getProperty("benchmark.untilFeasible", "false"));
+
+        List<File> inputFiles = new ArrayList<>();
+        inputFiles.add(BUNDLED_REQUEST);
+        inputFiles.addAll(writeGeneratedRequests(System.getProperty("benchmark.classCounts", "100,300")));
+
+        TerminationConfig terminationConfig = new TerminationConfig().withSpentLimit(spentLimit);
+        if (untilFeasible) {
+            terminationConfig.setBestScoreLimit("0hard/*soft");
+        }
+        // Production settings (environment mode, move threads, scoring engine) with the benchmark budget
+        SolverConfig baseConfig = OptaPlannerConfiguration.buildSolverConfig(SolverProfile.THOROUGH, scoreCalculator)
+                .withTerminationConfig(terminationConfig);
+        SolverConfig partitionedConfig = OptaPlannerConfiguration.buildSolverConfig(SolverProfile.THOROUGH, scoreCalculator,
+                System.getProperty("benchmark.partitionThreads", "AUTO")).withTerminationConfig(terminationConfig);
+
+        List<SolverBenchmarkConfig> solverBenchmarkConfigs = List.of(
+            solverBenchmark("Production (3x late acceptance)", baseConfig,
+                    baseConfig.getPhaseConfigList().toArray(new PhaseConfig[0])),
+            solverBenchmark("Production partitioned by component", partitionedConfig,
+                    partitionedConfig.getPhaseConfigList().toArray(new PhaseConfig[0])),
+            solverBenchmark("Late acceptance", baseConfig, firstFit(),
+                    new LocalSearchPhaseConfig().withLocalSearchType(LocalSearchType.LATE_ACCEPTANCE)),
+            solverBenchmark("Tabu search", baseConfig, firstFit(),
+                    new LocalSearchPhaseConfig().withLocalSearchType(LocalSearchType.TABU_SEARCH)),
+            solverBenchmark("Simulated annealing", baseConfig, firstFit(),
+                    new LocalSearchPhaseConfig()
+                        .withAcceptorConfig(new LocalSearchAcceptorConfig()
+                            .withAcceptorTypeList(List.of(AcceptorType.SIMULATED_ANNEALING))
+                            .withSimulatedAnnealingStartingTemperature("2hard/100soft"))
+                        .withForagerConfig(new LocalSearchForagerConfig().withAcceptedCountLimit(1))));
+
+        ProblemBenchmarksConfig problemBenchmarksConfig = new ProblemBenchmarksConfig();
+        problemBenchmarksConfig.setSolutionFileIOClass(TimetableRequestFileIO.class);
+        problemBenchmarksConfig.setInputSolutionFileList(inputFiles);
+        problemBenchmarksConfig.setProblemStatisticTypeList(Arrays.asList(
+            ProblemStatisticType.BEST_SCORE,
+            ProblemStatisticType.STEP_SCORE,
+            ProblemStatisticType.SCORE_CALCULATION_SPEED));
+        SolverBenchmarkConfig inheritedConfig = new SolverBenchmarkConfig();
+        inheritedConfig.setProblemBenchmarksConfig(problemBenchmarksConfig);
+
+        PlannerBenchmarkConfig benchmarkConfig = new PlannerBenchmarkConfig();
+        benchmarkConfig.setName("Solver phase configurations");
+        benchmarkConfig.setBenchmarkDirectory(BENCHMARK_DIRECTORY);
+        benchmarkConfig.setWarmUpMillisecondsSpentLimit(warmUp.toMillis());
+        benchmarkConfig.setInheritedSolverBenchmarkConfig(inheritedConfig);
+        benchmarkConfig.setSolverBenchmarkConfigList(solverBenchmarkConfigs);
+
+        log.warn("Benchmarking {} phase setups on {} datasets, {} per solve with {} scoring",
+                solverBenchmarkConfigs.size(), inputFiles.size(), spentLimit, scoreCalculator);
+        File benchmarkDirectory = PlannerBenchmarkFactory.create(benchmarkConfig).buildPlannerBenchmark().benchmark();
+        // Each run writes its report into a new timestamped subdirectory
+        Arrays.stream(benchmarkDirectory.listFiles(File::isDirectory))
+            .max(Comparator.comparing(File::getName))
+            .ifPresent(run -> log.warn("Benchmark report: {}", new File(run, "index.html").getAbsolutePath()));
+    }
+
+    private static SolverBenchmarkConfig solverBenchmark(String name, SolverConfig baseConfig, PhaseConfig... phases) {
+        SolverBenchmarkConfig solverBenchmarkConfig = new SolverBenchmarkConfig();
+        solverBenchmarkConfig.setName(name);
+        solverBenchmarkConfig.setSolverConfig(baseConfig.copyConfig().withPhases(phases));
+        return solverBenchmarkConfig;
+    }
+
+    private static ConstructionHeuristicPhaseConfig firstFit() {
+        return new ConstructionHeuristicPhaseConfig().withConstructionHeuristicType(ConstructionHeuristicType.FIRST_FIT);
+    }
+
+    private static List<File> writeGeneratedRequests(String classCounts) throws IOException {
+        SyntheticSchoolGenerator generator = new SyntheticSchoolGenerator(42L);
+        List<File> files = new ArrayList<>();
+        for (String classCount : classCounts.split(",")) {
+            TimetableRequest request = generator.generate(Integer.parseInt(classCount.trim()));
+            File file = new File(DATA_DIRECTORY, "synthetic-" + classCount.trim() + "-classes.json");
+            SyntheticSchoolGenerator.writeRequest(request, file);
+            files.add(file);
+        }
+        return files;
+    }
+}
@@ -0,0 +1,198 @@
+package com.school.timetabling.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import com.school.timetabling.rest.dto.TimetableRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Builds deterministic school requests of a given size for the benchmarks.
+ * Every school has 5 days of 8 periods, 6 grades and 36 required periods per class.
+ * Teacher pools are sized from the total demand and the requested {@link Difficulty}.
+ *
+ * Command line: SyntheticSchoolGenerator classCount [tight|normal|loose] [outputFile]
+ * writes the request JSON to outputFile, or to stdout when it is omitted.
+ */
+public class SyntheticSchoolGenerator {
+
+    /**
+     * Teacher capacity relative to the weekly demand of each subject.
+     */
+    public enum Difficulty {
+        TIGHT(1.05),   // Barely enough teachers: full teacher weeks, little room to move lessons
+        NORMAL(1.2),
+        LOOSE(1.5);    // Many part-time teachers, easy to make feasible
+
+        private final double capacityFactor;
+
+        Difficulty(double capacityFactor) {
+            this.capacityFactor = capacityFactor;
+        }
+    }
+
+    static final int DAY_COUNT = 5;
+    static final int PERIODS_PER_DAY = 8;
+    static final int MAX_PERIODS_PER_TEACHER = 30;
+
+    private static final String[] GRADES = {"6", "7", "8", "9", "10", "11"};
+
+    // Subject, periods per week, max periods per day
+    private static final Object[][] SUBJECTS = {
+        {"Mathematics", 6, 2},
+        {"English", 5, 1},
+        {"Science", 5, 2},
+        {"Sinhala", 4, 1},
+        {"History", 3, 1},
+        {"Geography", 3, 1},
+        {"Commerce", 3, 1},
+        {"ICT", 2, 1},
+        {"Art", 2, 1},
+        {"Physical Education", 2, 1},
+        {"Buddhism", 1, 1}
+    };
+
+    private final long seed;
+
+    public SyntheticSchoolGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticSchoolGenerator classCount [tight|normal|loose] [outputFile]");
+            System.exit(1);
+        }
+        int classCount = Integer.parseInt(args[0]);
+        Difficulty difficulty = args.length > 1 ? Difficulty.valueOf(args[1].toUpperCase(Locale.ROOT)) : Difficulty.NORMAL;
+        TimetableRequest request = new SyntheticSchoolGenerator(42L).generate(classCount, difficulty);
+        if (args.length > 2) {
+            writeRequest(request, new File(args[2]));
+        } else {
+            System.out.println(objectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(request));
+        }
+    }
+
+    public TimetableRequest generate(int classCount) {
+        return generate(classCount, Difficulty.NORMAL);
+    }
+
+    /**
+     * @param classCount Total number of classes, spread evenly over the grades
+     * @param difficulty Teacher capacity relative to demand
+     * @return A request in the same shape the REST API accepts
+     */
+    public TimetableRequest generate(int classCount, Difficulty difficulty) {
+        TimetableRequest request = new TimetableRequest();
+        request.setTimeslotList(generateTimeslots());
+
+        List<TimetableRequest.ClassInfo> classList = new ArrayList<>();
+        int[] classesPerGrade = new int[GRADES.length];
+        for (int i = 0; i < classCount; i++) {
+            classesPerGrade[i % GRADES.length]++;
+        }
+        for (int g = 0; g < GRADES.length; g++) {
+            if (classesPerGrade[g] == 0) {
+                continue;
+            }
+            List<String> classes = new ArrayList<>();
+            for (int c = 0; c < classesPerGrade[g]; c++) {
+                classes.add(className(c));
+            }
+            TimetableRequest.ClassInfo classInfo = new TimetableRequest.ClassInfo();
+            classInfo.setGrade(GRADES[g]);
+            classInfo.setClasses(classes);
+            classList.add(classInfo);
+        }
+        request.setClassList(classList);
+
+        List<String> subjectList = new ArrayList<>();
+        List<TimetableRequest.LessonAssignment> assignments = new ArrayList<>();
+        for (Object[] subject : SUBJECTS) {
+            String name = (String) subject[0];
+            int periodsPerWeek = (Integer) subject[1];
+            subjectList.add(name);
+
+            // One shared teacher pool per subject, sized from the total demand of that subject
+            int teacherCount = (int) Math.ceil(
+                periodsPerWeek * classCount * difficulty.capacityFactor / MAX_PERIODS_PER_TEACHER) + 1;
+            List<String> teachers = new ArrayList<>();
+            for (int t = 0; t < teacherCount; t++) {
+                teachers.add(name + " Teacher " + (t + 1));
+            }
+            for (TimetableRequest.ClassInfo classInfo : classList) {
+                TimetableRequest.LessonAssignment assignment = new TimetableRequest.LessonAssignment();
+                assignment.setSubject(name);
+                assignment.setGrade(classInfo.getGrade());
+                assignment.setPossibleTeachers(teachers);
+                assignment.setPeriodsPerWeek(periodsPerWeek);
+                assignment.setMaxPeriodsPerDay((Integer) subject[2]);
+                assignments.add(assignment);
+            }
+        }
+        request.setSubjectList(subjectList);
+        request.setLessonAssignmentList(assignments);
+
+        TimetableRequest.TeacherWorkloadConfig workloadConfig = new TimetableRequest.TeacherWorkloadConfig();
+        workloadConfig.setTotalTimeslotsPerWeek(DAY_COUNT * PERIODS_PER_DAY);
+        workloadConfig.setMaxPeriodsPerTeacherPerWeek(MAX_PERIODS_PER_TEACHER);
+        workloadConfig.setFreePeriodsPerTeacherPerWeek(DAY_COUNT * PERIODS_PER_DAY - MAX_PERIODS_PER_TEACHER);
+        request.setTeacherWorkloadConfig(workloadConfig);
+        return request;
+    }
+
+    /**
+     * Assigns every lesson of a built problem to a random timeslot, so score calculation
+     * sees a realistic mix of conflicts instead of an empty schedule.
+     */
+    public void assignRandomTimeslots(TimeTable problem) {
+        Random random = new Random(seed);
+        List<Timeslot> timeslots = problem.getTimeslotList();
+        for (Lesson lesson : problem.getLessonList()) {
+            lesson.setTimeslot(timeslots.get(random.nextInt(timeslots.size())));
+        }
+    }
+
+    public static void writeRequest(TimetableRequest request, File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null) {
+            directory.mkdirs();
+        }
+        objectMapper().writerWithDefaultPrettyPrinter().writeValue(file, request);
+    }
+
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper().findAndRegisterModules();
+    }
+
+    private static List<Timeslot> generateTimeslots() {
+        List<Timeslot> timeslots = new ArrayList<>();
+        long id = 1;
+        for (int day = 0; day < DAY_COUNT; day++) {
+            LocalTime start = LocalTime.of(7, 50);
+            for (int period = 0; period < PERIODS_PER_DAY; period++) {
+                if (period == 4) {
+                    start = start.plusMinutes(20); // Interval
+                }
+                timeslots.add(new Timeslot(id++, DayOfWeek.MONDAY.plus(day), start, start.plusMinutes(40)));
+                start = start.plusMinutes(40);
+            }
+        }
+        return timeslots;
+    }
+
+    private static String className(int index) {
+        // A..Z, then A2..Z2 and so on for very large grades
+        String letter = String.valueOf((char) ('A' + index % 26));
+        return index < 26 ? letter : letter + (index / 26 + 1);
+    }
+}
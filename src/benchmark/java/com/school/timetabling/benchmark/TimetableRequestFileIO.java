@@ -0,0 +1,41 @@
+package com.school.timetabling.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import com.school.timetabling.service.TimetableProblemBuilder;
+import org.optaplanner.persistence.common.api.domain.solution.SolutionFileIO;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Lets the OptaPlanner benchmarker load REST request files directly,
+ * converting them with the same problem builder the service uses.
+ */
+public class TimetableRequestFileIO implements SolutionFileIO<TimeTable> {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final TimetableProblemBuilder problemBuilder = new TimetableProblemBuilder();
+
+    @Override
+    public String getInputFileExtension() {
+        return "json";
+    }
+
+    @Override
+    public TimeTable read(File inputSolutionFile) {
+        try {
+            TimetableRequest request = objectMapper.readValue(inputSolutionFile, TimetableRequest.class);
+            return problemBuilder.convertRequestToProblem(request);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read request file " + inputSolutionFile, e);
+        }
+    }
+
+    @Override
+    public void write(TimeTable solution, File outputSolutionFile) {
+        throw new UnsupportedOperationException("Writing solutions is not supported, keep writeOutputSolutionEnabled off");
+    }
+}
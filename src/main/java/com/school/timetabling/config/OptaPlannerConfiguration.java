@@ -1,28 +1,72 @@
 package com.school.timetabling.config;
 
 import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.solver.ClashFreeChangeMoveFilter;
+import com.school.timetabling.solver.ClashFreeSwapMoveFilter;
+import com.school.timetabling.solver.DaySwapMoveIteratorFactory;
+import com.school.timetabling.solver.KempeChainMoveIteratorFactory;
+import com.school.timetabling.solver.NearbyChangeMoveIteratorFactory;
 import com.school.timetabling.solver.TimeTableConstraintProvider;
-import org.optaplanner.core.api.solver.SolverManager;
+import com.school.timetabling.solver.TimeTableIncrementalScoreCalculator;
+import com.school.timetabling.solver.TimeTablePartitioner;
 import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.monitoring.MonitoringConfig;
+import org.optaplanner.core.config.solver.monitoring.SolverMetric;
 import org.optaplanner.core.config.solver.termination.TerminationConfig;
 import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
 import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
 import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicType;
+import org.optaplanner.core.config.heuristic.selector.move.MoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.factory.MoveIteratorFactoryConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
 import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
 import org.optaplanner.core.config.localsearch.LocalSearchType;
+import org.optaplanner.core.config.partitionedsearch.PartitionedSearchPhaseConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
 import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
 import java.util.Arrays;
-import java.util.UUID;
+import java.util.List;
 
 @Configuration
 public class OptaPlannerConfiguration {
 
+    public static final String CONSTRAINT_STREAMS_SCORE_CALCULATOR = "constraint-streams";
+    public static final String INCREMENTAL_SCORE_CALCULATOR = "incremental";
+    public static final String PARTITION_THREADS_NONE = "NONE";
+    // Share of local search moves relative to change and swap moves (1.0 each)
+    static final double NEARBY_CHANGE_MOVE_WEIGHT = 1.0;
+    static final double KEMPE_CHAIN_MOVE_WEIGHT = 0.5;
+    static final double DAY_SWAP_MOVE_WEIGHT = 0.1;
+
+    /**
+     * Solver config of the default profile, also used by the OptaPlanner Spring Boot starter
+     * for its SolverFactory and SolutionManager beans. Jobs are solved by {@link SolverProfileRegistry}.
+     */
     @Bean
-    public SolverConfig solverConfig() {
+    public SolverConfig solverConfig(
+            @Value("${timetabling.solver.score-calculator:" + CONSTRAINT_STREAMS_SCORE_CALCULATOR + "}") String scoreCalculator,
+            @Value("${timetabling.solver.default-profile:THOROUGH}") String defaultProfile) {
+        return buildSolverConfig(SolverProfile.parse(defaultProfile), scoreCalculator);
+    }
+
+    public static SolverConfig buildSolverConfig(SolverProfile profile, String scoreCalculator) {
+        return buildSolverConfig(profile, scoreCalculator, PARTITION_THREADS_NONE);
+    }
+
+    /**
+     * @param partitionThreads timetabling.solver.partition-threads: NONE solves the timetable as a whole,
+     *                         AUTO or a number runs the phases per independent part (see {@link TimeTablePartitioner})
+     *                         on up to that many threads
+     */
+    public static SolverConfig buildSolverConfig(SolverProfile profile, String scoreCalculator, String partitionThreads) {
+        boolean partitionedSearch = !PARTITION_THREADS_NONE.equalsIgnoreCase(partitionThreads);
         SolverConfig solverConfig = new SolverConfig();
         
         // Set solution and entity classes
@@ -30,54 +74,119 @@ public class OptaPlannerConfiguration {
         solverConfig.setEntityClassList(Arrays.asList(com.school.timetabling.domain.Lesson.class));
         
         // Enhanced scoring configuration
-        ScoreDirectorFactoryConfig scoreDirectorFactoryConfig = new ScoreDirectorFactoryConfig();
-        scoreDirectorFactoryConfig.setConstraintProviderClass(TimeTableConstraintProvider.class);
-        scoreDirectorFactoryConfig.setInitializingScoreTrend("ONLY_DOWN");
-        solverConfig.setScoreDirectorFactoryConfig(scoreDirectorFactoryConfig);
+        solverConfig.setScoreDirectorFactoryConfig(scoreDirectorFactoryConfig(scoreCalculator));
         
-        // MAXIMUM ACCURACY: Multi-phase configuration with extensive solving time
+        List<PhaseConfig> phaseConfigs;
         ConstructionHeuristicPhaseConfig constructionPhase = new ConstructionHeuristicPhaseConfig();
         constructionPhase.setConstructionHeuristicType(ConstructionHeuristicType.FIRST_FIT);
 
-        // Phase 1: Initial exploration (1 minute)
-        LocalSearchPhaseConfig initialSearch = new LocalSearchPhaseConfig();
-        initialSearch.setLocalSearchType(LocalSearchType.LATE_ACCEPTANCE);
-        TerminationConfig phase1Termination = new TerminationConfig();
-        phase1Termination.setSpentLimit(Duration.ofMinutes(1));
-        initialSearch.setTerminationConfig(phase1Termination);
-        
-        // Phase 2: Deep optimization (2 minutes)
-        LocalSearchPhaseConfig deepSearch = new LocalSearchPhaseConfig();
-        deepSearch.setLocalSearchType(LocalSearchType.LATE_ACCEPTANCE);
-        TerminationConfig phase2Termination = new TerminationConfig();
-        phase2Termination.setSpentLimit(Duration.ofMinutes(2));
-        deepSearch.setTerminationConfig(phase2Termination);
-        
-        // Phase 3: Fine-tuning (2 minutes)
-        LocalSearchPhaseConfig fineTuning = new LocalSearchPhaseConfig();
-        fineTuning.setLocalSearchType(LocalSearchType.LATE_ACCEPTANCE);
-        TerminationConfig phase3Termination = new TerminationConfig();
-        phase3Termination.setSpentLimit(Duration.ofMinutes(2));
-        fineTuning.setTerminationConfig(phase3Termination);
-        
-        solverConfig.setPhaseConfigList(Arrays.asList(constructionPhase, initialSearch, deepSearch, fineTuning));
+        if (profile == SolverProfile.THOROUGH) {
+            // MAXIMUM ACCURACY: Multi-phase configuration with extensive solving time
+            // Phase 1: Initial exploration (1 minute)
+            LocalSearchPhaseConfig initialSearch = new LocalSearchPhaseConfig();
+            initialSearch.setLocalSearchType(LocalSearchType.LATE_ACCEPTANCE);
+            initialSearch.setMoveSelectorConfig(localSearchMoveSelector());
+            TerminationConfig phase1Termination = new TerminationConfig();
+            phase1Termination.setSpentLimit(Duration.ofMinutes(1));
+            initialSearch.setTerminationConfig(phase1Termination);
+            
+            // Phase 2: Deep optimization (2 minutes)
+            LocalSearchPhaseConfig deepSearch = new LocalSearchPhaseConfig();
+            deepSearch.setLocalSearchType(LocalSearchType.LATE_ACCEPTANCE);
+            deepSearch.setMoveSelectorConfig(localSearchMoveSelector());
+            TerminationConfig phase2Termination = new TerminationConfig();
+            phase2Termination.setSpentLimit(Duration.ofMinutes(2));
+            deepSearch.setTerminationConfig(phase2Termination);
+            
+            // Phase 3: Fine-tuning (2 minutes)
+            LocalSearchPhaseConfig fineTuning = new LocalSearchPhaseConfig();
+            fineTuning.setLocalSearchType(LocalSearchType.LATE_ACCEPTANCE);
+            fineTuning.setMoveSelectorConfig(localSearchMoveSelector());
+            TerminationConfig phase3Termination = new TerminationConfig();
+            phase3Termination.setSpentLimit(Duration.ofMinutes(2));
+            fineTuning.setTerminationConfig(phase3Termination);
+            
+            phaseConfigs = Arrays.asList(constructionPhase, initialSearch, deepSearch, fineTuning);
+        } else {
+            // Short budgets: a single local search phase runs until the job's time budget
+            LocalSearchPhaseConfig localSearch = new LocalSearchPhaseConfig();
+            localSearch.setLocalSearchType(LocalSearchType.LATE_ACCEPTANCE);
+            localSearch.setMoveSelectorConfig(localSearchMoveSelector());
+            phaseConfigs = Arrays.asList(constructionPhase, localSearch);
+        }
+
+        if (partitionedSearch) {
+            // Parts share no group or teacher, so each runs the full phase list on its own thread
+            PartitionedSearchPhaseConfig partitionedPhase = new PartitionedSearchPhaseConfig();
+            partitionedPhase.setSolutionPartitionerClass(TimeTablePartitioner.class);
+            partitionedPhase.setPhaseConfigList(phaseConfigs);
+            partitionedPhase.setRunnablePartThreadLimit(partitionThreads.toUpperCase());
+            solverConfig.setPhaseConfigList(List.of(partitionedPhase));
+        } else {
+            solverConfig.setPhaseConfigList(phaseConfigs);
+        }
         
-        // MAXIMUM SOLVING TIME: 30 minutes total for highest accuracy
+        // The profile's largest budget; smaller, size-based budgets are enforced per job
         TerminationConfig terminationConfig = new TerminationConfig();
-        terminationConfig.setSpentLimit(Duration.ofMinutes(5)); // 5 minutes total (60x original)
-        terminationConfig.setUnimprovedSpentLimit(Duration.ofMinutes(1)); // Stop if no improvement for 1 minute
-        terminationConfig.setBestScoreLimit("0hard/*soft"); // Stop when feasible solution found
+        terminationConfig.setSpentLimit(profile.getMaxBudget());
+        terminationConfig.setUnimprovedSpentLimit(profile.getUnimprovedLimit());
+        // No best score limit here: new jobs stop at the first feasible solution from TimeTableService,
+        // repair jobs keep going to move as few lessons as possible
         solverConfig.setTerminationConfig(terminationConfig);
         
+        // Micrometer meters in the global registry, which Spring Boot's Prometheus registry joins,
+        // tagged problem.id = job id. No constraint match metrics, they would need constraint match tracking.
+        solverConfig.setMonitoringConfig(new MonitoringConfig().withSolverMetricList(List.of(
+                SolverMetric.SOLVE_DURATION,
+                SolverMetric.ERROR_COUNT,
+                SolverMetric.SCORE_CALCULATION_COUNT,
+                SolverMetric.BEST_SCORE,
+                SolverMetric.STEP_SCORE,
+                SolverMetric.BEST_SOLUTION_MUTATION,
+                SolverMetric.MOVE_COUNT_PER_STEP)));
+        
         // Performance optimization for long runs
         solverConfig.setEnvironmentMode(EnvironmentMode.REPRODUCIBLE);
-        solverConfig.setMoveThreadCount(SolverConfig.MOVE_THREAD_COUNT_AUTO);
+        // Partitioned search already keeps one thread per part busy
+        solverConfig.setMoveThreadCount(partitionedSearch ? SolverConfig.MOVE_THREAD_COUNT_NONE : SolverConfig.MOVE_THREAD_COUNT_AUTO);
         
         return solverConfig;
     }
 
-    @Bean
-    public SolverManager<TimeTable, UUID> solverManager(SolverConfig solverConfig) {
-        return SolverManager.create(solverConfig);
+    /**
+     * OptaPlanner's change and swap moves, filtered to those that add no teacher or student group clash,
+     * plus nearby change moves and Kempe chain and day swap moves, which never add one either.
+     * In tight schools most unfiltered change and swap moves add a clash, and each one was scored and rejected.
+     */
+    public static MoveSelectorConfig<?> localSearchMoveSelector() {
+        return new UnionMoveSelectorConfig().withMoveSelectors(
+                new ChangeMoveSelectorConfig().withFilterClass(ClashFreeChangeMoveFilter.class)
+                        .withFixedProbabilityWeight(1.0),
+                new SwapMoveSelectorConfig().withFilterClass(ClashFreeSwapMoveFilter.class)
+                        .withFixedProbabilityWeight(1.0),
+                new MoveIteratorFactoryConfig().withMoveIteratorFactoryClass(NearbyChangeMoveIteratorFactory.class)
+                        .withFixedProbabilityWeight(NEARBY_CHANGE_MOVE_WEIGHT),
+                new MoveIteratorFactoryConfig().withMoveIteratorFactoryClass(KempeChainMoveIteratorFactory.class)
+                        .withFixedProbabilityWeight(KEMPE_CHAIN_MOVE_WEIGHT),
+                new MoveIteratorFactoryConfig().withMoveIteratorFactoryClass(DaySwapMoveIteratorFactory.class)
+                        .withFixedProbabilityWeight(DAY_SWAP_MOVE_WEIGHT));
+    }
+
+    /**
+     * Scoring engine selected by timetabling.solver.score-calculator.
+     * Both engines must produce identical scores, so they can be swapped for speed only.
+     */
+    public static ScoreDirectorFactoryConfig scoreDirectorFactoryConfig(String scoreCalculator) {
+        ScoreDirectorFactoryConfig scoreDirectorFactoryConfig = new ScoreDirectorFactoryConfig();
+        if (INCREMENTAL_SCORE_CALCULATOR.equalsIgnoreCase(scoreCalculator)) {
+            scoreDirectorFactoryConfig.setIncrementalScoreCalculatorClass(TimeTableIncrementalScoreCalculator.class);
+        } else if (CONSTRAINT_STREAMS_SCORE_CALCULATOR.equalsIgnoreCase(scoreCalculator)) {
+            scoreDirectorFactoryConfig.setConstraintProviderClass(TimeTableConstraintProvider.class);
+        } else {
+            throw new IllegalArgumentException("Unknown timetabling.solver.score-calculator: " + scoreCalculator
+                    + " (expected " + CONSTRAINT_STREAMS_SCORE_CALCULATOR + " or " + INCREMENTAL_SCORE_CALCULATOR + ")");
+        }
+        scoreDirectorFactoryConfig.setInitializingScoreTrend("ONLY_DOWN");
+        return scoreDirectorFactoryConfig;
     }
 }
@@ -0,0 +1,66 @@
+package com.school.timetabling.config;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Solver presets a request can pick with {@code solverProfile}.
+ * Each profile has a time budget that grows with the number of lessons, capped at maxBudget.
+ * The cap and unimproved limit are built into the profile's SolverFactory;
+ * the size-based budget is applied per job by terminating early.
+ */
+public enum SolverProfile {
+
+    FAST(Duration.ofSeconds(2), Duration.ofMillis(5), Duration.ofSeconds(10), Duration.ofSeconds(3)),
+    BALANCED(Duration.ofSeconds(10), Duration.ofMillis(25), Duration.ofMinutes(1), Duration.ofSeconds(15)),
+    THOROUGH(Duration.ofMinutes(1), Duration.ofMillis(250), Duration.ofMinutes(5), Duration.ofMinutes(1));
+
+    private final Duration baseBudget;
+    private final Duration budgetPerLesson;
+    private final Duration maxBudget;
+    private final Duration unimprovedLimit;
+
+    SolverProfile(Duration baseBudget, Duration budgetPerLesson, Duration maxBudget, Duration unimprovedLimit) {
+        this.baseBudget = baseBudget;
+        this.budgetPerLesson = budgetPerLesson;
+        this.maxBudget = maxBudget;
+        this.unimprovedLimit = unimprovedLimit;
+    }
+
+    /**
+     * @param lessonCount Number of lessons to schedule
+     * @return baseBudget plus budgetPerLesson for each lesson, at most maxBudget
+     */
+    public Duration timeBudgetFor(int lessonCount) {
+        Duration budget = baseBudget.plus(budgetPerLesson.multipliedBy(lessonCount));
+        return budget.compareTo(maxBudget) > 0 ? maxBudget : budget;
+    }
+
+    public Duration getMaxBudget() { return maxBudget; }
+
+    public Duration getUnimprovedLimit() { return unimprovedLimit; }
+
+    /**
+     * Smallest profile whose cap covers an explicit time budget
+     */
+    public static SolverProfile forTimeBudget(Duration timeBudget) {
+        for (SolverProfile profile : values()) {
+            if (timeBudget.compareTo(profile.maxBudget) <= 0) {
+                return profile;
+            }
+        }
+        return THOROUGH;
+    }
+
+    /**
+     * Case-insensitive lookup
+     * @throws IllegalArgumentException if the name is not a profile
+     */
+    public static SolverProfile parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown solverProfile: " + name + " (expected FAST, BALANCED or THOROUGH)");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.school.timetabling.config;
+
+import com.school.timetabling.domain.TimeTable;
+import jakarta.annotation.PreDestroy;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.config.solver.SolverManagerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds one SolverFactory and SolverManager per {@link SolverProfile} on first use and reuses them,
+ * so solving a request never re-parses the solver configuration or rebuilds the constraint network.
+ * Each SolverManager runs up to timetabling.solver.parallel-solver-count jobs of its profile.
+ */
+@Component
+public class SolverProfileRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(SolverProfileRegistry.class);
+
+    @Value("${timetabling.solver.score-calculator:" + OptaPlannerConfiguration.CONSTRAINT_STREAMS_SCORE_CALCULATOR + "}")
+    private String scoreCalculator;
+
+    @Value("${timetabling.solver.parallel-solver-count:AUTO}")
+    private String parallelSolverCount;
+
+    @Value("${timetabling.solver.partition-threads:" + OptaPlannerConfiguration.PARTITION_THREADS_NONE + "}")
+    private String partitionThreads;
+
+    // Read here rather than from the JobScheduler, which depends on this registry
+    @Value("${timetabling.scheduler.max-running-jobs:AUTO}")
+    private String maxRunningJobs;
+
+    @Value("${timetabling.solver.default-profile:THOROUGH}")
+    private String defaultProfile;
+
+    private final Map<SolverProfile, SolverFactory<TimeTable>> solverFactories = new ConcurrentHashMap<>();
+    private final Map<SolverProfile, SolverManager<TimeTable, UUID>> solverManagers = new ConcurrentHashMap<>();
+
+    public SolverProfile getDefaultProfile() {
+        return SolverProfile.parse(defaultProfile);
+    }
+
+    public SolverFactory<TimeTable> getSolverFactory(SolverProfile profile) {
+        return solverFactories.computeIfAbsent(profile, p -> {
+            String resolvedPartitionThreads = resolvePartitionThreads();
+            log.info("Building solver factory for profile {} ({} scoring, partition threads {})", p, scoreCalculator,
+                    resolvedPartitionThreads);
+            return SolverFactory.create(OptaPlannerConfiguration.buildSolverConfig(p, scoreCalculator, resolvedPartitionThreads));
+        });
+    }
+
+    /**
+     * Every running job gets its own part threads, so AUTO shares the cores between the jobs the scheduler
+     * runs at once instead of letting OptaPlanner give each job cores - 2. With a single thread per job
+     * partitioning only adds overhead, so it is turned off.
+     */
+    String resolvePartitionThreads() {
+        if (!"AUTO".equalsIgnoreCase(partitionThreads.trim())) {
+            return partitionThreads.trim();
+        }
+        int runningJobs = "AUTO".equalsIgnoreCase(maxRunningJobs.trim())
+                ? getParallelSolverCount()
+                : Integer.parseInt(maxRunningJobs.trim());
+        int threadsPerJob = Runtime.getRuntime().availableProcessors() / Math.max(1, runningJobs);
+        return threadsPerJob > 1 ? Integer.toString(threadsPerJob) : OptaPlannerConfiguration.PARTITION_THREADS_NONE;
+    }
+
+    public SolverManager<TimeTable, UUID> getSolverManager(SolverProfile profile) {
+        return solverManagers.computeIfAbsent(profile, p -> {
+            // Each solve carries its own constraint config, so jobs can run side by side
+            SolverManagerConfig solverManagerConfig = new SolverManagerConfig();
+            solverManagerConfig.setParallelSolverCount(parallelSolverCount);
+            return SolverManager.create(getSolverFactory(p), solverManagerConfig);
+        });
+    }
+
+    /**
+     * Solver threads per profile, with AUTO resolved against the available cores
+     */
+    public int getParallelSolverCount() {
+        return new SolverManagerConfig().withParallelSolverCount(parallelSolverCount).resolveParallelSolverCount();
+    }
+
+    /**
+     * Solver threads across all profiles that have been used so far
+     */
+    public int getSolverThreadCount() {
+        return getParallelSolverCount() * Math.max(1, solverManagers.size());
+    }
+
+    @PreDestroy
+    public void close() {
+        solverManagers.values().forEach(SolverManager::close);
+    }
+}
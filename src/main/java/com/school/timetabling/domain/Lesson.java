@@ -1,6 +1,7 @@
 package com.school.timetabling.domain;
 
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.entity.PlanningPin;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
 
@@ -14,10 +15,19 @@ public class Lesson {
     private String subject;
     private String teacher; // Pre-assigned, not a planning variable
     private StudentGroup studentGroup;
+    // Dense indexes assigned when the problem is built, used by the constraints instead of the strings
+    private int subjectIndex = -1;
+    private int teacherIndex = -1;
+    private int maxPeriodsPerDay = 1; // Daily cap for this subject and grade, taken from the solve's constraint config
 
     @PlanningVariable(valueRangeProviderRefs = "timeslotRange")
     private Timeslot timeslot;
 
+    // Repair solves: timeslot in the previous timetable (null for new lessons) and whether it must stay there
+    private Timeslot originalTimeslot;
+    @PlanningPin
+    private boolean pinned;
+
     // Keep this for reference but not as planning variable
     private List<String> possibleTeachers = new ArrayList<>();
 
@@ -43,9 +53,24 @@ public class Lesson {
     public StudentGroup getStudentGroup() { return studentGroup; }
     public void setStudentGroup(StudentGroup studentGroup) { this.studentGroup = studentGroup; }
 
+    public int getSubjectIndex() { return subjectIndex; }
+    public void setSubjectIndex(int subjectIndex) { this.subjectIndex = subjectIndex; }
+
+    public int getTeacherIndex() { return teacherIndex; }
+    public void setTeacherIndex(int teacherIndex) { this.teacherIndex = teacherIndex; }
+
+    public int getMaxPeriodsPerDay() { return maxPeriodsPerDay; }
+    public void setMaxPeriodsPerDay(int maxPeriodsPerDay) { this.maxPeriodsPerDay = maxPeriodsPerDay; }
+
     public Timeslot getTimeslot() { return timeslot; }
     public void setTimeslot(Timeslot timeslot) { this.timeslot = timeslot; }
 
+    public Timeslot getOriginalTimeslot() { return originalTimeslot; }
+    public void setOriginalTimeslot(Timeslot originalTimeslot) { this.originalTimeslot = originalTimeslot; }
+
+    public boolean isPinned() { return pinned; }
+    public void setPinned(boolean pinned) { this.pinned = pinned; }
+
     public List<String> getPossibleTeachers() {
         return possibleTeachers;
     }
@@ -8,6 +8,9 @@ public class StudentGroup {
     private String grade;
     private String className;
     private int studentCount;
+    // Dense indexes assigned when the problem is built
+    private int index = -1;
+    private int gradeIndex = -1;
 
     public StudentGroup() {}
 
@@ -31,6 +34,12 @@ public class StudentGroup {
     public int getStudentCount() { return studentCount; }
     public void setStudentCount(int studentCount) { this.studentCount = studentCount; }
 
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public int getGradeIndex() { return gradeIndex; }
+    public void setGradeIndex(int gradeIndex) { this.gradeIndex = gradeIndex; }
+
     @Override
     public String toString() {
         return grade + className;
@@ -1,13 +1,17 @@
 package com.school.timetabling.domain;
 
+import com.school.timetabling.solver.TimeTableConstraintConfig;
 import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
 import org.optaplanner.core.api.domain.solution.PlanningScore;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.domain.solution.ProblemFactCollectionProperty;
+import org.optaplanner.core.api.domain.solution.ProblemFactProperty;
 import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @PlanningSolution
@@ -20,9 +24,16 @@ public class TimeTable {
     @ProblemFactCollectionProperty
     private List<StudentGroup> studentGroupList;
 
+    @ProblemFactProperty
+    private TimeTableConstraintConfig constraintConfig;
+
     @PlanningEntityCollectionProperty
     private List<Lesson> lessonList;
 
+    // Periods that could not be given a teacher when the problem was built (not planned by the solver)
+    private Map<String, Map<String, Integer>> unassignedPeriods = new HashMap<>();
+    private Map<String, Map<String, Map<String, Integer>>> detailedUnassignedPeriods = new HashMap<>();
+
     @PlanningScore
     private HardSoftScore score;
 
@@ -34,6 +45,12 @@ public class TimeTable {
         this.lessonList = lessonList;
     }
 
+    public TimeTable(List<Timeslot> timeslotList, List<StudentGroup> studentGroupList,
+                     TimeTableConstraintConfig constraintConfig, List<Lesson> lessonList) {
+        this(timeslotList, studentGroupList, lessonList);
+        this.constraintConfig = constraintConfig;
+    }
+
     // Getters and setters
     public List<Timeslot> getTimeslotList() { return timeslotList; }
     public void setTimeslotList(List<Timeslot> timeslotList) { this.timeslotList = timeslotList; }
@@ -41,12 +58,25 @@ public class TimeTable {
     public List<StudentGroup> getStudentGroupList() { return studentGroupList; }
     public void setStudentGroupList(List<StudentGroup> studentGroupList) { this.studentGroupList = studentGroupList; }
 
+    public TimeTableConstraintConfig getConstraintConfig() { return constraintConfig; }
+    public void setConstraintConfig(TimeTableConstraintConfig constraintConfig) { this.constraintConfig = constraintConfig; }
+
     public List<Lesson> getLessonList() { return lessonList; }
     public void setLessonList(List<Lesson> lessonList) { this.lessonList = lessonList; }
 
     public HardSoftScore getScore() { return score; }
     public void setScore(HardSoftScore score) { this.score = score; }
 
+    public Map<String, Map<String, Integer>> getUnassignedPeriods() { return unassignedPeriods; }
+    public void setUnassignedPeriods(Map<String, Map<String, Integer>> unassignedPeriods) {
+        this.unassignedPeriods = unassignedPeriods;
+    }
+
+    public Map<String, Map<String, Map<String, Integer>>> getDetailedUnassignedPeriods() { return detailedUnassignedPeriods; }
+    public void setDetailedUnassignedPeriods(Map<String, Map<String, Map<String, Integer>>> detailedUnassignedPeriods) {
+        this.detailedUnassignedPeriods = detailedUnassignedPeriods;
+    }
+
     @ValueRangeProvider(id = "teacherRange")
     public List<String> getTeacherList() {
         // Collect all unique teachers from all lessons
@@ -17,6 +17,14 @@ public class Timeslot {
     @JsonFormat(pattern = "HH:mm:ss")
     private LocalTime endTime;
 
+    // Normalized grid position, assigned when the problem is built so constraints compare ints
+    private int dayIndex;       // Position of the day among the days of the week that have timeslots
+    private int periodIndex;    // Position within its day by start time
+    // The previous period of the day ended before this one starts. Breaks are not periods, so the gap
+    // constraint does not count them as idle time; moves use the flag to keep a lesson on its side of a break.
+    private boolean breakBefore;
+    private boolean morning = true;
+
     public Timeslot() {}
 
     public Timeslot(Long id, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
@@ -39,6 +47,34 @@ public class Timeslot {
     public LocalTime getEndTime() { return endTime; }
     public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
 
+    public int getDayIndex() { return dayIndex; }
+    public void setDayIndex(int dayIndex) { this.dayIndex = dayIndex; }
+
+    public int getPeriodIndex() { return periodIndex; }
+    public void setPeriodIndex(int periodIndex) { this.periodIndex = periodIndex; }
+
+    public boolean isBreakBefore() { return breakBefore; }
+    public void setBreakBefore(boolean breakBefore) { this.breakBefore = breakBefore; }
+
+    public boolean isMorning() { return morning; }
+    public void setMorning(boolean morning) { this.morning = morning; }
+
+    /**
+     * Consecutive periods on the same day with no break between them.
+     */
+    public boolean isAdjacentTo(Timeslot other) {
+        if (dayIndex != other.dayIndex) {
+            return false;
+        }
+        if (other.periodIndex == periodIndex + 1) {
+            return !other.breakBefore;
+        }
+        if (other.periodIndex == periodIndex - 1) {
+            return !breakBefore;
+        }
+        return false;
+    }
+
     @Override
     public String toString() {
         return dayOfWeek + " " + startTime + "-" + endTime;
@@ -0,0 +1,72 @@
+package com.school.timetabling.rest;
+
+import com.school.timetabling.rest.dto.BatchStatusResponse;
+import com.school.timetabling.service.TimetableBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams a batch to one SSE client: a {@code result} event per request as soon as it finishes, in finishing
+ * order, then a {@code finished} event with the whole batch. Requests that finished before the client
+ * connected are sent on the first call.
+ */
+class BatchProgressEmitter implements Consumer<TimetableBatch> {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchProgressEmitter.class);
+
+    private final SseEmitter emitter;
+    private final Function<TimetableBatch.Item, BatchStatusResponse.Item> itemConverter;
+    private final Function<TimetableBatch, BatchStatusResponse> batchConverter;
+    private boolean[] sentItems;
+    private boolean closed;
+
+    BatchProgressEmitter(SseEmitter emitter, Function<TimetableBatch.Item, BatchStatusResponse.Item> itemConverter,
+                         Function<TimetableBatch, BatchStatusResponse> batchConverter) {
+        this.emitter = emitter;
+        this.itemConverter = itemConverter;
+        this.batchConverter = batchConverter;
+    }
+
+    @Override
+    public synchronized void accept(TimetableBatch batch) {
+        if (closed) {
+            return;
+        }
+        if (sentItems == null) {
+            sentItems = new boolean[batch.getItems().size()];
+        }
+        // Read before the items, so the finished event never goes out ahead of a result
+        boolean finished = batch.isFinished();
+        try {
+            for (TimetableBatch.Item item : batch.getItems()) {
+                if (!sentItems[item.getIndex()] && item.isFinished()) {
+                    emitter.send(SseEmitter.event()
+                        .name("result")
+                        .data(itemConverter.apply(item), MediaType.APPLICATION_JSON));
+                    sentItems[item.getIndex()] = true;
+                }
+            }
+            if (finished) {
+                emitter.send(SseEmitter.event()
+                    .name("finished")
+                    .data(batchConverter.apply(batch), MediaType.APPLICATION_JSON));
+                close(batch);
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            // Client went away: stop listening, the batch itself carries on
+            log.debug("Event stream of batch {} closed: {}", batch.getId(), e.toString());
+            close(batch);
+        }
+    }
+
+    synchronized void close(TimetableBatch batch) {
+        closed = true;
+        batch.removeProgressListener(this);
+    }
+}
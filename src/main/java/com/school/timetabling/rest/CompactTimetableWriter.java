@@ -0,0 +1,70 @@
+package com.school.timetabling.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.rest.dto.CompactTimetableResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes a {@link CompactTimetableResponse} token by token with a Jackson {@link JsonGenerator}, straight into
+ * the response stream: no bean introspection per lesson and no intermediate buffer of the whole document.
+ * Field names match the bean, so clients can read it back with a plain ObjectMapper.
+ */
+@Component
+class CompactTimetableWriter {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    void write(CompactTimetableResponse response, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet container owns the stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeStringField("score", response.getScore());
+            generator.writeBooleanField("feasible", response.isFeasible());
+            generator.writeStringField("message", response.getMessage());
+            writeStrings(generator, "studentGroups", response.getStudentGroups());
+            writeStrings(generator, "subjects", response.getSubjects());
+            writeStrings(generator, "teachers", response.getTeachers());
+
+            generator.writeArrayFieldStart("timeslots");
+            for (CompactTimetableResponse.TimeslotEntry timeslot : response.getTimeslots()) {
+                generator.writeStartObject();
+                generator.writeStringField("dayOfWeek", timeslot.getDayOfWeek());
+                generator.writeStringField("startTime", timeslot.getStartTime());
+                generator.writeStringField("endTime", timeslot.getEndTime());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            writeStrings(generator, "lessonColumns", response.getLessonColumns());
+            generator.writeArrayFieldStart("lessons");
+            for (int[] lesson : response.getLessons()) {
+                generator.writeArray(lesson, 0, lesson.length);
+            }
+            generator.writeEndArray();
+            generator.writeFieldName("teacherWorkload");
+            generator.writeArray(response.getTeacherWorkload(), 0, response.getTeacherWorkload().length);
+
+            // Small maps, left to the ObjectMapper
+            generator.writeObjectField("unassignedPeriods", response.getUnassignedPeriods());
+            generator.writeObjectField("detailedUnassignedPeriods", response.getDetailedUnassignedPeriods());
+            generator.writeObjectField("unassignedSummary", response.getUnassignedSummary());
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeStrings(JsonGenerator generator, String fieldName, List<String> values) throws IOException {
+        generator.writeArrayFieldStart(fieldName);
+        for (String value : values) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,117 @@
+package com.school.timetabling.rest;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.rest.dto.SolverProgressEvent;
+import com.school.timetabling.service.TimetableJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Streams one job's best solutions to one SSE client as {@code progress} events, then a {@code finished} event.
+ * Remembers the timeslot of every lesson it sent, so each event only carries the lessons that moved.
+ * SolverManager skips intermediate best solutions while its consumer is busy, so a slow client
+ * gets fewer, larger diffs instead of holding up the solver.
+ */
+class JobProgressEmitter implements Consumer<TimetableJob> {
+
+    private static final Logger log = LoggerFactory.getLogger(JobProgressEmitter.class);
+
+    private final SseEmitter emitter;
+    private final Map<Long, Long> sentTimeslotIds = new HashMap<>();
+    private TimeTable lastSentSolution;
+    private boolean sentFirstEvent;
+    private boolean closed;
+
+    JobProgressEmitter(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public synchronized void accept(TimetableJob job) {
+        if (closed) {
+            return;
+        }
+        boolean finished = job.isFinished();
+        TimeTable bestSolution = job.getBestSolution();
+        if (!finished && (bestSolution == null || bestSolution == lastSentSolution)) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event()
+                .name(finished ? "finished" : "progress")
+                .data(toEvent(job, bestSolution), MediaType.APPLICATION_JSON));
+            lastSentSolution = bestSolution;
+            sentFirstEvent = true;
+            if (finished) {
+                close(job);
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            // Client went away: stop listening, the job itself carries on
+            log.debug("Progress stream of job {} closed: {}", job.getId(), e.toString());
+            close(job);
+        }
+    }
+
+    synchronized void close(TimetableJob job) {
+        closed = true;
+        job.removeProgressListener(this);
+    }
+
+    private SolverProgressEvent toEvent(TimetableJob job, TimeTable bestSolution) {
+        SolverProgressEvent event = new SolverProgressEvent();
+        event.setJobId(job.getId().toString());
+        event.setStatus(job.getStatus().name());
+        event.setElapsedMillis(job.getSolvingTimeMillis());
+        event.setFull(!sentFirstEvent);
+        if (bestSolution != null && bestSolution.getScore() != null) {
+            event.setScore(bestSolution.getScore().toString());
+            event.setFeasible(bestSolution.getScore().isFeasible());
+        } else if (job.getResponse() != null) {
+            // Answered from the solution cache, there are no lessons to stream
+            event.setScore(job.getResponse().getScore());
+            event.setFeasible(job.getResponse().isFeasible());
+        } else {
+            event.setScore("N/A");
+        }
+        event.setChangedLessons(bestSolution != null ? diff(bestSolution) : List.of());
+        return event;
+    }
+
+    private List<SolverProgressEvent.LessonChange> diff(TimeTable solution) {
+        List<SolverProgressEvent.LessonChange> changes = new ArrayList<>();
+        for (Lesson lesson : solution.getLessonList()) {
+            Long timeslotId = lesson.getTimeslot() != null ? lesson.getTimeslot().getId() : null;
+            boolean known = sentTimeslotIds.containsKey(lesson.getId());
+            if (known && Objects.equals(sentTimeslotIds.get(lesson.getId()), timeslotId)) {
+                continue;
+            }
+            sentTimeslotIds.put(lesson.getId(), timeslotId);
+            if (!known && timeslotId == null) {
+                continue;
+            }
+            SolverProgressEvent.LessonChange change = new SolverProgressEvent.LessonChange();
+            change.setId(lesson.getId());
+            change.setStudentGroup(lesson.getStudentGroup().getGrade() + lesson.getStudentGroup().getClassName());
+            change.setSubject(lesson.getSubject());
+            change.setTeacher(lesson.getTeacher());
+            if (lesson.getTimeslot() != null) {
+                change.setDayOfWeek(lesson.getTimeslot().getDayOfWeek().toString());
+                change.setStartTime(lesson.getTimeslot().getStartTime().toString());
+                change.setEndTime(lesson.getTimeslot().getEndTime().toString());
+            }
+            changes.add(change);
+        }
+        return changes;
+    }
+}
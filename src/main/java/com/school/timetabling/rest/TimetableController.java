@@ -1,128 +1,519 @@
 package com.school.timetabling.rest;
 
-import com.school.timetabling.domain.Lesson;
 import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.rest.dto.BatchRequest;
+import com.school.timetabling.rest.dto.BatchStatusResponse;
+import com.school.timetabling.rest.dto.CompactTimetableResponse;
+import com.school.timetabling.rest.dto.FeasibilityReport;
+import com.school.timetabling.rest.dto.IndictmentPage;
+import com.school.timetabling.rest.dto.JobStatusResponse;
+import com.school.timetabling.rest.dto.RepairRequest;
+import com.school.timetabling.rest.dto.ScoreAnalysisResponse;
+import com.school.timetabling.rest.dto.SolverLoadResponse;
 import com.school.timetabling.rest.dto.TimetableRequest;
 import com.school.timetabling.rest.dto.TimetableResponse;
+import com.school.timetabling.service.FeasibilityAnalysisService;
+import com.school.timetabling.service.InfeasibleRequestException;
+import com.school.timetabling.service.JobPriority;
+import com.school.timetabling.service.JobQueueFullException;
+import com.school.timetabling.service.JobScheduler;
+import com.school.timetabling.service.ScoreAnalysisService;
 import com.school.timetabling.service.TimeTableService;
+import com.school.timetabling.service.TimetableBatch;
+import com.school.timetabling.service.TimetableBatchService;
+import com.school.timetabling.service.TimetableJob;
+import com.school.timetabling.service.TimetableResponseBuilder;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/timetable")
 @CrossOrigin(origins = "*")
 public class TimetableController {
 
+    private static final Logger log = LoggerFactory.getLogger(TimetableController.class);
+
+    // Caller whose concurrency quota a job counts against, see JobScheduler
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+
+    // Longest a progress stream stays open, covers the THOROUGH cap plus time spent queued
+    private static final Duration EVENT_STREAM_TIMEOUT = Duration.ofMinutes(30);
+
+    // A batch solves its jobs a few at a time, so its stream stays open for many job lengths
+    private static final Duration BATCH_EVENT_STREAM_TIMEOUT = Duration.ofHours(12);
+
     @Autowired
     private TimeTableService timeTableService;
 
+    @Autowired
+    private TimetableResponseBuilder responseBuilder;
+
+    @Autowired
+    private FeasibilityAnalysisService feasibilityAnalysis;
+
+    @Autowired
+    private ScoreAnalysisService scoreAnalysis;
+
+    @Autowired
+    private CompactTimetableWriter compactWriter;
+
+    @Autowired
+    private TimetableBatchService batchService;
+
+    @Autowired
+    private JobScheduler jobScheduler;
+
     @PostMapping("/solve")
-    public TimetableResponse solveTimetable(@RequestBody TimetableRequest request) {
+    public ResponseEntity<TimetableResponse> solveTimetable(@RequestBody TimetableRequest request,
+                                                            @RequestHeader(value = TENANT_HEADER, defaultValue = JobScheduler.DEFAULT_TENANT) String tenant) {
         try {
-            TimeTable solution = timeTableService.solve(request);
-            return convertToResponse(solution);
+            return ResponseEntity.ok(timeTableService.solve(request, tenant));
+        } catch (JobQueueFullException e) {
+            TimetableResponse errorResponse = new TimetableResponse();
+            errorResponse.setFeasible(false);
+            errorResponse.setScore("Queue full");
+            errorResponse.setMessage(e.getMessage());
+            return queueFull(e).body(errorResponse);
+        } catch (InfeasibleRequestException e) {
+            TimetableResponse errorResponse = new TimetableResponse();
+            errorResponse.setFeasible(false);
+            errorResponse.setScore("Rejected");
+            errorResponse.setMessage(e.getMessage());
+            return ResponseEntity.ok(errorResponse);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to solve timetable", e);
             TimetableResponse errorResponse = new TimetableResponse();
             errorResponse.setFeasible(false);
             errorResponse.setScore("Error: " + e.getMessage());
             errorResponse.setMessage("Failed to solve timetable: " + e.getMessage());
-            return errorResponse;
+            return ResponseEntity.ok(errorResponse);
+        }
+    }
+
+    /**
+     * Queues a solve job. {@code 429 Too Many Requests} with a {@code Retry-After} header when the scheduler queue is full.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<JobStatusResponse> submitJob(@RequestBody TimetableRequest request,
+                                                       @RequestHeader(value = TENANT_HEADER, defaultValue = JobScheduler.DEFAULT_TENANT) String tenant) {
+        try {
+            TimetableJob job = timeTableService.submit(request, tenant, JobPriority.INTERACTIVE);
+            return ResponseEntity.accepted().body(convertToStatus(job));
+        } catch (JobQueueFullException e) {
+            return queueFull(e).body(queueFullStatus(e));
+        } catch (InfeasibleRequestException e) {
+            return rejected(e);
+        } catch (IllegalArgumentException e) {
+            // Missing timeslots, classes or assignments, or an invalid solverProfile, priority or timeBudgetSeconds
+            return ResponseEntity.badRequest().body(failedStatus("Invalid timetable job: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to submit timetable job", e);
+            return ResponseEntity.internalServerError().body(failedStatus("Failed to submit timetable job: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Capacity and pigeonhole checks without solving: classes or teachers with more lessons than timeslots,
+     * and subjects whose daily limit cannot fit their weekly periods. Takes milliseconds.
+     */
+    @PostMapping("/feasibility")
+    public ResponseEntity<FeasibilityReport> checkFeasibility(@RequestBody TimetableRequest request) {
+        try {
+            return ResponseEntity.ok(feasibilityAnalysis.analyze(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Feasibility check failed", e);
+            return ResponseEntity.internalServerError().build();
         }
     }
 
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<JobStatusResponse> getJobStatus(@PathVariable UUID jobId) {
+        TimetableJob job = timeTableService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(convertToStatus(job));
+    }
+
+    @GetMapping("/jobs/{jobId}/best")
+    public ResponseEntity<TimetableResponse> getBestSolution(@PathVariable UUID jobId) {
+        TimetableJob job = timeTableService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.isCached()) {
+            return ResponseEntity.ok(job.getResponse());
+        }
+        TimeTable bestSolution = job.getBestSolution();
+        if (bestSolution == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(responseBuilder.convertToResponse(bestSolution));
+    }
+
+    @GetMapping("/jobs/{jobId}/result")
+    public ResponseEntity<TimetableResponse> getFinalResult(@PathVariable UUID jobId) {
+        TimetableJob job = timeTableService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!job.isFinished()) {
+            TimetableResponse pendingResponse = new TimetableResponse();
+            pendingResponse.setScore("N/A");
+            pendingResponse.setMessage("Job " + jobId + " is still " + job.getStatus().name().toLowerCase());
+            return ResponseEntity.accepted().body(pendingResponse);
+        }
+        if (job.getStatus() == TimetableJob.Status.FAILED) {
+            TimetableResponse errorResponse = new TimetableResponse();
+            errorResponse.setFeasible(false);
+            errorResponse.setScore("Error: " + job.getErrorMessage());
+            errorResponse.setMessage("Failed to solve timetable: " + job.getErrorMessage());
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+        return ResponseEntity.ok(job.getResponse());
+    }
+
+    /**
+     * Best solution so far in the compact format, streamed
+     */
+    @GetMapping("/jobs/{jobId}/best/compact")
+    public ResponseEntity<StreamingResponseBody> getCompactBestSolution(@PathVariable UUID jobId) {
+        TimetableJob job = timeTableService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.isCached()) {
+            return compact(responseBuilder.convertToCompactResponse(job.getResponse()));
+        }
+        TimeTable bestSolution = job.getBestSolution();
+        if (bestSolution == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return compact(responseBuilder.convertToCompactResponse(bestSolution));
+    }
+
+    /**
+     * Final result as a {@link CompactTimetableResponse}: dictionaries plus index rows, a fraction of the size
+     * of /result for large schools. Written with Jackson streaming, and gzipped when the client accepts it.
+     */
+    @GetMapping("/jobs/{jobId}/result/compact")
+    public ResponseEntity<StreamingResponseBody> getCompactResult(@PathVariable UUID jobId) {
+        TimetableJob job = timeTableService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!job.isFinished()) {
+            return ResponseEntity.accepted().build();
+        }
+        if (job.getStatus() == TimetableJob.Status.FAILED) {
+            // The error is in the job status and in /result
+            return ResponseEntity.internalServerError().build();
+        }
+        // Cached jobs and jobs cancelled while queued have a response but no solution
+        if (job.isCached() || job.getBestSolution() == null) {
+            return compact(responseBuilder.convertToCompactResponse(job.getResponse()));
+        }
+        return compact(responseBuilder.convertToCompactResponse(job.getBestSolution()));
+    }
+
+    /**
+     * Per-constraint score totals of a finished job, computed on the first call and cached with the job
+     */
+    @GetMapping("/jobs/{jobId}/analysis")
+    public ResponseEntity<ScoreAnalysisResponse> getScoreAnalysis(@PathVariable UUID jobId) {
+        TimetableJob job = timeTableService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(scoreAnalysis.getSummary(job));
+        } catch (IllegalStateException e) {
+            ScoreAnalysisResponse errorResponse = new ScoreAnalysisResponse();
+            errorResponse.setJobId(jobId.toString());
+            errorResponse.setMessage(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        }
+    }
+
+    /**
+     * What each lesson, teacher or student group of a finished job costs, worst first, one page at a time
+     */
+    @GetMapping("/jobs/{jobId}/analysis/indictments")
+    public ResponseEntity<IndictmentPage> getIndictments(@PathVariable UUID jobId,
+                                                         @RequestParam(defaultValue = "LESSON") IndictmentPage.Type type,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "50") int size) {
+        TimetableJob job = timeTableService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(scoreAnalysis.getIndictments(job, type, page, size));
+        } catch (IllegalStateException e) {
+            // The reason is in the /analysis response
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Server-sent events for a job: a "progress" event per new best solution with the score, the solving time
+     * and the lessons that moved, then a "finished" event. Fetch /result after "finished" for the full response.
+     */
+    @GetMapping(path = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable UUID jobId) {
+        TimetableJob job = timeTableService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(EVENT_STREAM_TIMEOUT.toMillis());
+        JobProgressEmitter progressEmitter = new JobProgressEmitter(emitter);
+        emitter.onCompletion(() -> progressEmitter.close(job));
+        emitter.onTimeout(() -> progressEmitter.close(job));
+        emitter.onError(throwable -> progressEmitter.close(job));
+        job.addProgressListener(progressEmitter);
+        // Current best solution right away, or the finished event if the job is already done
+        progressEmitter.accept(job);
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Starts a new job from a previous job's timetable plus a change set.
+     * Only lessons near the change are re-solved; the rest keep their timeslots.
+     */
+    @PostMapping("/jobs/{jobId}/repair")
+    public ResponseEntity<JobStatusResponse> repairJob(@PathVariable UUID jobId, @RequestBody RepairRequest changes,
+                                                       @RequestHeader(value = TENANT_HEADER, defaultValue = JobScheduler.DEFAULT_TENANT) String tenant) {
+        try {
+            TimetableJob job = timeTableService.repair(jobId, changes, tenant);
+            if (job == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.accepted().body(convertToStatus(job));
+        } catch (JobQueueFullException e) {
+            return queueFull(e).body(queueFullStatus(e));
+        } catch (InfeasibleRequestException e) {
+            return rejected(e);
+        } catch (IllegalStateException e) {
+            JobStatusResponse errorResponse = new JobStatusResponse();
+            errorResponse.setJobId(jobId.toString());
+            errorResponse.setMessage(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(failedStatus("Invalid repair job: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to submit repair job for job {}", jobId, e);
+            return ResponseEntity.internalServerError().body(failedStatus("Failed to submit repair job: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<JobStatusResponse> terminateJob(@PathVariable UUID jobId) {
+        if (!timeTableService.terminate(jobId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(convertToStatus(timeTableService.getJob(jobId)));
+    }
+
+    /**
+     * Submits many requests at once, e.g. every school of a district. Each becomes an ordinary job; the batch
+     * keeps {@code parallelism} of them solving and starts the next as soon as one finishes.
+     */
+    @PostMapping("/batches")
+    public ResponseEntity<BatchStatusResponse> submitBatch(@RequestBody BatchRequest batchRequest,
+                                                           @RequestHeader(value = TENANT_HEADER, defaultValue = JobScheduler.DEFAULT_TENANT) String tenant) {
+        try {
+            return ResponseEntity.accepted().body(convertToBatchStatus(batchService.submit(batchRequest, tenant)));
+        } catch (IllegalArgumentException e) {
+            BatchStatusResponse errorResponse = new BatchStatusResponse();
+            errorResponse.setMessage(e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/batches/{batchId}")
+    public ResponseEntity<BatchStatusResponse> getBatchStatus(@PathVariable UUID batchId) {
+        TimetableBatch batch = batchService.getBatch(batchId);
+        if (batch == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(convertToBatchStatus(batch));
+    }
+
+    /**
+     * Server-sent events for a batch: a "result" event per request as it finishes, with its job id and score,
+     * then a "finished" event with the status of the whole batch.
+     */
+    @GetMapping(path = "/batches/{batchId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamBatchEvents(@PathVariable UUID batchId) {
+        TimetableBatch batch = batchService.getBatch(batchId);
+        if (batch == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(BATCH_EVENT_STREAM_TIMEOUT.toMillis());
+        BatchProgressEmitter progressEmitter = new BatchProgressEmitter(emitter, this::convertToBatchItem,
+            this::convertToBatchStatus);
+        emitter.onCompletion(() -> progressEmitter.close(batch));
+        emitter.onTimeout(() -> progressEmitter.close(batch));
+        emitter.onError(throwable -> progressEmitter.close(batch));
+        batch.addProgressListener(progressEmitter);
+        // Requests finished so far right away, or everything if the batch is already done
+        progressEmitter.accept(batch);
+        return ResponseEntity.ok(emitter);
+    }
+
+    @GetMapping("/load")
+    public SolverLoadResponse getSolverLoad() {
+        Map<TimetableJob.Status, Long> counts = timeTableService.countJobsByStatus();
+        SolverLoadResponse response = new SolverLoadResponse();
+        response.setParallelSolverCount(timeTableService.getParallelSolverCount());
+        response.setMaxRunningJobs(jobScheduler.getMaxRunningJobs());
+        response.setQueuedJobs(jobScheduler.getQueuedJobCount());
+        response.setMaxQueuedJobs(jobScheduler.getMaxQueuedJobs());
+        response.setScheduledJobs(counts.get(TimetableJob.Status.SCHEDULED));
+        response.setSolvingJobs(counts.get(TimetableJob.Status.SOLVING));
+        response.setFinishedJobs(counts.get(TimetableJob.Status.COMPLETED)
+                + counts.get(TimetableJob.Status.TERMINATED) + counts.get(TimetableJob.Status.FAILED));
+        return response;
+    }
+
     @GetMapping("/health")
     public String health() {
         return "Timetabling Service is running";
     }
 
-    private TimetableResponse convertToResponse(TimeTable solution) {
-        TimetableResponse response = new TimetableResponse();
-        
-        // Basic solution info
-        response.setScore(solution.getScore() != null ? solution.getScore().toString() : "N/A");
-        response.setFeasible(solution.getScore() != null && solution.getScore().isFeasible());
-        
-        // Convert student group schedules - simplified structure
-        Map<String, Map<String, Map<String, Map<String, Object>>>> studentGroupSchedules = new HashMap<>();
-        
-        // Group lessons by student group
-        Map<String, List<Lesson>> lessonsByGroup = solution.getLessonList().stream()
-            .filter(lesson -> lesson.getTimeslot() != null)
-            .collect(Collectors.groupingBy(lesson -> 
-                lesson.getStudentGroup().getGrade() + lesson.getStudentGroup().getClassName()));
-        
-        lessonsByGroup.forEach((groupName, lessons) -> {
-            Map<String, Map<String, Object>> weekSchedule = new HashMap<>();
-            
-            lessons.forEach(lesson -> {
-                String day = lesson.getTimeslot().getDayOfWeek().toString();
-                String time = lesson.getTimeslot().getStartTime().toString();
-                
-                Map<String, Object> lessonInfo = new HashMap<>();
-                lessonInfo.put("subject", lesson.getSubject());
-                lessonInfo.put("teacher", lesson.getTeacher());
-                lessonInfo.put("startTime", lesson.getTimeslot().getStartTime().toString());
-                lessonInfo.put("endTime", lesson.getTimeslot().getEndTime().toString());
-                
-                weekSchedule.computeIfAbsent(day, k -> new HashMap<>()).put(time, lessonInfo);
-            });
-            
-            // Fixed: Create the correct structure for studentGroupSchedules
-            Map<String, Map<String, Map<String, Object>>> classData = new HashMap<>();
-            classData.put("weekSchedule", weekSchedule);
-            studentGroupSchedules.put(groupName, classData);
-        });
-        
-        response.setStudentGroupSchedules(studentGroupSchedules);
-        
-        // Add unassigned periods information
-        response.setUnassignedPeriods(timeTableService.getUnassignedPeriods());
-        response.setDetailedUnassignedPeriods(timeTableService.getDetailedUnassignedPeriods());
-        
-        // Calculate teacher workload
-        response.setTeacherWorkloadSummary(calculateTeacherWorkload(solution));
-        
-        // Generate unassigned summary - using simple map instead of missing method
-        response.setUnassignedSummary(generateSimpleUnassignedSummary());
+    private ResponseEntity<StreamingResponseBody> compact(CompactTimetableResponse response) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> compactWriter.write(response, out));
+    }
+
+    private ResponseEntity.BodyBuilder queueFull(JobQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+    }
+
+    private JobStatusResponse queueFullStatus(JobQueueFullException e) {
+        JobStatusResponse errorResponse = new JobStatusResponse();
+        errorResponse.setStatus("QUEUE_FULL");
+        errorResponse.setMessage(e.getMessage());
+        return errorResponse;
+    }
+
+    private JobStatusResponse failedStatus(String message) {
+        JobStatusResponse errorResponse = new JobStatusResponse();
+        errorResponse.setStatus(TimetableJob.Status.FAILED.name());
+        errorResponse.setMessage(message);
+        return errorResponse;
+    }
+
+    private ResponseEntity<JobStatusResponse> rejected(InfeasibleRequestException e) {
+        JobStatusResponse errorResponse = new JobStatusResponse();
+        errorResponse.setStatus("REJECTED");
+        errorResponse.setFeasible(false);
+        errorResponse.setMessage(e.getMessage());
+        errorResponse.setFeasibilityReport(e.getReport());
+        return ResponseEntity.unprocessableEntity().body(errorResponse);
+    }
+
+    private JobStatusResponse convertToStatus(TimetableJob job) {
+        JobStatusResponse response = new JobStatusResponse();
+        response.setJobId(job.getId().toString());
+        response.setStatus(job.getStatus().name());
+        response.setSolverProfile(job.getProfile().name());
+        response.setTimeBudgetSeconds(job.getTimeBudget().toSeconds());
+        response.setSolvingTimeMillis(job.getSolvingTimeMillis());
+        response.setFeasibilityReport(job.getFeasibilityReport());
+        response.setPriority(job.getPriority().name());
+        response.setTenant(job.getTenant());
+        int queuePosition = jobScheduler.getQueuePosition(job);
+        response.setQueuePosition(queuePosition >= 0 ? queuePosition : null);
         
-        // Set appropriate message
-        if (response.isFeasible()) {
-            response.setMessage("Timetable generated successfully!");
+        TimeTable bestSolution = job.getBestSolution();
+        if (job.isCached()) {
+            response.setScore(job.getResponse().getScore());
+            response.setFeasible(job.getResponse().isFeasible());
+            response.setMessage("Answered from the solution cache");
+        } else if (bestSolution != null && bestSolution.getScore() != null) {
+            response.setScore(bestSolution.getScore().toString());
+            response.setFeasible(bestSolution.getScore().isFeasible());
         } else {
-            response.setMessage("Timetable generated but may not satisfy all constraints. Check the score for details.");
+            response.setScore("N/A");
         }
         
+        if (job.getStatus() == TimetableJob.Status.FAILED) {
+            response.setMessage("Solving failed: " + job.getErrorMessage());
+        }
         return response;
     }
 
-    private Map<String, Integer> calculateTeacherWorkload(TimeTable solution) {
-        Map<String, Integer> workload = new HashMap<>();
-        for (Lesson lesson : solution.getLessonList()) {
-            if (lesson.getTimeslot() != null && lesson.getTeacher() != null) {
-                workload.merge(lesson.getTeacher(), 1, Integer::sum);
+    private BatchStatusResponse convertToBatchStatus(TimetableBatch batch) {
+        BatchStatusResponse response = new BatchStatusResponse();
+        response.setBatchId(batch.getId().toString());
+        // Read first, so a COMPLETED batch never lists an unfinished item
+        response.setStatus(batch.isFinished() ? "COMPLETED" : "RUNNING");
+        response.setParallelism(batch.getParallelism());
+        response.setTotalRequests(batch.getItems().size());
+        response.setElapsedMillis(batch.getElapsedMillis());
+        List<BatchStatusResponse.Item> items = new ArrayList<>(batch.getItems().size());
+        int running = 0;
+        int finished = 0;
+        for (TimetableBatch.Item item : batch.getItems()) {
+            BatchStatusResponse.Item itemResponse = convertToBatchItem(item);
+            if (item.isFinished()) {
+                finished++;
+            } else if (item.isStarted()) {
+                running++;
             }
+            items.add(itemResponse);
         }
-        return workload;
+        response.setRunningRequests(running);
+        response.setFinishedRequests(finished);
+        response.setItems(items);
+        return response;
     }
 
-    private Map<String, Object> generateSimpleUnassignedSummary() {
-        Map<String, Object> summary = new HashMap<>();
-        
-        // Calculate total unassigned periods
-        int totalUnassigned = timeTableService.getUnassignedPeriods().values().stream()
-            .mapToInt(gradeMap -> gradeMap.values().stream().mapToInt(Integer::intValue).sum())
-            .sum();
-        
-        summary.put("totalUnassignedPeriods", totalUnassigned);
-        summary.put("affectedGrades", timeTableService.getUnassignedPeriods().keySet().size());
-        
-        return summary;
+    private BatchStatusResponse.Item convertToBatchItem(TimetableBatch.Item item) {
+        BatchStatusResponse.Item response = new BatchStatusResponse.Item();
+        response.setIndex(item.getIndex());
+        TimetableJob job = item.getJob();
+        if (job != null) {
+            JobStatusResponse jobStatus = convertToStatus(job);
+            response.setJobId(jobStatus.getJobId());
+            response.setStatus(jobStatus.getStatus());
+            response.setScore(jobStatus.getScore());
+            response.setFeasible(jobStatus.isFeasible());
+            response.setSolvingTimeMillis(jobStatus.getSolvingTimeMillis());
+            response.setMessage(jobStatus.getMessage());
+            response.setFeasibilityReport(jobStatus.getFeasibilityReport());
+        } else if (item.isRejected()) {
+            response.setStatus("REJECTED");
+            response.setMessage(item.getErrorMessage());
+            response.setFeasibilityReport(item.getRejectionReport());
+        } else if (item.isStarted()) {
+            response.setStatus(TimetableJob.Status.FAILED.name());
+            response.setMessage("Failed to submit timetable job: " + item.getErrorMessage());
+        } else {
+            response.setStatus("PENDING");
+        }
+        return response;
     }
 }
@@ -0,0 +1,21 @@
+package com.school.timetabling.rest.dto;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/timetable/batches: requests solved as separate jobs, a bounded number at a time
+ */
+public class BatchRequest {
+    private List<TimetableRequest> requests;
+    // Jobs of this batch solving at the same time (default from timetabling.batch.parallelism)
+    private Integer parallelism;
+
+    public BatchRequest() {}
+
+    // Getters and setters
+    public List<TimetableRequest> getRequests() { return requests; }
+    public void setRequests(List<TimetableRequest> requests) { this.requests = requests; }
+
+    public Integer getParallelism() { return parallelism; }
+    public void setParallelism(Integer parallelism) { this.parallelism = parallelism; }
+}
@@ -0,0 +1,91 @@
+package com.school.timetabling.rest.dto;
+
+import java.util.List;
+
+/**
+ * State of a batch and of each of its requests, in request order
+ */
+public class BatchStatusResponse {
+    private String batchId;
+    // RUNNING until every item has finished, then COMPLETED
+    private String status;
+    private int parallelism;
+    private int totalRequests;
+    private int runningRequests;
+    private int finishedRequests;
+    private long elapsedMillis;
+    private String message;
+    private List<Item> items;
+
+    public BatchStatusResponse() {}
+
+    // Getters and setters
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+
+    public int getTotalRequests() { return totalRequests; }
+    public void setTotalRequests(int totalRequests) { this.totalRequests = totalRequests; }
+
+    public int getRunningRequests() { return runningRequests; }
+    public void setRunningRequests(int runningRequests) { this.runningRequests = runningRequests; }
+
+    public int getFinishedRequests() { return finishedRequests; }
+    public void setFinishedRequests(int finishedRequests) { this.finishedRequests = finishedRequests; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+
+    /**
+     * One request of the batch. {@code status} is PENDING before it starts, REJECTED when the feasibility
+     * pre-check turned it down, otherwise the status of its job; fetch the timetable from /jobs/{jobId}/result.
+     */
+    public static class Item {
+        private int index;
+        private String jobId;
+        private String status;
+        private String score;
+        private boolean feasible;
+        private long solvingTimeMillis;
+        private String message;
+        private FeasibilityReport feasibilityReport;
+
+        public Item() {}
+
+        // Getters and setters
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public String getJobId() { return jobId; }
+        public void setJobId(String jobId) { this.jobId = jobId; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getScore() { return score; }
+        public void setScore(String score) { this.score = score; }
+
+        public boolean isFeasible() { return feasible; }
+        public void setFeasible(boolean feasible) { this.feasible = feasible; }
+
+        public long getSolvingTimeMillis() { return solvingTimeMillis; }
+        public void setSolvingTimeMillis(long solvingTimeMillis) { this.solvingTimeMillis = solvingTimeMillis; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+
+        public FeasibilityReport getFeasibilityReport() { return feasibilityReport; }
+        public void setFeasibilityReport(FeasibilityReport feasibilityReport) { this.feasibilityReport = feasibilityReport; }
+    }
+}
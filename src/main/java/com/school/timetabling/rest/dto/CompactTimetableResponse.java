@@ -0,0 +1,97 @@
+package com.school.timetabling.rest.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalized timetable, from GET /api/timetable/jobs/{jobId}/result/compact and /best/compact.
+ * Names and times appear once in the dictionaries; each lesson is a row of indexes into them,
+ * in the order of {@link #LESSON_COLUMNS}, with -1 for a lesson without teacher.
+ */
+public class CompactTimetableResponse {
+    public static final List<String> LESSON_COLUMNS = List.of("studentGroup", "subject", "teacher", "timeslot");
+
+    private String score;
+    private boolean feasible;
+    private String message;
+    private List<String> studentGroups;
+    private List<String> subjects;
+    private List<String> teachers;
+    private List<TimeslotEntry> timeslots;
+    private List<String> lessonColumns = LESSON_COLUMNS;
+    // One row of LESSON_COLUMNS.size() indexes per scheduled lesson
+    private int[][] lessons;
+    // Scheduled lessons per teacher, aligned with teachers
+    private int[] teacherWorkload;
+    private Map<String, Map<String, Integer>> unassignedPeriods;
+    private Map<String, Map<String, Map<String, Integer>>> detailedUnassignedPeriods;
+    private Map<String, Object> unassignedSummary;
+
+    public CompactTimetableResponse() {}
+
+    // Getters and setters
+    public String getScore() { return score; }
+    public void setScore(String score) { this.score = score; }
+
+    public boolean isFeasible() { return feasible; }
+    public void setFeasible(boolean feasible) { this.feasible = feasible; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public List<String> getStudentGroups() { return studentGroups; }
+    public void setStudentGroups(List<String> studentGroups) { this.studentGroups = studentGroups; }
+
+    public List<String> getSubjects() { return subjects; }
+    public void setSubjects(List<String> subjects) { this.subjects = subjects; }
+
+    public List<String> getTeachers() { return teachers; }
+    public void setTeachers(List<String> teachers) { this.teachers = teachers; }
+
+    public List<TimeslotEntry> getTimeslots() { return timeslots; }
+    public void setTimeslots(List<TimeslotEntry> timeslots) { this.timeslots = timeslots; }
+
+    public List<String> getLessonColumns() { return lessonColumns; }
+    public void setLessonColumns(List<String> lessonColumns) { this.lessonColumns = lessonColumns; }
+
+    public int[][] getLessons() { return lessons; }
+    public void setLessons(int[][] lessons) { this.lessons = lessons; }
+
+    public int[] getTeacherWorkload() { return teacherWorkload; }
+    public void setTeacherWorkload(int[] teacherWorkload) { this.teacherWorkload = teacherWorkload; }
+
+    public Map<String, Map<String, Integer>> getUnassignedPeriods() { return unassignedPeriods; }
+    public void setUnassignedPeriods(Map<String, Map<String, Integer>> unassignedPeriods) { this.unassignedPeriods = unassignedPeriods; }
+
+    public Map<String, Map<String, Map<String, Integer>>> getDetailedUnassignedPeriods() { return detailedUnassignedPeriods; }
+    public void setDetailedUnassignedPeriods(Map<String, Map<String, Map<String, Integer>>> detailedUnassignedPeriods) {
+        this.detailedUnassignedPeriods = detailedUnassignedPeriods;
+    }
+
+    public Map<String, Object> getUnassignedSummary() { return unassignedSummary; }
+    public void setUnassignedSummary(Map<String, Object> unassignedSummary) { this.unassignedSummary = unassignedSummary; }
+
+    public static class TimeslotEntry {
+        private String dayOfWeek;
+        private String startTime;
+        private String endTime;
+
+        public TimeslotEntry() {}
+
+        public TimeslotEntry(String dayOfWeek, String startTime, String endTime) {
+            this.dayOfWeek = dayOfWeek;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        // Getters and setters
+        public String getDayOfWeek() { return dayOfWeek; }
+        public void setDayOfWeek(String dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+
+        public String getStartTime() { return startTime; }
+        public void setStartTime(String startTime) { this.startTime = startTime; }
+
+        public String getEndTime() { return endTime; }
+        public void setEndTime(String endTime) { this.endTime = endTime; }
+    }
+}
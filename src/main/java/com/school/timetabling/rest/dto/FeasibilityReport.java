@@ -0,0 +1,86 @@
+package com.school.timetabling.rest.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of the pre-solve capacity checks of POST /api/timetable/feasibility.
+ * Every violation is a hard constraint break that no timetable can avoid. An empty list does not prove
+ * the request is feasible, only that none of the counting bounds rule it out.
+ */
+public class FeasibilityReport {
+    private boolean possiblyFeasible;
+    private int lessonCount;
+    private int timeslotCount;
+    private int unassignedPeriods;
+    private long analysisMillis;
+    private List<Violation> violations = new ArrayList<>();
+
+    public FeasibilityReport() {}
+
+    // Getters and setters
+    public boolean isPossiblyFeasible() { return possiblyFeasible; }
+    public void setPossiblyFeasible(boolean possiblyFeasible) { this.possiblyFeasible = possiblyFeasible; }
+
+    public int getLessonCount() { return lessonCount; }
+    public void setLessonCount(int lessonCount) { this.lessonCount = lessonCount; }
+
+    public int getTimeslotCount() { return timeslotCount; }
+    public void setTimeslotCount(int timeslotCount) { this.timeslotCount = timeslotCount; }
+
+    public int getUnassignedPeriods() { return unassignedPeriods; }
+    public void setUnassignedPeriods(int unassignedPeriods) { this.unassignedPeriods = unassignedPeriods; }
+
+    public long getAnalysisMillis() { return analysisMillis; }
+    public void setAnalysisMillis(long analysisMillis) { this.analysisMillis = analysisMillis; }
+
+    public List<Violation> getViolations() { return violations; }
+    public void setViolations(List<Violation> violations) { this.violations = violations; }
+
+    public enum ViolationType {
+        // A class has more lessons than there are timeslots
+        CLASS_OVER_CAPACITY,
+        // A teacher has more lessons than there are timeslots
+        TEACHER_OVER_CAPACITY,
+        // A class has more lessons of a subject than its daily limit allows over the week
+        SUBJECT_DAILY_LIMIT
+    }
+
+    /**
+     * One bound that cannot be met: {@code required} lessons for {@code available} places.
+     * At least {@code required - available} hard penalty remains in any timetable.
+     */
+    public static class Violation {
+        private ViolationType type;
+        private String studentGroup;
+        private String teacher;
+        private String subject;
+        private int required;
+        private int available;
+        private String message;
+
+        public Violation() {}
+
+        // Getters and setters
+        public ViolationType getType() { return type; }
+        public void setType(ViolationType type) { this.type = type; }
+
+        public String getStudentGroup() { return studentGroup; }
+        public void setStudentGroup(String studentGroup) { this.studentGroup = studentGroup; }
+
+        public String getTeacher() { return teacher; }
+        public void setTeacher(String teacher) { this.teacher = teacher; }
+
+        public String getSubject() { return subject; }
+        public void setSubject(String subject) { this.subject = subject; }
+
+        public int getRequired() { return required; }
+        public void setRequired(int required) { this.required = required; }
+
+        public int getAvailable() { return available; }
+        public void setAvailable(int available) { this.available = available; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
@@ -0,0 +1,74 @@
+package com.school.timetabling.rest.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of GET /api/timetable/jobs/{jobId}/analysis/indictments, worst score first
+ */
+public class IndictmentPage {
+    private String type;
+    private int page;
+    private int size;
+    private int totalElements;
+    private int totalPages;
+    private List<Indictment> items;
+
+    public IndictmentPage() {}
+
+    // Getters and setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public int getTotalElements() { return totalElements; }
+    public void setTotalElements(int totalElements) { this.totalElements = totalElements; }
+
+    public int getTotalPages() { return totalPages; }
+    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+
+    public List<Indictment> getItems() { return items; }
+    public void setItems(List<Indictment> items) { this.items = items; }
+
+    public enum Type {
+        LESSON,
+        // Teacher constraints plus the matches of the teacher's lessons
+        TEACHER,
+        // Student group constraints plus the matches of the group's lessons
+        STUDENT_GROUP
+    }
+
+    /**
+     * What one lesson, teacher or student group costs, with the score per constraint
+     */
+    public static class Indictment {
+        private String id;
+        private String description;
+        private String score;
+        private int matchCount;
+        private Map<String, String> constraintScores;
+
+        public Indictment() {}
+
+        // Getters and setters
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+
+        public String getScore() { return score; }
+        public void setScore(String score) { this.score = score; }
+
+        public int getMatchCount() { return matchCount; }
+        public void setMatchCount(int matchCount) { this.matchCount = matchCount; }
+
+        public Map<String, String> getConstraintScores() { return constraintScores; }
+        public void setConstraintScores(Map<String, String> constraintScores) { this.constraintScores = constraintScores; }
+    }
+}
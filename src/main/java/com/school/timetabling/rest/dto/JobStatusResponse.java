@@ -0,0 +1,57 @@
+package com.school.timetabling.rest.dto;
+
+public class JobStatusResponse {
+    private String jobId;
+    private String status;
+    private String solverProfile;
+    private long timeBudgetSeconds;
+    private String score;
+    private boolean feasible;
+    private long solvingTimeMillis;
+    private String message;
+    // Pre-solve capacity check, null for cached and resumed jobs
+    private FeasibilityReport feasibilityReport;
+    private String priority;
+    private String tenant;
+    // Jobs ahead of this one in the scheduler queue, null once it has started
+    private Integer queuePosition;
+
+    public JobStatusResponse() {}
+
+    // Getters and setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getSolverProfile() { return solverProfile; }
+    public void setSolverProfile(String solverProfile) { this.solverProfile = solverProfile; }
+
+    public long getTimeBudgetSeconds() { return timeBudgetSeconds; }
+    public void setTimeBudgetSeconds(long timeBudgetSeconds) { this.timeBudgetSeconds = timeBudgetSeconds; }
+
+    public String getScore() { return score; }
+    public void setScore(String score) { this.score = score; }
+
+    public boolean isFeasible() { return feasible; }
+    public void setFeasible(boolean feasible) { this.feasible = feasible; }
+
+    public long getSolvingTimeMillis() { return solvingTimeMillis; }
+    public void setSolvingTimeMillis(long solvingTimeMillis) { this.solvingTimeMillis = solvingTimeMillis; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public FeasibilityReport getFeasibilityReport() { return feasibilityReport; }
+    public void setFeasibilityReport(FeasibilityReport feasibilityReport) { this.feasibilityReport = feasibilityReport; }
+
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+
+    public String getTenant() { return tenant; }
+    public void setTenant(String tenant) { this.tenant = tenant; }
+
+    public Integer getQueuePosition() { return queuePosition; }
+    public void setQueuePosition(Integer queuePosition) { this.queuePosition = queuePosition; }
+}
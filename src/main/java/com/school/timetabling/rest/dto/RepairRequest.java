@@ -0,0 +1,44 @@
+package com.school.timetabling.rest.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changes to apply to the request of a previous job before re-solving it from its timetable.
+ */
+public class RepairRequest {
+    // Teachers that left; their classes are given to other possible teachers
+    private List<String> removedTeachers = new ArrayList<>();
+    // New classes, merged into the class list of their grade
+    private List<TimetableRequest.ClassInfo> addedClasses = new ArrayList<>();
+    // Replace the assignment with the same subject and grade, or add it
+    private List<TimetableRequest.LessonAssignment> updatedLessonAssignments = new ArrayList<>();
+    // Pin lessons whose class and teacher are not touched by the changes (default true)
+    private boolean pinUnaffectedLessons = true;
+    // Defaults to FAST when neither is set
+    private String solverProfile;
+    private Integer timeBudgetSeconds;
+
+    public RepairRequest() {}
+
+    // Getters and setters
+    public List<String> getRemovedTeachers() { return removedTeachers; }
+    public void setRemovedTeachers(List<String> removedTeachers) { this.removedTeachers = removedTeachers; }
+
+    public List<TimetableRequest.ClassInfo> getAddedClasses() { return addedClasses; }
+    public void setAddedClasses(List<TimetableRequest.ClassInfo> addedClasses) { this.addedClasses = addedClasses; }
+
+    public List<TimetableRequest.LessonAssignment> getUpdatedLessonAssignments() { return updatedLessonAssignments; }
+    public void setUpdatedLessonAssignments(List<TimetableRequest.LessonAssignment> updatedLessonAssignments) {
+        this.updatedLessonAssignments = updatedLessonAssignments;
+    }
+
+    public boolean isPinUnaffectedLessons() { return pinUnaffectedLessons; }
+    public void setPinUnaffectedLessons(boolean pinUnaffectedLessons) { this.pinUnaffectedLessons = pinUnaffectedLessons; }
+
+    public String getSolverProfile() { return solverProfile; }
+    public void setSolverProfile(String solverProfile) { this.solverProfile = solverProfile; }
+
+    public Integer getTimeBudgetSeconds() { return timeBudgetSeconds; }
+    public void setTimeBudgetSeconds(Integer timeBudgetSeconds) { this.timeBudgetSeconds = timeBudgetSeconds; }
+}
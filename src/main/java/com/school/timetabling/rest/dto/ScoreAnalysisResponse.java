@@ -0,0 +1,74 @@
+package com.school.timetabling.rest.dto;
+
+import java.util.List;
+
+/**
+ * Per-constraint breakdown of a finished job's score, from GET /api/timetable/jobs/{jobId}/analysis.
+ * Indictments are paged separately through /analysis/indictments.
+ */
+public class ScoreAnalysisResponse {
+    private String jobId;
+    private String score;
+    private boolean feasible;
+    private long analysisMillis;
+    private List<ConstraintSummary> constraints;
+    private int indictedLessons;
+    private int indictedTeachers;
+    private int indictedStudentGroups;
+    private String message;
+
+    public ScoreAnalysisResponse() {}
+
+    // Getters and setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getScore() { return score; }
+    public void setScore(String score) { this.score = score; }
+
+    public boolean isFeasible() { return feasible; }
+    public void setFeasible(boolean feasible) { this.feasible = feasible; }
+
+    public long getAnalysisMillis() { return analysisMillis; }
+    public void setAnalysisMillis(long analysisMillis) { this.analysisMillis = analysisMillis; }
+
+    public List<ConstraintSummary> getConstraints() { return constraints; }
+    public void setConstraints(List<ConstraintSummary> constraints) { this.constraints = constraints; }
+
+    public int getIndictedLessons() { return indictedLessons; }
+    public void setIndictedLessons(int indictedLessons) { this.indictedLessons = indictedLessons; }
+
+    public int getIndictedTeachers() { return indictedTeachers; }
+    public void setIndictedTeachers(int indictedTeachers) { this.indictedTeachers = indictedTeachers; }
+
+    public int getIndictedStudentGroups() { return indictedStudentGroups; }
+    public void setIndictedStudentGroups(int indictedStudentGroups) { this.indictedStudentGroups = indictedStudentGroups; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    /**
+     * Total of one constraint: its weight, the number of matches and their summed score
+     */
+    public static class ConstraintSummary {
+        private String name;
+        private String weight;
+        private String score;
+        private int matchCount;
+
+        public ConstraintSummary() {}
+
+        // Getters and setters
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getWeight() { return weight; }
+        public void setWeight(String weight) { this.weight = weight; }
+
+        public String getScore() { return score; }
+        public void setScore(String score) { this.score = score; }
+
+        public int getMatchCount() { return matchCount; }
+        public void setMatchCount(int matchCount) { this.matchCount = matchCount; }
+    }
+}
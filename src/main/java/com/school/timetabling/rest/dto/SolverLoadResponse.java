@@ -0,0 +1,43 @@
+package com.school.timetabling.rest.dto;
+
+public class SolverLoadResponse {
+    private int parallelSolverCount;
+    private long scheduledJobs;
+    private long solvingJobs;
+    private long finishedJobs;
+    // Scheduler limits: jobs solving at once across profiles, and jobs waiting before 429 responses start
+    private int maxRunningJobs;
+    private int queuedJobs;
+    private int maxQueuedJobs;
+
+    public SolverLoadResponse() {}
+
+    // Getters and setters
+    public int getParallelSolverCount() { return parallelSolverCount; }
+    public void setParallelSolverCount(int parallelSolverCount) { this.parallelSolverCount = parallelSolverCount; }
+
+    public long getScheduledJobs() { return scheduledJobs; }
+    public void setScheduledJobs(long scheduledJobs) { this.scheduledJobs = scheduledJobs; }
+
+    public long getSolvingJobs() { return solvingJobs; }
+    public void setSolvingJobs(long solvingJobs) { this.solvingJobs = solvingJobs; }
+
+    public long getFinishedJobs() { return finishedJobs; }
+    public void setFinishedJobs(long finishedJobs) { this.finishedJobs = finishedJobs; }
+
+    public int getMaxRunningJobs() { return maxRunningJobs; }
+    public void setMaxRunningJobs(int maxRunningJobs) { this.maxRunningJobs = maxRunningJobs; }
+
+    public int getQueuedJobs() { return queuedJobs; }
+    public void setQueuedJobs(int queuedJobs) { this.queuedJobs = queuedJobs; }
+
+    public int getMaxQueuedJobs() { return maxQueuedJobs; }
+    public void setMaxQueuedJobs(int maxQueuedJobs) { this.maxQueuedJobs = maxQueuedJobs; }
+
+    /**
+     * Fraction of solver threads busy, 1.0 when every solver thread is solving
+     */
+    public double getSaturation() {
+        return parallelSolverCount > 0 ? (double) solvingJobs / parallelSolverCount : 0.0;
+    }
+}
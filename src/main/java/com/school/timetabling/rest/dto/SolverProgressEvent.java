@@ -0,0 +1,79 @@
+package com.school.timetabling.rest.dto;
+
+import java.util.List;
+
+/**
+ * Payload of the GET /api/timetable/jobs/{jobId}/events stream.
+ * The first event of a stream lists every lesson ({@code full} is true), later events only
+ * the lessons whose timeslot changed since the previous event of the same stream.
+ */
+public class SolverProgressEvent {
+    private String jobId;
+    private String status;
+    private String score;
+    private boolean feasible;
+    private long elapsedMillis;
+    private boolean full;
+    private List<LessonChange> changedLessons;
+
+    public SolverProgressEvent() {}
+
+    // Getters and setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getScore() { return score; }
+    public void setScore(String score) { this.score = score; }
+
+    public boolean isFeasible() { return feasible; }
+    public void setFeasible(boolean feasible) { this.feasible = feasible; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+
+    public List<LessonChange> getChangedLessons() { return changedLessons; }
+    public void setChangedLessons(List<LessonChange> changedLessons) { this.changedLessons = changedLessons; }
+
+    /**
+     * A lesson and its new timeslot; day and times are null when the lesson became unassigned
+     */
+    public static class LessonChange {
+        private long id;
+        private String studentGroup;
+        private String subject;
+        private String teacher;
+        private String dayOfWeek;
+        private String startTime;
+        private String endTime;
+
+        public LessonChange() {}
+
+        // Getters and setters
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+
+        public String getStudentGroup() { return studentGroup; }
+        public void setStudentGroup(String studentGroup) { this.studentGroup = studentGroup; }
+
+        public String getSubject() { return subject; }
+        public void setSubject(String subject) { this.subject = subject; }
+
+        public String getTeacher() { return teacher; }
+        public void setTeacher(String teacher) { this.teacher = teacher; }
+
+        public String getDayOfWeek() { return dayOfWeek; }
+        public void setDayOfWeek(String dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+
+        public String getStartTime() { return startTime; }
+        public void setStartTime(String startTime) { this.startTime = startTime; }
+
+        public String getEndTime() { return endTime; }
+        public void setEndTime(String endTime) { this.endTime = endTime; }
+    }
+}
@@ -1,7 +1,9 @@
 package com.school.timetabling.rest.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.school.timetabling.domain.Timeslot;
 
+import java.time.LocalTime;
 import java.util.List;
 
 public class TimetableRequest {
@@ -11,6 +13,20 @@ public class TimetableRequest {
     private List<String> subjectList;
     private List<LessonAssignment> lessonAssignmentList;
 
+    // Timeslots starting after this time count as afternoon periods (default 11:00)
+    @JsonFormat(pattern = "HH:mm:ss")
+    private LocalTime morningEndTime;
+
+    // Solver profile: FAST, BALANCED or THOROUGH (default from timetabling.solver.default-profile)
+    private String solverProfile;
+    // Explicit solving time, overrides the lesson count based budget of the profile
+    private Integer timeBudgetSeconds;
+    // Reject instead of solving when the feasibility pre-check finds unavoidable violations
+    // (default from timetabling.feasibility.reject-infeasible)
+    private Boolean rejectInfeasible;
+    // INTERACTIVE or BATCH, the order in which queued jobs start (default INTERACTIVE, BATCH for batch requests)
+    private String priority;
+
     public TimetableRequest() {}
 
     // Getters and setters
@@ -33,6 +49,21 @@ public class TimetableRequest {
         this.lessonAssignmentList = lessonAssignmentList; 
     }
 
+    public LocalTime getMorningEndTime() { return morningEndTime; }
+    public void setMorningEndTime(LocalTime morningEndTime) { this.morningEndTime = morningEndTime; }
+
+    public String getSolverProfile() { return solverProfile; }
+    public void setSolverProfile(String solverProfile) { this.solverProfile = solverProfile; }
+
+    public Integer getTimeBudgetSeconds() { return timeBudgetSeconds; }
+    public void setTimeBudgetSeconds(Integer timeBudgetSeconds) { this.timeBudgetSeconds = timeBudgetSeconds; }
+
+    public Boolean getRejectInfeasible() { return rejectInfeasible; }
+    public void setRejectInfeasible(Boolean rejectInfeasible) { this.rejectInfeasible = rejectInfeasible; }
+
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+
     public static class TeacherWorkloadConfig {
         private int totalTimeslotsPerWeek;
         private int freePeriodsPerTeacherPerWeek;
@@ -81,57 +81,4 @@ public class TimetableResponse {
     public void setUnassignedSummary(Map<String, Object> unassignedSummary) {
         this.unassignedSummary = unassignedSummary;
     }
-
-    // Static inner classes for better structure (optional - can be used later)
-    public static class ClassSchedule {
-        private Map<String, Map<String, LessonInfo>> weekSchedule;
-
-        public Map<String, Map<String, LessonInfo>> getWeekSchedule() {
-            return weekSchedule;
-        }
-
-        public void setWeekSchedule(Map<String, Map<String, LessonInfo>> weekSchedule) {
-            this.weekSchedule = weekSchedule;
-        }
-    }
-
-    public static class LessonInfo {
-        private String subject;
-        private String teacher;
-        private String startTime;
-        private String endTime;
-
-        // Getters and Setters
-        public String getSubject() {
-            return subject;
-        }
-
-        public void setSubject(String subject) {
-            this.subject = subject;
-        }
-
-        public String getTeacher() {
-            return teacher;
-        }
-
-        public void setTeacher(String teacher) {
-            this.teacher = teacher;
-        }
-
-        public String getStartTime() {
-            return startTime;
-        }
-
-        public void setStartTime(String startTime) {
-            this.startTime = startTime;
-        }
-
-        public String getEndTime() {
-            return endTime;
-        }
-
-        public void setEndTime(String endTime) {
-            this.endTime = endTime;
-        }
-    }
 }
@@ -1,22 +1,129 @@
 package com.school.timetabling.service;
 
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.StudentGroup;
 import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import com.school.timetabling.rest.dto.FeasibilityReport;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import com.school.timetabling.solver.TimeTableConstraintConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+/**
+ * Pre-solve counting bounds on a built problem, a single pass over the lessons.
+ * Each check finds hard constraint breaks that every timetable has, so such a request can be reported
+ * (or rejected) in milliseconds instead of after a full solve that ends infeasible.
+ */
 @Service
 public class FeasibilityAnalysisService {
-    
-    // Simple stub implementation to prevent Spring boot failure
-    public boolean analyzeFeasibility(TimeTable solution) {
-        return solution != null && solution.getScore() != null && solution.getScore().isFeasible();
+
+    @Autowired
+    private TimetableProblemBuilder problemBuilder;
+
+    /**
+     * Builds the problem, including teacher allocation, and analyzes it
+     */
+    public FeasibilityReport analyze(TimetableRequest request) {
+        long start = System.nanoTime();
+        FeasibilityReport report = analyze(problemBuilder.convertRequestToProblem(request));
+        report.setAnalysisMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
     }
-    
-    // Add other methods as needed with simple implementations
-    public String generateFeasibilityReport(TimeTable solution) {
-        if (analyzeFeasibility(solution)) {
-            return "Solution is feasible";
-        } else {
-            return "Solution has constraint violations";
+
+    public FeasibilityReport analyze(TimeTable problem) {
+        long start = System.nanoTime();
+        TimeTableConstraintConfig config = problem.getConstraintConfig();
+        List<Timeslot> timeslots = problem.getTimeslotList();
+        List<StudentGroup> studentGroups = problem.getStudentGroupList();
+        List<Lesson> lessons = problem.getLessonList();
+        int timeslotCount = timeslots.size();
+        int subjectCount = config.getSubjectCount();
+
+        int dayCount = timeslots.stream().mapToInt(Timeslot::getDayIndex).max().orElse(-1) + 1;
+        int[] periodsPerDay = new int[dayCount];
+        for (Timeslot timeslot : timeslots) {
+            periodsPerDay[timeslot.getDayIndex()]++;
+        }
+
+        int[] lessonsPerGroup = new int[studentGroups.size()];
+        int[] lessonsPerTeacher = new int[config.getTeacherCount()];
+        int[] lessonsPerGroupSubject = new int[studentGroups.size() * subjectCount];
+        int[] maxPeriodsPerDayByGroupSubject = new int[studentGroups.size() * subjectCount];
+        for (Lesson lesson : lessons) {
+            int groupIndex = lesson.getStudentGroup().getIndex();
+            lessonsPerGroup[groupIndex]++;
+            if (lesson.getTeacherIndex() >= 0) {
+                lessonsPerTeacher[lesson.getTeacherIndex()]++;
+            }
+            int groupSubject = groupIndex * subjectCount + lesson.getSubjectIndex();
+            lessonsPerGroupSubject[groupSubject]++;
+            maxPeriodsPerDayByGroupSubject[groupSubject] = lesson.getMaxPeriodsPerDay();
         }
+
+        FeasibilityReport report = new FeasibilityReport();
+        for (StudentGroup group : studentGroups) {
+            int groupIndex = group.getIndex();
+            if (lessonsPerGroup[groupIndex] > timeslotCount) {
+                FeasibilityReport.Violation violation = violation(FeasibilityReport.ViolationType.CLASS_OVER_CAPACITY,
+                    lessonsPerGroup[groupIndex], timeslotCount,
+                    "Class " + group.getId() + " has " + lessonsPerGroup[groupIndex] + " lessons for " + timeslotCount + " timeslots");
+                violation.setStudentGroup(group.getId());
+                report.getViolations().add(violation);
+            }
+            for (int subjectIndex = 0; subjectIndex < subjectCount; subjectIndex++) {
+                int groupSubject = groupIndex * subjectCount + subjectIndex;
+                int required = lessonsPerGroupSubject[groupSubject];
+                if (required == 0) {
+                    continue;
+                }
+                // Each day holds at most its daily limit, and never more than the periods of that day
+                int available = 0;
+                for (int periods : periodsPerDay) {
+                    available += Math.min(periods, maxPeriodsPerDayByGroupSubject[groupSubject]);
+                }
+                if (required > available) {
+                    String subject = config.getSubjectName(subjectIndex);
+                    FeasibilityReport.Violation violation = violation(FeasibilityReport.ViolationType.SUBJECT_DAILY_LIMIT,
+                        required, available,
+                        "Class " + group.getId() + " needs " + required + " periods of " + subject + ", at most "
+                            + maxPeriodsPerDayByGroupSubject[groupSubject] + " per day fit only " + available + " in " + dayCount + " days");
+                    violation.setStudentGroup(group.getId());
+                    violation.setSubject(subject);
+                    report.getViolations().add(violation);
+                }
+            }
+        }
+        for (int teacherIndex = 0; teacherIndex < lessonsPerTeacher.length; teacherIndex++) {
+            if (lessonsPerTeacher[teacherIndex] > timeslotCount) {
+                String teacher = config.getTeacherName(teacherIndex);
+                FeasibilityReport.Violation violation = violation(FeasibilityReport.ViolationType.TEACHER_OVER_CAPACITY,
+                    lessonsPerTeacher[teacherIndex], timeslotCount,
+                    "Teacher " + teacher + " has " + lessonsPerTeacher[teacherIndex] + " lessons for " + timeslotCount + " timeslots");
+                violation.setTeacher(teacher);
+                report.getViolations().add(violation);
+            }
+        }
+
+        report.setPossiblyFeasible(report.getViolations().isEmpty());
+        report.setLessonCount(lessons.size());
+        report.setTimeslotCount(timeslotCount);
+        report.setUnassignedPeriods(problem.getUnassignedPeriods().values().stream()
+            .flatMap(periodsBySubject -> periodsBySubject.values().stream())
+            .mapToInt(Integer::intValue).sum());
+        report.setAnalysisMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private static FeasibilityReport.Violation violation(FeasibilityReport.ViolationType type, int required, int available,
+                                                        String message) {
+        FeasibilityReport.Violation violation = new FeasibilityReport.Violation();
+        violation.setType(type);
+        violation.setRequired(required);
+        violation.setAvailable(available);
+        violation.setMessage(message);
+        return violation;
     }
 }
@@ -0,0 +1,63 @@
+package com.school.timetabling.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * How long finished jobs and batches stay available for polling and repair.
+ * Entries are evicted when their TTL has passed, and the oldest finished ones go first once there are
+ * more than timetabling.retention.max-finished. Unfinished entries are never evicted.
+ * Checked whenever a new entry is registered, so memory only grows with new submissions anyway.
+ */
+@Component
+public class FinishedRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(FinishedRetention.class);
+
+    @Value("${timetabling.retention.finished-ttl:PT1H}")
+    private Duration finishedTtl;
+
+    @Value("${timetabling.retention.max-finished:1000}")
+    private int maxFinished;
+
+    /**
+     * Removes the expired and the oldest surplus finished entries
+     * @param finishedAt Epoch millis the entry finished at, 0 while it is unfinished
+     */
+    <K, V> void evict(Map<K, V> entries, ToLongFunction<V> finishedAt) {
+        long expiredBefore = System.currentTimeMillis() - finishedTtl.toMillis();
+        List<Map.Entry<K, V>> finished = new ArrayList<>();
+        int expired = 0;
+        for (Map.Entry<K, V> entry : entries.entrySet()) {
+            long at = finishedAt.applyAsLong(entry.getValue());
+            if (at == 0) {
+                continue;
+            }
+            if (at < expiredBefore) {
+                entries.remove(entry.getKey(), entry.getValue());
+                expired++;
+            } else {
+                finished.add(entry);
+            }
+        }
+        int surplus = finished.size() - maxFinished;
+        if (surplus > 0) {
+            finished.sort(Comparator.comparingLong(entry -> finishedAt.applyAsLong(entry.getValue())));
+            for (Map.Entry<K, V> entry : finished.subList(0, surplus)) {
+                entries.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        if (expired > 0 || surplus > 0) {
+            log.debug("Evicted {} expired and {} surplus finished entries", expired, Math.max(surplus, 0));
+        }
+    }
+}
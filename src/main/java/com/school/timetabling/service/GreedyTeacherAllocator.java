@@ -0,0 +1,43 @@
+package com.school.timetabling.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The original allocation: per lesson assignment, each class gets the least loaded possible teacher
+ * that still has room. Fast, but a class can go unassigned while moving another class's teacher
+ * would have made room; {@link MatchingTeacherAllocator} fixes that.
+ */
+public class GreedyTeacherAllocator implements TeacherAllocator {
+
+    @Override
+    public List<String> allocate(List<TeacherDemand> demands, Map<String, Integer> workload, int maxPeriodsPerTeacher) {
+        List<String> allocation = new ArrayList<>(demands.size());
+        Comparator<String> byWorkload = Comparator.comparing(teacher -> workload.getOrDefault(teacher, 0));
+        List<String> sortedTeachers = new ArrayList<>();
+        int currentAssignment = -1;
+        for (TeacherDemand demand : demands) {
+            if (demand.getAssignmentIndex() != currentAssignment) {
+                currentAssignment = demand.getAssignmentIndex();
+                sortedTeachers = new ArrayList<>(demand.getPossibleTeachers());
+                sortedTeachers.sort(byWorkload);
+            }
+            String assignedTeacher = null;
+            for (String candidateTeacher : sortedTeachers) {
+                if (workload.getOrDefault(candidateTeacher, 0) + demand.getPeriodsPerWeek() <= maxPeriodsPerTeacher) {
+                    assignedTeacher = candidateTeacher;
+                    break;
+                }
+            }
+            if (assignedTeacher != null) {
+                workload.merge(assignedTeacher, demand.getPeriodsPerWeek(), Integer::sum);
+                // Stable sort, ties keep their previous order
+                sortedTeachers.sort(byWorkload);
+            }
+            allocation.add(assignedTeacher);
+        }
+        return allocation;
+    }
+}
@@ -0,0 +1,20 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.rest.dto.FeasibilityReport;
+
+/**
+ * Thrown instead of starting a solve when the feasibility pre-check proves the request can never be feasible
+ * and rejection is enabled.
+ */
+public class InfeasibleRequestException extends RuntimeException {
+
+    private final FeasibilityReport report;
+
+    public InfeasibleRequestException(FeasibilityReport report) {
+        super("Request can never be feasible: " + report.getViolations().size() + " violations, first: "
+            + report.getViolations().get(0).getMessage());
+        this.report = report;
+    }
+
+    public FeasibilityReport getReport() { return report; }
+}
@@ -0,0 +1,20 @@
+package com.school.timetabling.service;
+
+import java.util.Locale;
+
+/**
+ * Order in which queued jobs get a solver slot. Interactive jobs, such as repairs and single solves someone
+ * is waiting for, always go ahead of batch jobs; within a class jobs start in submission order.
+ */
+public enum JobPriority {
+    INTERACTIVE,
+    BATCH;
+
+    public static JobPriority parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown priority: " + name + " (expected INTERACTIVE or BATCH)");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.school.timetabling.service;
+
+/**
+ * Thrown instead of queueing a job when the {@link JobScheduler} queue is full. The client should retry
+ * after {@link #getRetryAfterSeconds()}, about the time until a solver slot frees up.
+ */
+public class JobQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public JobQueueFullException(int queuedJobs, long retryAfterSeconds) {
+        super("Solver queue is full (" + queuedJobs + " jobs waiting), retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
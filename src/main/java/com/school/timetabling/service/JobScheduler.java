@@ -0,0 +1,240 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.config.SolverProfileRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Admission control in front of the SolverManagers. At most {@code max-running-jobs} jobs solve at once,
+ * across all profiles, so each solve keeps its move threads and a predictable speed under load; the rest
+ * wait here in priority order. A tenant never has more than its quota solving, and a full queue turns
+ * new jobs away with a retry hint instead of letting every caller slow down.
+ */
+@Component
+public class JobScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(JobScheduler.class);
+
+    public static final String DEFAULT_TENANT = "default";
+
+    // Retry hint before any job has finished
+    private static final long DEFAULT_RUN_MILLIS = 30_000;
+
+    private static final Comparator<QueuedJob> QUEUE_ORDER = Comparator
+        .comparing((QueuedJob queued) -> queued.job.getPriority())
+        .thenComparingLong(queued -> queued.sequence);
+
+    @Autowired
+    private SolverProfileRegistry solverProfiles;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${timetabling.scheduler.max-running-jobs:AUTO}")
+    private String maxRunningJobsSetting;
+
+    @Value("${timetabling.scheduler.max-queued-jobs:100}")
+    private int maxQueuedJobs;
+
+    @Value("${timetabling.scheduler.tenant-quota:0}")
+    private int defaultTenantQuota;
+
+    @Value("${timetabling.scheduler.tenant-quotas:}")
+    private String tenantQuotasSetting;
+
+    private int maxRunningJobs;
+    private Counter queueFullRejections;
+    private final Map<String, Integer> tenantQuotas = new HashMap<>();
+
+    // Guarded by this
+    private final TreeSet<QueuedJob> queue = new TreeSet<>(QUEUE_ORDER);
+    private final Map<UUID, QueuedJob> queuedById = new HashMap<>();
+    private final Map<UUID, Long> runningSince = new HashMap<>();
+    private final Map<String, Integer> runningByTenant = new HashMap<>();
+    private long sequence;
+    private double averageRunMillis = DEFAULT_RUN_MILLIS;
+
+    @PostConstruct
+    void init() {
+        maxRunningJobs = "AUTO".equalsIgnoreCase(maxRunningJobsSetting.trim())
+            ? solverProfiles.getParallelSolverCount()
+            : Integer.parseInt(maxRunningJobsSetting.trim());
+        // tenant=quota pairs, e.g. "district-a=4,district-b=1"
+        for (String entry : tenantQuotasSetting.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid tenant quota '" + entry + "', expected tenant=count");
+            }
+            tenantQuotas.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        Gauge.builder("timetabling.scheduler.queued.jobs", this, JobScheduler::getQueuedJobCount)
+            .description("Jobs waiting for a solver slot").register(meterRegistry);
+        Gauge.builder("timetabling.scheduler.running.jobs", this, JobScheduler::getRunningJobCount)
+            .description("Jobs holding a solver slot").register(meterRegistry);
+        Gauge.builder("timetabling.scheduler.max.running.jobs", this, JobScheduler::getMaxRunningJobs)
+            .register(meterRegistry);
+        Gauge.builder("timetabling.scheduler.max.queued.jobs", this, JobScheduler::getMaxQueuedJobs)
+            .register(meterRegistry);
+        queueFullRejections = Counter.builder("timetabling.scheduler.rejected.jobs")
+            .description("Submissions answered with 429 because the queue was full").register(meterRegistry);
+        log.info("Job scheduler: {} running jobs, {} queued, tenant quota {}{}", maxRunningJobs, maxQueuedJobs,
+            defaultTenantQuota > 0 ? defaultTenantQuota : "unlimited", tenantQuotas.isEmpty() ? "" : ", overrides " + tenantQuotas);
+    }
+
+    /**
+     * Fails fast before a problem is built for a request that could not be queued anyway
+     * @throws JobQueueFullException if the queue is full
+     */
+    public synchronized void checkAdmission() {
+        if (queue.size() >= maxQueuedJobs) {
+            queueFullRejections.increment();
+            throw new JobQueueFullException(queue.size(), retryAfterSeconds());
+        }
+    }
+
+    /**
+     * Queues the job, or starts it right away when a slot is free. {@code start} hands it to the SolverManager.
+     * @throws JobQueueFullException if the queue is full
+     */
+    void submit(TimetableJob job, Runnable start) {
+        synchronized (this) {
+            checkAdmission();
+            enqueue(job, start);
+        }
+        dispatch();
+    }
+
+    /**
+     * Queues a job resumed from the job store, which was admitted before the restart
+     */
+    void resume(TimetableJob job, Runnable start) {
+        synchronized (this) {
+            enqueue(job, start);
+        }
+        dispatch();
+    }
+
+    /**
+     * Removes a job that has not started yet
+     * @return false if the job is not queued
+     */
+    synchronized boolean cancel(TimetableJob job) {
+        QueuedJob queued = queuedById.remove(job.getId());
+        if (queued == null) {
+            return false;
+        }
+        queue.remove(queued);
+        return true;
+    }
+
+    /**
+     * Frees the job's slot and starts the next queued jobs. Called once when a started job ends.
+     */
+    void finished(TimetableJob job) {
+        synchronized (this) {
+            Long since = runningSince.remove(job.getId());
+            if (since == null) {
+                return;
+            }
+            runningByTenant.merge(job.getTenant(), -1, Integer::sum);
+            averageRunMillis = 0.8 * averageRunMillis + 0.2 * (System.currentTimeMillis() - since);
+        }
+        dispatch();
+    }
+
+    /**
+     * Zero-based place in the queue, -1 when the job is not queued
+     */
+    public synchronized int getQueuePosition(TimetableJob job) {
+        QueuedJob queued = queuedById.get(job.getId());
+        return queued != null ? queue.headSet(queued).size() : -1;
+    }
+
+    public synchronized int getQueuedJobCount() {
+        return queue.size();
+    }
+
+    public synchronized int getRunningJobCount() {
+        return runningSince.size();
+    }
+
+    public int getMaxRunningJobs() {
+        return maxRunningJobs;
+    }
+
+    public int getMaxQueuedJobs() {
+        return maxQueuedJobs;
+    }
+
+    private void enqueue(TimetableJob job, Runnable start) {
+        QueuedJob queued = new QueuedJob(job, start, sequence++);
+        queue.add(queued);
+        queuedById.put(job.getId(), queued);
+    }
+
+    /**
+     * Starts queued jobs while slots are free, skipping tenants at their quota. Jobs are handed to the
+     * SolverManager outside the lock; it starts them at once, as there are as many solver threads as slots.
+     */
+    private void dispatch() {
+        List<QueuedJob> toStart = new ArrayList<>();
+        synchronized (this) {
+            Iterator<QueuedJob> iterator = queue.iterator();
+            while (runningSince.size() < maxRunningJobs && iterator.hasNext()) {
+                QueuedJob queued = iterator.next();
+                String tenant = queued.job.getTenant();
+                int quota = tenantQuotas.getOrDefault(tenant, defaultTenantQuota);
+                if (quota > 0 && runningByTenant.getOrDefault(tenant, 0) >= quota) {
+                    continue;
+                }
+                iterator.remove();
+                queuedById.remove(queued.job.getId());
+                runningSince.put(queued.job.getId(), System.currentTimeMillis());
+                runningByTenant.merge(tenant, 1, Integer::sum);
+                toStart.add(queued);
+            }
+        }
+        for (QueuedJob queued : toStart) {
+            log.debug("Starting {} job {} of tenant {}", queued.job.getPriority(), queued.job.getId(), queued.job.getTenant());
+            queued.start.run();
+        }
+    }
+
+    /**
+     * About the time until one running job ends and the next queued job starts
+     */
+    private long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(averageRunMillis / Math.max(1, maxRunningJobs) / 1000));
+    }
+
+    private static class QueuedJob {
+        private final TimetableJob job;
+        private final Runnable start;
+        private final long sequence;
+
+        QueuedJob(TimetableJob job, Runnable start, long sequence) {
+            this.job = job;
+            this.start = start;
+            this.sequence = sequence;
+        }
+    }
+}
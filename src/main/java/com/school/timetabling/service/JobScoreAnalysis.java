@@ -0,0 +1,26 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.rest.dto.IndictmentPage;
+import com.school.timetabling.rest.dto.ScoreAnalysisResponse;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Score analysis of a finished job, computed on first request and kept with the job.
+ * Holds only the response objects, sorted worst first, so pages are plain sublists.
+ */
+class JobScoreAnalysis {
+
+    private final ScoreAnalysisResponse summary;
+    private final Map<IndictmentPage.Type, List<IndictmentPage.Indictment>> indictments;
+
+    JobScoreAnalysis(ScoreAnalysisResponse summary, Map<IndictmentPage.Type, List<IndictmentPage.Indictment>> indictments) {
+        this.summary = summary;
+        this.indictments = indictments;
+    }
+
+    ScoreAnalysisResponse getSummary() { return summary; }
+
+    List<IndictmentPage.Indictment> getIndictments(IndictmentPage.Type type) { return indictments.get(type); }
+}
@@ -0,0 +1,208 @@
+package com.school.timetabling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keeps unfinished jobs in timetabling.job-store.directory, one {@code <jobId>.json} file per job,
+ * so a restart or crash does not lose a long solve. A job is written when it is submitted,
+ * at most once per checkpoint-interval while its best solution improves, and deleted when it finishes.
+ * Files are written on a single background thread, so the solver's consumer thread never waits on disk.
+ */
+@Component
+public class JobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JobStore.class);
+
+    @Value("${timetabling.job-store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${timetabling.job-store.directory:${java.io.tmpdir}/timetabling-jobs}")
+    private Path directory;
+
+    @Value("${timetabling.job-store.checkpoint-interval:PT10S}")
+    private Duration checkpointInterval;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TimetableProblemBuilder problemBuilder;
+
+    // Single thread: writes and deletes of a job happen in submission order
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<UUID, Long> lastCheckpointMillis = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            log.info("Job store: checkpoints every {}s in {}", checkpointInterval.toSeconds(), directory);
+        } catch (IOException e) {
+            log.warn("Cannot create job store directory {}, jobs will not survive a restart", directory, e);
+            enabled = false;
+        }
+    }
+
+    /**
+     * Writes the job with the given solution right away
+     */
+    public void save(TimetableJob job, TimeTable solution) {
+        if (!enabled) {
+            return;
+        }
+        lastCheckpointMillis.put(job.getId(), System.currentTimeMillis());
+        StoredJob stored = StoredJob.of(job, solution);
+        writer.execute(() -> write(stored));
+    }
+
+    /**
+     * Writes the job's new best solution unless the last write was less than checkpoint-interval ago
+     */
+    public void checkpoint(TimetableJob job, TimeTable bestSolution) {
+        if (!enabled) {
+            return;
+        }
+        Long lastMillis = lastCheckpointMillis.get(job.getId());
+        if (lastMillis != null && System.currentTimeMillis() - lastMillis < checkpointInterval.toMillis()) {
+            return;
+        }
+        save(job, bestSolution);
+    }
+
+    public void remove(UUID jobId) {
+        if (!enabled) {
+            return;
+        }
+        lastCheckpointMillis.remove(jobId);
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(file(jobId));
+            } catch (IOException e) {
+                log.warn("Could not delete stored job {}", jobId, e);
+            }
+        });
+    }
+
+    /**
+     * Jobs that were still scheduled or solving when the service stopped
+     */
+    public List<StoredJob> loadUnfinished() {
+        List<StoredJob> storedJobs = new ArrayList<>();
+        if (!enabled) {
+            return storedJobs;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(".json")).toList();
+        } catch (IOException e) {
+            log.warn("Cannot list job store directory {}", directory, e);
+            return storedJobs;
+        }
+        for (Path file : files) {
+            try {
+                storedJobs.add(objectMapper.readValue(file.toFile(), StoredJob.class));
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable stored job {}", file, e);
+            }
+        }
+        return storedJobs;
+    }
+
+    /**
+     * Rebuilds the problem of a stored job with every lesson back on its checkpointed teacher and timeslot.
+     * The problem builder is deterministic for a request and teacher choice, so lesson ids line up;
+     * a lesson that does not match its stored counterpart is left unassigned for the construction heuristic.
+     */
+    public TimeTable restoreProblem(StoredJob stored) {
+        Map<String, String> teachers = new HashMap<>();
+        Map<Long, StoredJob.StoredLesson> storedLessons = new HashMap<>();
+        for (StoredJob.StoredLesson storedLesson : stored.getLessons()) {
+            teachers.put(TimetableProblemBuilder.classSubjectKey(storedLesson.getGroupId(), storedLesson.getSubject()),
+                storedLesson.getTeacher());
+            storedLessons.put(storedLesson.getId(), storedLesson);
+        }
+
+        TimeTable problem = problemBuilder.convertRequestToProblem(stored.getRequest(), teachers);
+        List<Timeslot> timeslots = problem.getTimeslotList();
+        int restoredCount = 0;
+        for (Lesson lesson : problem.getLessonList()) {
+            StoredJob.StoredLesson storedLesson = storedLessons.get(lesson.getId());
+            if (storedLesson == null || !storedLesson.getGroupId().equals(lesson.getStudentGroup().getId())
+                    || !storedLesson.getSubject().equals(lesson.getSubject())
+                    || !storedLesson.getTeacher().equals(lesson.getTeacher())) {
+                continue;
+            }
+            lesson.setTimeslot(timeslot(timeslots, storedLesson.getTimeslotId()));
+            lesson.setOriginalTimeslot(timeslot(timeslots, storedLesson.getOriginalTimeslotId()));
+            // A pinned lesson needs a timeslot, the construction heuristic does not touch it
+            lesson.setPinned(storedLesson.isPinned() && lesson.getTimeslot() != null);
+            restoredCount++;
+        }
+        log.info("Restored job {}: {} of {} lessons from its checkpoint ({})", stored.getJobId(), restoredCount,
+            problem.getLessonList().size(), stored.getScore());
+        return problem;
+    }
+
+    private static Timeslot timeslot(List<Timeslot> timeslots, Long timeslotId) {
+        if (timeslotId == null || timeslotId < 0 || timeslotId >= timeslots.size()) {
+            return null;
+        }
+        return timeslots.get(timeslotId.intValue());
+    }
+
+    private void write(StoredJob stored) {
+        try {
+            // Write then rename, so a crash mid-write leaves the previous checkpoint intact
+            Path temp = Files.createTempFile(directory, stored.getJobId().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), stored);
+            Files.move(temp, file(stored.getJobId()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not store job {}", stored.getJobId(), e);
+        }
+    }
+
+    private Path file(UUID jobId) {
+        return directory.resolve(jobId + ".json");
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        // Let the final checkpoints of a shutdown reach the disk
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
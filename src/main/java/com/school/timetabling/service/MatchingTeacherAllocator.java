@@ -0,0 +1,148 @@
+package com.school.timetabling.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Capacitated bipartite matching of class/subject demands to teachers, by augmenting paths.
+ * A demand that finds no teacher with room is not given up: a teacher that could take it moves one of
+ * its own classes to another teacher that has room, recursively (each teacher visited once per search),
+ * the same way Kuhn's algorithm grows a maximum matching.
+ * When every demand has the same periods per week this yields the maximum possible coverage. Demands can
+ * not be split between teachers, so with mixed period counts maximum coverage is a bin packing problem;
+ * placing larger and more constrained demands first keeps the result close to it in practice.
+ * Among teachers with room the least loaded one is chosen, which keeps workloads balanced.
+ */
+public class MatchingTeacherAllocator implements TeacherAllocator {
+
+    @Override
+    public List<String> allocate(List<TeacherDemand> demands, Map<String, Integer> workload, int maxPeriodsPerTeacher) {
+        Matching matching = new Matching(demands, workload, maxPeriodsPerTeacher);
+        matching.run();
+        return matching.result();
+    }
+
+    /**
+     * Index-based state of one allocation run
+     */
+    private static class Matching {
+        private final List<TeacherDemand> demands;
+        private final Map<String, Integer> workload;
+        private final int maxPeriodsPerTeacher;
+        private final List<String> teachers = new ArrayList<>();
+        private final int[][] candidates;
+        private final int[] periods;
+        private final int[] load;
+        private final int[] assignedTeacher;
+        private final List<List<Integer>> demandsByTeacher = new ArrayList<>();
+        private final int[] visitedInSearch;
+        private final boolean[] onPath;
+        private int search;
+
+        Matching(List<TeacherDemand> demands, Map<String, Integer> workload, int maxPeriodsPerTeacher) {
+            this.demands = demands;
+            this.workload = workload;
+            this.maxPeriodsPerTeacher = maxPeriodsPerTeacher;
+            Map<String, Integer> teacherIndex = new HashMap<>();
+            candidates = new int[demands.size()][];
+            periods = new int[demands.size()];
+            for (int d = 0; d < demands.size(); d++) {
+                TeacherDemand demand = demands.get(d);
+                periods[d] = demand.getPeriodsPerWeek();
+                candidates[d] = demand.getPossibleTeachers().stream().distinct()
+                    .mapToInt(teacher -> teacherIndex.computeIfAbsent(teacher, t -> {
+                        teachers.add(t);
+                        demandsByTeacher.add(new ArrayList<>());
+                        return teachers.size() - 1;
+                    }))
+                    .toArray();
+            }
+            load = new int[teachers.size()];
+            for (int t = 0; t < teachers.size(); t++) {
+                load[t] = workload.getOrDefault(teachers.get(t), 0);
+            }
+            assignedTeacher = new int[demands.size()];
+            Arrays.fill(assignedTeacher, -1);
+            visitedInSearch = new int[teachers.size()];
+            onPath = new boolean[teachers.size()];
+        }
+
+        void run() {
+            List<Integer> order = new ArrayList<>(demands.size());
+            for (int d = 0; d < demands.size(); d++) {
+                order.add(d);
+            }
+            // Larger demands first, then those with fewer teachers to choose from; stable for equal keys
+            order.sort(Comparator.comparingInt((Integer d) -> -periods[d]).thenComparingInt(d -> candidates[d].length));
+            for (int d : order) {
+                search++;
+                place(d);
+            }
+        }
+
+        /**
+         * Gives demand d a teacher, moving other demands along an augmenting path if needed.
+         * Teachers on the current path are skipped: the room they free up is reserved for the path.
+         */
+        private boolean place(int d) {
+            int best = -1;
+            for (int t : candidates[d]) {
+                if (!onPath[t] && load[t] + periods[d] <= maxPeriodsPerTeacher && (best < 0 || load[t] < load[best])) {
+                    best = t;
+                }
+            }
+            if (best >= 0) {
+                assign(d, best);
+                return true;
+            }
+            for (int t : candidates[d]) {
+                if (visitedInSearch[t] == search) {
+                    continue;
+                }
+                visitedInSearch[t] = search;
+                onPath[t] = true;
+                List<Integer> taught = demandsByTeacher.get(t);
+                for (int i = 0; i < taught.size(); i++) {
+                    int other = taught.get(i);
+                    if (load[t] - periods[other] + periods[d] > maxPeriodsPerTeacher) {
+                        continue;
+                    }
+                    taught.remove(i);
+                    load[t] -= periods[other];
+                    assignedTeacher[other] = -1;
+                    if (place(other)) {
+                        onPath[t] = false;
+                        assign(d, t);
+                        return true;
+                    }
+                    taught.add(i, other);
+                    load[t] += periods[other];
+                    assignedTeacher[other] = t;
+                }
+                onPath[t] = false;
+            }
+            return false;
+        }
+
+        private void assign(int d, int t) {
+            assignedTeacher[d] = t;
+            load[t] += periods[d];
+            demandsByTeacher.get(t).add(d);
+        }
+
+        List<String> result() {
+            List<String> allocation = new ArrayList<>(demands.size());
+            for (int d = 0; d < demands.size(); d++) {
+                allocation.add(assignedTeacher[d] >= 0 ? teachers.get(assignedTeacher[d]) : null);
+            }
+            for (int t = 0; t < teachers.size(); t++) {
+                workload.put(teachers.get(t), load[t]);
+            }
+            return allocation;
+        }
+    }
+}
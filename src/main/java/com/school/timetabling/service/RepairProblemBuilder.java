@@ -0,0 +1,143 @@
+package com.school.timetabling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import com.school.timetabling.rest.dto.RepairRequest;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a warm-start problem from a previous job's timetable and a {@link RepairRequest}.
+ * Lessons that still exist keep their previous timeslot as starting value and as {@code originalTimeslot},
+ * so the "Minimize moved lessons" constraint discourages moving them. Lessons whose class and teacher
+ * are untouched by the changes are pinned, so only the neighbourhood of the change is re-solved.
+ */
+@Component
+public class RepairProblemBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(RepairProblemBuilder.class);
+
+    @Autowired
+    private TimetableProblemBuilder problemBuilder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * @return A copy of the previous request with the changes applied; the previous request is not modified
+     */
+    public TimetableRequest applyChanges(TimetableRequest previousRequest, RepairRequest changes) {
+        TimetableRequest request = objectMapper.convertValue(previousRequest, TimetableRequest.class);
+
+        Set<String> removedTeachers = new HashSet<>(changes.getRemovedTeachers());
+        for (TimetableRequest.LessonAssignment assignment : request.getLessonAssignmentList()) {
+            List<String> possibleTeachers = new ArrayList<>(assignment.getPossibleTeachers());
+            possibleTeachers.removeAll(removedTeachers);
+            assignment.setPossibleTeachers(possibleTeachers);
+        }
+
+        for (TimetableRequest.ClassInfo addedClass : changes.getAddedClasses()) {
+            TimetableRequest.ClassInfo existing = request.getClassList().stream()
+                .filter(classInfo -> classInfo.getGrade().equals(addedClass.getGrade()))
+                .findFirst().orElse(null);
+            if (existing == null) {
+                request.getClassList().add(addedClass);
+            } else {
+                Set<String> classes = new LinkedHashSet<>(existing.getClasses());
+                classes.addAll(addedClass.getClasses());
+                existing.setClasses(new ArrayList<>(classes));
+            }
+        }
+
+        for (TimetableRequest.LessonAssignment updated : changes.getUpdatedLessonAssignments()) {
+            request.getLessonAssignmentList().removeIf(assignment -> assignment.getSubject().equals(updated.getSubject())
+                && assignment.getGrade().equals(updated.getGrade()));
+            request.getLessonAssignmentList().add(updated);
+        }
+
+        request.setSolverProfile(changes.getSolverProfile());
+        request.setTimeBudgetSeconds(changes.getTimeBudgetSeconds());
+        if (changes.getSolverProfile() == null && changes.getTimeBudgetSeconds() == null) {
+            request.setSolverProfile("FAST");
+        }
+        return request;
+    }
+
+    public TimeTable buildRepairProblem(TimetableRequest request, TimeTable previousSolution, boolean pinUnaffectedLessons) {
+        // Keep each class on its previous teacher where possible
+        Map<String, String> previousTeachers = new HashMap<>();
+        Map<String, Deque<Long>> previousTimeslotIds = new HashMap<>();
+        for (Lesson lesson : previousSolution.getLessonList()) {
+            previousTeachers.put(TimetableProblemBuilder.classSubjectKey(lesson.getStudentGroup().getId(), lesson.getSubject()),
+                lesson.getTeacher());
+            if (lesson.getTimeslot() != null) {
+                previousTimeslotIds.computeIfAbsent(lessonKey(lesson), k -> new ArrayDeque<>())
+                    .add(lesson.getTimeslot().getId());
+            }
+        }
+
+        TimeTable problem = problemBuilder.convertRequestToProblem(request, previousTeachers);
+        List<Timeslot> timeslots = problem.getTimeslotList();
+
+        // Same timeslot list as the previous request, so timeslot ids map one to one
+        Set<String> affectedGroups = new HashSet<>();
+        Set<String> affectedTeachers = new HashSet<>();
+        List<Lesson> keptLessons = new ArrayList<>();
+        for (Lesson lesson : problem.getLessonList()) {
+            Deque<Long> timeslotIds = previousTimeslotIds.get(lessonKey(lesson));
+            Long timeslotId = timeslotIds != null ? timeslotIds.poll() : null;
+            if (timeslotId != null && timeslotId < timeslots.size()) {
+                Timeslot timeslot = timeslots.get(timeslotId.intValue());
+                lesson.setTimeslot(timeslot);
+                lesson.setOriginalTimeslot(timeslot);
+                keptLessons.add(lesson);
+            } else {
+                affectedGroups.add(lesson.getStudentGroup().getId());
+                affectedTeachers.add(lesson.getTeacher());
+            }
+        }
+        // Lessons that no longer exist free their slots, so their class and teacher may need to shift too
+        for (Lesson lesson : previousSolution.getLessonList()) {
+            Deque<Long> leftover = previousTimeslotIds.get(lessonKey(lesson));
+            if (leftover != null && !leftover.isEmpty()) {
+                affectedGroups.add(lesson.getStudentGroup().getId());
+                affectedTeachers.add(lesson.getTeacher());
+            }
+        }
+
+        int pinnedCount = 0;
+        if (pinUnaffectedLessons) {
+            for (Lesson lesson : keptLessons) {
+                if (!affectedGroups.contains(lesson.getStudentGroup().getId())
+                        && !affectedTeachers.contains(lesson.getTeacher())) {
+                    lesson.setPinned(true);
+                    pinnedCount++;
+                }
+            }
+        }
+        log.info("Repair problem: {} lessons, {} new, {} kept ({} pinned), {} classes and {} teachers affected",
+            problem.getLessonList().size(), problem.getLessonList().size() - keptLessons.size(), keptLessons.size(),
+            pinnedCount, affectedGroups.size(), affectedTeachers.size());
+        return problem;
+    }
+
+    private static String lessonKey(Lesson lesson) {
+        return TimetableProblemBuilder.classSubjectKey(lesson.getStudentGroup().getId(), lesson.getSubject())
+            + "/" + lesson.getTeacher();
+    }
+}
@@ -0,0 +1,97 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.domain.Timeslot;
+import com.school.timetabling.rest.dto.TimetableRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 of a normalized {@link TimetableRequest}, used as the solution cache key.
+ * Timeslots, classes, subjects, assignments and teacher lists are sorted first, so the same school
+ * submitted in a different order hashes the same. Timeslot ids are ignored: the problem builder
+ * overwrites them.
+ * The effective reject-infeasible flag is part of the key: a request that asks for rejection must not be
+ * answered with an infeasible timetable solved for one that did not.
+ */
+public final class RequestFingerprint {
+
+    private RequestFingerprint() {}
+
+    /**
+     * @param rejectInfeasible The request's rejectInfeasible, or the server default when it does not set one
+     */
+    public static String of(TimetableRequest request, boolean rejectInfeasible) {
+        StringBuilder canonical = new StringBuilder();
+
+        List<Timeslot> timeslots = new ArrayList<>(nullToEmpty(request.getTimeslotList()));
+        timeslots.sort(Comparator.comparing(Timeslot::getDayOfWeek)
+            .thenComparing(Timeslot::getStartTime)
+            .thenComparing(Timeslot::getEndTime));
+        canonical.append("timeslots");
+        for (Timeslot timeslot : timeslots) {
+            canonical.append('|').append(timeslot.getDayOfWeek())
+                .append(',').append(timeslot.getStartTime())
+                .append(',').append(timeslot.getEndTime());
+        }
+
+        List<String> classes = new ArrayList<>();
+        for (TimetableRequest.ClassInfo classInfo : nullToEmpty(request.getClassList())) {
+            for (String className : nullToEmpty(classInfo.getClasses())) {
+                classes.add(classInfo.getGrade() + "," + className);
+            }
+        }
+        appendSorted(canonical.append("\nclasses"), classes);
+
+        appendSorted(canonical.append("\nsubjects"), new ArrayList<>(nullToEmpty(request.getSubjectList())));
+
+        List<String> assignments = new ArrayList<>();
+        for (TimetableRequest.LessonAssignment assignment : nullToEmpty(request.getLessonAssignmentList())) {
+            List<String> teachers = new ArrayList<>(nullToEmpty(assignment.getPossibleTeachers()));
+            teachers.sort(Comparator.naturalOrder());
+            assignments.add(assignment.getSubject() + "," + assignment.getGrade()
+                + "," + assignment.getPeriodsPerWeek() + "," + assignment.getMaxPeriodsPerDay()
+                + "," + String.join(";", teachers));
+        }
+        appendSorted(canonical.append("\nassignments"), assignments);
+
+        TimetableRequest.TeacherWorkloadConfig workload = request.getTeacherWorkloadConfig();
+        if (workload != null) {
+            canonical.append("\nworkload|").append(workload.getTotalTimeslotsPerWeek())
+                .append(',').append(workload.getFreePeriodsPerTeacherPerWeek())
+                .append(',').append(workload.getMaxPeriodsPerTeacherPerWeek());
+        }
+        canonical.append("\nmorningEnd|").append(request.getMorningEndTime());
+        // A different profile or budget may give a better timetable, so it is a different entry
+        canonical.append("\nsolver|").append(request.getSolverProfile())
+            .append(',').append(request.getTimeBudgetSeconds());
+        canonical.append("\nrejectInfeasible|").append(rejectInfeasible);
+
+        return sha256(canonical.toString());
+    }
+
+    private static void appendSorted(StringBuilder canonical, List<String> values) {
+        values.sort(Comparator.naturalOrder());
+        for (String value : values) {
+            canonical.append('|').append(value);
+        }
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
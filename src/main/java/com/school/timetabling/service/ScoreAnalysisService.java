@@ -0,0 +1,234 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.config.OptaPlannerConfiguration;
+import com.school.timetabling.config.SolverProfile;
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.StudentGroup;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.rest.dto.IndictmentPage;
+import com.school.timetabling.rest.dto.ScoreAnalysisResponse;
+import org.optaplanner.core.api.score.ScoreExplanation;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatch;
+import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
+import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaplanner.core.api.solver.SolutionManager;
+import org.optaplanner.core.api.solver.SolutionUpdatePolicy;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Explains a finished job's score per constraint and per lesson, teacher and student group.
+ * Computed lazily on the first request for a job and cached with it, so solve responses stay small.
+ * Always uses constraint streams: the incremental score calculator does not report constraint matches.
+ */
+@Service
+public class ScoreAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreAnalysisService.class);
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private volatile SolutionManager<TimeTable, HardSoftScore> solutionManager;
+
+    /**
+     * @throws IllegalStateException if the job has no final timetable to analyze
+     */
+    public ScoreAnalysisResponse getSummary(TimetableJob job) {
+        return analysisOf(job).getSummary();
+    }
+
+    /**
+     * @throws IllegalStateException if the job has no final timetable to analyze
+     * @throws IllegalArgumentException if the page is negative or the size is not between 1 and {@link #MAX_PAGE_SIZE}
+     */
+    public IndictmentPage getIndictments(TimetableJob job, IndictmentPage.Type type, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be at least 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<IndictmentPage.Indictment> indictments = analysisOf(job).getIndictments(type);
+        int from = (int) Math.min((long) page * size, indictments.size());
+        int to = Math.min(from + size, indictments.size());
+
+        IndictmentPage response = new IndictmentPage();
+        response.setType(type.name());
+        response.setPage(page);
+        response.setSize(size);
+        response.setTotalElements(indictments.size());
+        response.setTotalPages((indictments.size() + size - 1) / size);
+        response.setItems(indictments.subList(from, to));
+        return response;
+    }
+
+    private JobScoreAnalysis analysisOf(TimetableJob job) {
+        if (job.isCached()) {
+            throw new IllegalStateException("Job " + job.getId() + " was answered from the solution cache and has no timetable to analyze");
+        }
+        if (!job.isFinished()) {
+            throw new IllegalStateException("Job " + job.getId() + " is still " + job.getStatus().name().toLowerCase()
+                + ", its score can be analyzed once it finishes");
+        }
+        if (job.getStatus() == TimetableJob.Status.FAILED || job.getBestSolution() == null) {
+            throw new IllegalStateException("Job " + job.getId() + " has no timetable to analyze");
+        }
+        // One computation per job, concurrent first requests wait for it
+        synchronized (job) {
+            if (job.getScoreAnalysis() == null) {
+                job.setScoreAnalysis(analyze(job));
+            }
+            return job.getScoreAnalysis();
+        }
+    }
+
+    private JobScoreAnalysis analyze(TimetableJob job) {
+        long start = System.nanoTime();
+        TimeTable solution = job.getBestSolution();
+        ScoreExplanation<TimeTable, HardSoftScore> explanation =
+            getSolutionManager().explain(solution, SolutionUpdatePolicy.UPDATE_SCORE_ONLY);
+
+        List<ConstraintMatchTotal<HardSoftScore>> totals = new ArrayList<>(explanation.getConstraintMatchTotalMap().values());
+        totals.sort(Comparator.comparing((ConstraintMatchTotal<HardSoftScore> total) -> total.getScore())
+            .thenComparing(ConstraintMatchTotal::getConstraintName));
+        List<ScoreAnalysisResponse.ConstraintSummary> constraints = new ArrayList<>(totals.size());
+        for (ConstraintMatchTotal<HardSoftScore> total : totals) {
+            ScoreAnalysisResponse.ConstraintSummary constraint = new ScoreAnalysisResponse.ConstraintSummary();
+            constraint.setName(total.getConstraintName());
+            constraint.setWeight(total.getConstraintWeight().toString());
+            constraint.setScore(total.getScore().toString());
+            constraint.setMatchCount(total.getConstraintMatchCount());
+            constraints.add(constraint);
+        }
+
+        // Teachers and groups collect their own matches plus those of their lessons; a match shared by
+        // two of their lessons (a conflict) counts once
+        List<ScoredIndictment> lessons = new ArrayList<>();
+        Map<String, Set<ConstraintMatch<HardSoftScore>>> teacherMatches = new HashMap<>();
+        Map<String, Set<ConstraintMatch<HardSoftScore>>> groupMatches = new HashMap<>();
+        for (Map.Entry<Object, Indictment<HardSoftScore>> entry : explanation.getIndictmentMap().entrySet()) {
+            Object indicted = entry.getKey();
+            Set<ConstraintMatch<HardSoftScore>> matches = entry.getValue().getConstraintMatchSet();
+            if (indicted instanceof Lesson lesson) {
+                lessons.add(scored(String.valueOf(lesson.getId()), describe(lesson), matches));
+                if (lesson.getTeacher() != null) {
+                    matchSet(teacherMatches, lesson.getTeacher()).addAll(matches);
+                }
+                matchSet(groupMatches, lesson.getStudentGroup().getId()).addAll(matches);
+            } else if (indicted instanceof StudentGroup group) {
+                matchSet(groupMatches, group.getId()).addAll(matches);
+            } else if (indicted instanceof String teacher) {
+                matchSet(teacherMatches, teacher).addAll(matches);
+            }
+        }
+        Map<String, Integer> lessonsPerTeacher = new HashMap<>();
+        Map<String, Integer> lessonsPerGroup = new HashMap<>();
+        for (Lesson lesson : solution.getLessonList()) {
+            if (lesson.getTeacher() != null) {
+                lessonsPerTeacher.merge(lesson.getTeacher(), 1, Integer::sum);
+            }
+            lessonsPerGroup.merge(lesson.getStudentGroup().getId(), 1, Integer::sum);
+        }
+        List<ScoredIndictment> teachers = new ArrayList<>(teacherMatches.size());
+        teacherMatches.forEach((teacher, matches) ->
+            teachers.add(scored(teacher, lessonsPerTeacher.getOrDefault(teacher, 0) + " lessons", matches)));
+        List<ScoredIndictment> groups = new ArrayList<>(groupMatches.size());
+        groupMatches.forEach((group, matches) ->
+            groups.add(scored(group, lessonsPerGroup.getOrDefault(group, 0) + " lessons", matches)));
+
+        Map<IndictmentPage.Type, List<IndictmentPage.Indictment>> indictments = new EnumMap<>(IndictmentPage.Type.class);
+        indictments.put(IndictmentPage.Type.LESSON, worstFirst(lessons));
+        indictments.put(IndictmentPage.Type.TEACHER, worstFirst(teachers));
+        indictments.put(IndictmentPage.Type.STUDENT_GROUP, worstFirst(groups));
+
+        ScoreAnalysisResponse summary = new ScoreAnalysisResponse();
+        summary.setJobId(job.getId().toString());
+        summary.setScore(explanation.getScore().toString());
+        summary.setFeasible(explanation.getScore().isFeasible());
+        summary.setConstraints(constraints);
+        summary.setIndictedLessons(lessons.size());
+        summary.setIndictedTeachers(teachers.size());
+        summary.setIndictedStudentGroups(groups.size());
+        summary.setAnalysisMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Analyzed score {} of job {} in {} ms: {} lessons, {} teachers and {} groups indicted", summary.getScore(),
+            job.getId(), summary.getAnalysisMillis(), lessons.size(), teachers.size(), groups.size());
+        return new JobScoreAnalysis(summary, indictments);
+    }
+
+    private SolutionManager<TimeTable, HardSoftScore> getSolutionManager() {
+        SolutionManager<TimeTable, HardSoftScore> manager = solutionManager;
+        if (manager == null) {
+            synchronized (this) {
+                if (solutionManager == null) {
+                    // The profile only shapes the phases, which score analysis does not run
+                    solutionManager = SolutionManager.create(SolverFactory.create(OptaPlannerConfiguration.buildSolverConfig(
+                        SolverProfile.FAST, OptaPlannerConfiguration.CONSTRAINT_STREAMS_SCORE_CALCULATOR)));
+                }
+                manager = solutionManager;
+            }
+        }
+        return manager;
+    }
+
+    private static Set<ConstraintMatch<HardSoftScore>> matchSet(Map<String, Set<ConstraintMatch<HardSoftScore>>> matchesByKey,
+                                                               String key) {
+        return matchesByKey.computeIfAbsent(key, k -> Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static String describe(Lesson lesson) {
+        String when = lesson.getTimeslot() == null ? "unassigned"
+            : lesson.getTimeslot().getDayOfWeek() + " " + lesson.getTimeslot().getStartTime();
+        return lesson.getStudentGroup().getId() + " " + lesson.getSubject() + ", " + lesson.getTeacher() + ", " + when;
+    }
+
+    private static ScoredIndictment scored(String id, String description, Collection<ConstraintMatch<HardSoftScore>> matches) {
+        HardSoftScore score = HardSoftScore.ZERO;
+        Map<String, HardSoftScore> scoreByConstraint = new TreeMap<>();
+        for (ConstraintMatch<HardSoftScore> match : matches) {
+            score = score.add(match.getScore());
+            scoreByConstraint.merge(match.getConstraintName(), match.getScore(), HardSoftScore::add);
+        }
+        Map<String, String> constraintScores = new TreeMap<>();
+        scoreByConstraint.forEach((constraint, constraintScore) -> constraintScores.put(constraint, constraintScore.toString()));
+
+        IndictmentPage.Indictment indictment = new IndictmentPage.Indictment();
+        indictment.setId(id);
+        indictment.setDescription(description);
+        indictment.setScore(score.toString());
+        indictment.setMatchCount(matches.size());
+        indictment.setConstraintScores(constraintScores);
+        return new ScoredIndictment(score, indictment);
+    }
+
+    private static List<IndictmentPage.Indictment> worstFirst(List<ScoredIndictment> scored) {
+        scored.sort(Comparator.comparing((ScoredIndictment s) -> s.score)
+            .thenComparing(s -> s.indictment.getId()));
+        List<IndictmentPage.Indictment> indictments = new ArrayList<>(scored.size());
+        for (ScoredIndictment s : scored) {
+            indictments.add(s.indictment);
+        }
+        return indictments;
+    }
+
+    private static class ScoredIndictment {
+        private final HardSoftScore score;
+        private final IndictmentPage.Indictment indictment;
+
+        ScoredIndictment(HardSoftScore score, IndictmentPage.Indictment indictment) {
+            this.score = score;
+            this.indictment = indictment;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.school.timetabling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.rest.dto.TimetableResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Finished timetables keyed by {@link RequestFingerprint}, so resubmitting an identical request
+ * (page reloads, retries after a proxy timeout) returns the stored response instead of solving again.
+ * The most recently used entries are kept in memory; every entry is also written to
+ * timetabling.cache.directory as {@code <fingerprint>.json}, so the cache survives restarts
+ * and entries evicted from memory are reloaded on their next hit.
+ */
+@Component
+public class SolutionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SolutionCache.class);
+
+    @Value("${timetabling.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${timetabling.cache.max-entries:100}")
+    private int maxEntries;
+
+    @Value("${timetabling.cache.max-disk-entries:1000}")
+    private int maxDiskEntries;
+
+    @Value("${timetabling.cache.directory:${java.io.tmpdir}/timetabling-cache}")
+    private Path directory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Map<String, TimetableResponse> entries;
+
+    @PostConstruct
+    void init() {
+        // Access order, so the least recently used entry is evicted first
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TimetableResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        if (enabled) {
+            try {
+                Files.createDirectories(directory);
+                log.info("Solution cache: {} entries in memory, {} on disk in {}", maxEntries, maxDiskEntries, directory);
+            } catch (IOException e) {
+                log.warn("Cannot create solution cache directory {}, caching in memory only", directory, e);
+                directory = null;
+            }
+        }
+    }
+
+    /**
+     * @return The stored response, or null on a miss
+     */
+    public TimetableResponse get(String fingerprint) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            TimetableResponse response = entries.get(fingerprint);
+            if (response != null) {
+                return response;
+            }
+        }
+        TimetableResponse response = readFromDisk(fingerprint);
+        if (response != null) {
+            synchronized (entries) {
+                entries.put(fingerprint, response);
+            }
+        }
+        return response;
+    }
+
+    public void put(String fingerprint, TimetableResponse response) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(fingerprint, response);
+        }
+        writeToDisk(fingerprint, response);
+    }
+
+    private TimetableResponse readFromDisk(String fingerprint) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = directory.resolve(fingerprint + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), TimetableResponse.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable solution cache entry {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String fingerprint, TimetableResponse response) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            // Write then rename, so a concurrent read never sees a half written file
+            Path temp = Files.createTempFile(directory, fingerprint, ".tmp");
+            objectMapper.writeValue(temp.toFile(), response);
+            Files.move(temp, directory.resolve(fingerprint + ".json"),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            pruneDisk();
+        } catch (IOException e) {
+            log.warn("Could not write solution cache entry {}", fingerprint, e);
+        }
+    }
+
+    /**
+     * Deletes the oldest files once the directory holds more than max-disk-entries.
+     */
+    private void pruneDisk() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(".json")).toList();
+        }
+        if (files.size() <= maxDiskEntries) {
+            return;
+        }
+        List<Path> oldestFirst = files.stream()
+            .sorted(Comparator.comparingLong(file -> file.toFile().lastModified()))
+            .toList();
+        for (Path file : oldestFirst.subList(0, files.size() - maxDiskEntries)) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.domain.TimeTable;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level job metrics, next to OptaPlanner's own solver metrics (tagged {@code problem.id}).
+ * Live gauges of a solving job carry its {@code job.id} and are removed when the job ends; the histograms
+ * are tagged by profile and priority only, as a job id tag would make one time series per job.
+ */
+@Component
+public class SolverMetrics {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final Map<UUID, List<Meter>> jobGauges = new ConcurrentHashMap<>();
+
+    /**
+     * Called on the solver thread when the job starts solving
+     */
+    void jobStarted(TimetableJob job) {
+        TimeTable problem = job.getProblem();
+        Tags tags = Tags.of("profile", job.getProfile().name());
+        Timer.builder("timetabling.job.queue.wait")
+            .description("Time from submission until solving starts")
+            .tags("priority", job.getPriority().name())
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(job.getQueuedMillis(), TimeUnit.MILLISECONDS);
+        problemSize("timetabling.job.problem.lessons", tags).record(problem.getLessonList().size());
+        problemSize("timetabling.job.problem.timeslots", tags).record(problem.getTimeslotList().size());
+        problemSize("timetabling.job.problem.student.groups", tags).record(problem.getStudentGroupList().size());
+
+        Tags jobTags = tags.and("job.id", job.getId().toString()).and("tenant", job.getTenant());
+        jobGauges.put(job.getId(), List.of(
+            Gauge.builder("timetabling.job.lessons", problem, p -> p.getLessonList().size())
+                .tags(jobTags).register(registry),
+            Gauge.builder("timetabling.job.timeslots", problem, p -> p.getTimeslotList().size())
+                .tags(jobTags).register(registry),
+            Gauge.builder("timetabling.job.student.groups", problem, p -> p.getStudentGroupList().size())
+                .tags(jobTags).register(registry),
+            Gauge.builder("timetabling.job.solving.seconds", job, j -> j.getSolvingTimeMillis() / 1000.0)
+                .tags(jobTags).register(registry)));
+    }
+
+    /**
+     * Called once per job that reached the solver, after it completed, was terminated or failed
+     */
+    void jobFinished(TimetableJob job) {
+        List<Meter> gauges = jobGauges.remove(job.getId());
+        if (gauges != null) {
+            gauges.forEach(registry::remove);
+        }
+        TimeTable solution = job.getBestSolution();
+        boolean feasible = solution != null && solution.getScore() != null && solution.getScore().isFeasible();
+        String profile = job.getProfile().name();
+        timer("timetabling.job.solve.duration", "Solving time of a job, by profile, priority and outcome",
+                Tags.of("profile", profile, "priority", job.getPriority().name(),
+                    "status", job.getStatus().name(), "feasible", Boolean.toString(feasible)))
+            .record(job.getSolvingTimeMillis(), TimeUnit.MILLISECONDS);
+        if (job.getTimeToFirstFeasibleMillis() >= 0) {
+            timer("timetabling.job.time.to.first.feasible", "Solving time until the first feasible solution",
+                    Tags.of("profile", profile))
+                .record(job.getTimeToFirstFeasibleMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (job.getConstructionMillis() >= 0) {
+            timer("timetabling.job.phase.duration", "Solving time per phase", Tags.of("profile", profile, "phase", "construction"))
+                .record(job.getConstructionMillis(), TimeUnit.MILLISECONDS);
+            timer("timetabling.job.phase.duration", "Solving time per phase", Tags.of("profile", profile, "phase", "local_search"))
+                .record(Math.max(0, job.getSolvingTimeMillis() - job.getConstructionMillis()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+            .description(description)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(100))
+            .maximumExpectedValue(Duration.ofMinutes(30))
+            .register(registry);
+    }
+
+    private DistributionSummary problemSize(String name, Tags tags) {
+        return DistributionSummary.builder(name)
+            .description("Problem size of started jobs")
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
@@ -0,0 +1,132 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.rest.dto.TimetableRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What {@link JobStore} writes for an unfinished job: its request and the lessons of the last checkpoint.
+ * Lessons keep their teacher, timeslot and repair state, so the problem can be rebuilt exactly as it was.
+ */
+public class StoredJob {
+
+    private UUID jobId;
+    private TimetableRequest request;
+    private String solverProfile;
+    private long timeBudgetMillis;
+    private long solvingTimeMillis;
+    private UUID repairedJobId;
+    private String fingerprint;
+    private String priority;
+    private String tenant;
+    private String score;
+    private List<StoredLesson> lessons;
+
+    public StoredJob() {}
+
+    /**
+     * Copies the lessons right away: the job's problem is the solver's working solution and keeps changing.
+     */
+    static StoredJob of(TimetableJob job, TimeTable solution) {
+        StoredJob stored = new StoredJob();
+        stored.jobId = job.getId();
+        stored.request = job.getRequest();
+        stored.solverProfile = job.getProfile().name();
+        stored.timeBudgetMillis = job.getTimeBudget().toMillis();
+        stored.solvingTimeMillis = job.getSolvingTimeMillis();
+        stored.repairedJobId = job.getRepairedJobId();
+        stored.fingerprint = job.getFingerprint();
+        stored.priority = job.getPriority().name();
+        stored.tenant = job.getTenant();
+        stored.score = solution.getScore() != null ? solution.getScore().toString() : null;
+        stored.lessons = new ArrayList<>(solution.getLessonList().size());
+        for (Lesson lesson : solution.getLessonList()) {
+            stored.lessons.add(StoredLesson.of(lesson));
+        }
+        return stored;
+    }
+
+    // Getters and setters
+    public UUID getJobId() { return jobId; }
+    public void setJobId(UUID jobId) { this.jobId = jobId; }
+
+    public TimetableRequest getRequest() { return request; }
+    public void setRequest(TimetableRequest request) { this.request = request; }
+
+    public String getSolverProfile() { return solverProfile; }
+    public void setSolverProfile(String solverProfile) { this.solverProfile = solverProfile; }
+
+    public long getTimeBudgetMillis() { return timeBudgetMillis; }
+    public void setTimeBudgetMillis(long timeBudgetMillis) { this.timeBudgetMillis = timeBudgetMillis; }
+
+    public long getSolvingTimeMillis() { return solvingTimeMillis; }
+    public void setSolvingTimeMillis(long solvingTimeMillis) { this.solvingTimeMillis = solvingTimeMillis; }
+
+    public UUID getRepairedJobId() { return repairedJobId; }
+    public void setRepairedJobId(UUID repairedJobId) { this.repairedJobId = repairedJobId; }
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+
+    public String getTenant() { return tenant; }
+    public void setTenant(String tenant) { this.tenant = tenant; }
+
+    public String getScore() { return score; }
+    public void setScore(String score) { this.score = score; }
+
+    public List<StoredLesson> getLessons() { return lessons; }
+    public void setLessons(List<StoredLesson> lessons) { this.lessons = lessons; }
+
+    public static class StoredLesson {
+        private long id;
+        private String groupId;
+        private String subject;
+        private String teacher;
+        private Long timeslotId;
+        private Long originalTimeslotId;
+        private boolean pinned;
+
+        public StoredLesson() {}
+
+        static StoredLesson of(Lesson lesson) {
+            StoredLesson stored = new StoredLesson();
+            stored.id = lesson.getId();
+            stored.groupId = lesson.getStudentGroup().getId();
+            stored.subject = lesson.getSubject();
+            stored.teacher = lesson.getTeacher();
+            stored.timeslotId = lesson.getTimeslot() != null ? lesson.getTimeslot().getId() : null;
+            stored.originalTimeslotId = lesson.getOriginalTimeslot() != null ? lesson.getOriginalTimeslot().getId() : null;
+            stored.pinned = lesson.isPinned();
+            return stored;
+        }
+
+        // Getters and setters
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+
+        public String getGroupId() { return groupId; }
+        public void setGroupId(String groupId) { this.groupId = groupId; }
+
+        public String getSubject() { return subject; }
+        public void setSubject(String subject) { this.subject = subject; }
+
+        public String getTeacher() { return teacher; }
+        public void setTeacher(String teacher) { this.teacher = teacher; }
+
+        public Long getTimeslotId() { return timeslotId; }
+        public void setTimeslotId(Long timeslotId) { this.timeslotId = timeslotId; }
+
+        public Long getOriginalTimeslotId() { return originalTimeslotId; }
+        public void setOriginalTimeslotId(Long originalTimeslotId) { this.originalTimeslotId = originalTimeslotId; }
+
+        public boolean isPinned() { return pinned; }
+        public void setPinned(boolean pinned) { this.pinned = pinned; }
+    }
+}
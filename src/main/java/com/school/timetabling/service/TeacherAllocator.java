@@ -0,0 +1,57 @@
+package com.school.timetabling.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chooses one teacher per class and subject before solving, within each teacher's weekly period limit.
+ * Selected with timetabling.teacher-allocation: {@code matching} (default) or {@code greedy}.
+ */
+public interface TeacherAllocator {
+
+    /**
+     * @param demands Class and subject pairs that need a teacher, in request order
+     * @param workload Periods per teacher already taken by kept teachers; updated with the allocation
+     * @param maxPeriodsPerTeacher Weekly period limit of every teacher
+     * @return Teacher per demand, by position in {@code demands}; null where no teacher has room
+     */
+    List<String> allocate(List<TeacherDemand> demands, Map<String, Integer> workload, int maxPeriodsPerTeacher);
+
+    static TeacherAllocator forMode(String mode) {
+        if ("greedy".equalsIgnoreCase(mode)) {
+            return new GreedyTeacherAllocator();
+        }
+        if ("matching".equalsIgnoreCase(mode)) {
+            return new MatchingTeacherAllocator();
+        }
+        throw new IllegalArgumentException("Unknown timetabling.teacher-allocation: " + mode + " (expected matching or greedy)");
+    }
+
+    /**
+     * One class's periods of one subject, which must all go to the same teacher
+     */
+    class TeacherDemand {
+        private final int assignmentIndex;
+        private final String studentGroupId;
+        private final int periodsPerWeek;
+        private final List<String> possibleTeachers;
+
+        /**
+         * @param assignmentIndex Position of the lesson assignment in the request, shared by the classes of a grade
+         */
+        public TeacherDemand(int assignmentIndex, String studentGroupId, int periodsPerWeek, List<String> possibleTeachers) {
+            this.assignmentIndex = assignmentIndex;
+            this.studentGroupId = studentGroupId;
+            this.periodsPerWeek = periodsPerWeek;
+            this.possibleTeachers = possibleTeachers;
+        }
+
+        public int getAssignmentIndex() { return assignmentIndex; }
+
+        public String getStudentGroupId() { return studentGroupId; }
+
+        public int getPeriodsPerWeek() { return periodsPerWeek; }
+
+        public List<String> getPossibleTeachers() { return possibleTeachers; }
+    }
+}
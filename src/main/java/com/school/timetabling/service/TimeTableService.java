@@ -1,106 +1,502 @@
 package com.school.timetabling.service;
 
 import com.school.timetabling.domain.*;
+import com.school.timetabling.rest.dto.FeasibilityReport;
+import com.school.timetabling.rest.dto.RepairRequest;
 import com.school.timetabling.rest.dto.TimetableRequest;
-import com.school.timetabling.solver.TimeTableConstraintConfig;
-import org.optaplanner.core.api.solver.SolverJob;
-import org.optaplanner.core.api.solver.SolverManager;
-import org.optaplanner.core.api.solver.SolverStatus;
+import com.school.timetabling.rest.dto.TimetableResponse;
+import com.school.timetabling.config.SolverProfile;
+import com.school.timetabling.config.SolverProfileRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TimeTableService {
 
     private static final Logger log = LoggerFactory.getLogger(TimeTableService.class);
 
+    // A resumed job whose budget ran out before the restart still gets this long to produce its final result
+    private static final Duration MIN_RESUME_BUDGET = Duration.ofSeconds(5);
+
     @Autowired
-    private SolverManager<TimeTable, UUID> solverManager;
+    private SolverProfileRegistry solverProfiles;
 
-    private Map<String, Map<String, Integer>> unassignedPeriods = new HashMap<>();
-    private Map<String, Map<String, Map<String, Integer>>> detailedUnassignedPeriods = new HashMap<>();
+    @Autowired
+    private TimetableProblemBuilder problemBuilder;
 
-    public TimeTable solve(TimetableRequest request) throws ExecutionException, InterruptedException {
-        // Configure constraints with values from request
-        configureConstraints(request);
-        
-        TimeTable problem = convertRequestToProblem(request);
-        
-        UUID problemId = UUID.randomUUID();
+    @Autowired
+    private RepairProblemBuilder repairProblemBuilder;
+
+    @Autowired
+    private TimetableResponseBuilder responseBuilder;
+
+    @Autowired
+    private SolutionCache solutionCache;
+
+    @Autowired
+    private JobStore jobStore;
+
+    @Autowired
+    private FeasibilityAnalysisService feasibilityAnalysis;
+
+    @Autowired
+    private JobScheduler jobScheduler;
+
+    @Autowired
+    private SolverMetrics solverMetrics;
+
+    @Autowired
+    private FinishedRetention retention;
+
+    @Value("${timetabling.feasibility.reject-infeasible:false}")
+    private boolean rejectInfeasibleByDefault;
+
+    // Finished jobs stay until the FinishedRetention policy evicts them
+    private final Map<UUID, TimetableJob> jobs = new ConcurrentHashMap<>();
+
+    // Unfinished jobs by request fingerprint, so an identical request attaches to the running solve.
+    // Registered before the problem is built, so the future completes once the job has started.
+    private final Map<String, CompletableFuture<TimetableJob>> jobsInFlight = new ConcurrentHashMap<>();
+
+    // Set once the application is stopping: jobs ended by the shutdown are kept for resume, not completed
+    private volatile boolean shuttingDown;
+
+    // Ends jobs at their time budget or first feasible solution. SolverManager.terminateEarly waits for the
+    // final best solution consumer, so it must not be called from the solver's consumer thread.
+    private final ScheduledExecutorService terminationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "solver-termination");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Blocking solve kept for the original POST /solve endpoint.
+     * Delegates to the asynchronous job API and waits for the final best solution.
+     */
+    public TimetableResponse solve(TimetableRequest request, String tenant) throws ExecutionException, InterruptedException {
+        return submit(request, tenant, JobPriority.INTERACTIVE).getFinalResponse().get();
+    }
+
+    /**
+     * Submits a solve job and returns immediately. Progress is reported through
+     * SolverManager.solveAndListen, so no request thread is held while solving.
+     * An identical request that is still solving is returned instead of starting a second solve,
+     * and one that was solved before is answered from the {@link SolutionCache}.
+     * Otherwise the job waits in the {@link JobScheduler} queue until a solver slot is free.
+     * @param defaultPriority Used when the request does not set a priority
+     * @throws IllegalArgumentException if the request has no timeslots, classes or lesson assignments
+     * @throws JobQueueFullException if the scheduler queue is full
+     */
+    public TimetableJob submit(TimetableRequest request, String tenant, JobPriority defaultPriority) {
+        validate(request);
+        SolverProfile profile = resolveProfile(request);
+        JobPriority priority = request.getPriority() != null ? JobPriority.parse(request.getPriority()) : defaultPriority;
+        String fingerprint = RequestFingerprint.of(request, isRejectInfeasible(request));
+        while (true) {
+            CompletableFuture<TimetableJob> registration = new CompletableFuture<>();
+            CompletableFuture<TimetableJob> inFlight = jobsInFlight.putIfAbsent(fingerprint, registration);
+            if (inFlight != null) {
+                // Waits while an identical request builds its problem, then attaches to its job
+                TimetableJob runningJob;
+                try {
+                    runningJob = inFlight.join();
+                } catch (CompletionException | CancellationException e) {
+                    // The other submission failed, so try on our own
+                    continue;
+                }
+                log.info("Request {} is already being solved by job {}, attaching", fingerprint, runningJob.getId());
+                return runningJob;
+            }
+            try {
+                TimetableJob job = startRegistered(request, profile, fingerprint, priority, tenant);
+                registration.complete(job);
+                if (job.isFinished()) {
+                    // Finished before it was registered, or answered from the cache
+                    removeInFlight(job);
+                }
+                return job;
+            } catch (RuntimeException e) {
+                jobsInFlight.remove(fingerprint, registration);
+                registration.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Rejects requests the problem builder cannot turn into a problem, so they fail as the caller's error
+     */
+    private static void validate(TimetableRequest request) {
+        if (request.getTimeslotList() == null || request.getTimeslotList().isEmpty()) {
+            throw new IllegalArgumentException("timeslotList must not be empty");
+        }
+        if (request.getClassList() == null || request.getClassList().isEmpty()) {
+            throw new IllegalArgumentException("classList must not be empty");
+        }
+        if (request.getLessonAssignmentList() == null || request.getLessonAssignmentList().isEmpty()) {
+            throw new IllegalArgumentException("lessonAssignmentList must not be empty");
+        }
+    }
+
+    /**
+     * Answers a request registered in {@link #jobsInFlight} from the cache, or starts a solve for it.
+     * A solve that ends puts its response in the cache before it leaves jobsInFlight, so no result is missed.
+     */
+    private TimetableJob startRegistered(TimetableRequest request, SolverProfile profile, String fingerprint,
+                                         JobPriority priority, String tenant) {
+        TimetableResponse cachedResponse = solutionCache.get(fingerprint);
+        if (cachedResponse != null) {
+            TimetableJob cachedJob = TimetableJob.fromCache(UUID.randomUUID(), request, profile, fingerprint,
+                priority, tenant, cachedResponse);
+            register(cachedJob);
+            log.info("Request {} answered from the solution cache as job {}", fingerprint, cachedJob.getId());
+            return cachedJob;
+        }
+        jobScheduler.checkAdmission();
+        TimeTable problem = problemBuilder.convertRequestToProblem(request);
+        return start(request, problem, profile, null, fingerprint, priority, tenant);
+    }
+
+    /**
+     * Re-solves a previous job's timetable after a change set, starting from its best solution.
+     * @return null if the previous job is unknown or was evicted
+     * @throws IllegalStateException if the previous job has no solution yet
+     * @throws JobQueueFullException if the scheduler queue is full
+     */
+    public TimetableJob repair(UUID previousJobId, RepairRequest changes, String tenant) {
+        TimetableJob previousJob = jobs.get(previousJobId);
+        if (previousJob == null) {
+            return null;
+        }
+        if (previousJob.isCached()) {
+            throw new IllegalStateException("Job " + previousJobId + " was answered from the solution cache and has no timetable to repair");
+        }
+        TimeTable previousSolution = previousJob.getBestSolution();
+        if (previousSolution == null) {
+            throw new IllegalStateException("Job " + previousJobId + " has no solution to repair yet");
+        }
         
-        log.info("=== MAXIMUM ACCURACY Solver Configuration ===");
+        jobScheduler.checkAdmission();
+        TimetableRequest request = repairProblemBuilder.applyChanges(previousJob.getRequest(), changes);
+        SolverProfile profile = resolveProfile(request);
+        TimeTable problem = repairProblemBuilder.buildRepairProblem(request, previousSolution, changes.isPinUnaffectedLessons());
+        log.info("Repairing job {}: {} teachers removed, {} classes added, {} assignments updated", previousJobId,
+                changes.getRemovedTeachers().size(), changes.getAddedClasses().size(),
+                changes.getUpdatedLessonAssignments().size());
+        // Not cached: the result depends on the previous timetable, not only on the request.
+        // Someone is waiting on a repair, so it always goes ahead of batch work.
+        return start(request, problem, profile, previousJobId, null, JobPriority.INTERACTIVE, tenant);
+    }
+
+    /**
+     * @throws InfeasibleRequestException if the pre-check proves the problem infeasible and the request asks
+     * for rejection (timetabling.feasibility.reject-infeasible by default)
+     * @throws JobQueueFullException if the scheduler queue is full
+     */
+    private TimetableJob start(TimetableRequest request, TimeTable problem, SolverProfile profile, UUID repairedJobId,
+                               String fingerprint, JobPriority priority, String tenant) {
+        FeasibilityReport feasibilityReport = feasibilityAnalysis.analyze(problem);
+        if (!feasibilityReport.isPossiblyFeasible()) {
+            boolean reject = isRejectInfeasible(request);
+            log.warn("Pre-check found {} unavoidable hard constraint breaks in {} ms{}, first: {}",
+                feasibilityReport.getViolations().size(), feasibilityReport.getAnalysisMillis(),
+                reject ? ", rejecting the request" : "", feasibilityReport.getViolations().get(0).getMessage());
+            if (reject) {
+                throw new InfeasibleRequestException(feasibilityReport);
+            }
+        }
+        Duration timeBudget = resolveTimeBudget(request, profile, problem.getLessonList().size());
+        
+        UUID jobId = UUID.randomUUID();
+        TimetableJob job = new TimetableJob(jobId, request, problem, profile, timeBudget, repairedJobId, fingerprint,
+                priority, tenant);
+        job.setFeasibilityReport(feasibilityReport);
+        register(job);
+        // Stored while queued, so a restart resumes queued jobs too. The solver changes the problem in place later.
+        jobStore.save(job, problem);
+        try {
+            jobScheduler.submit(job, () -> startSolving(job));
+        } catch (JobQueueFullException e) {
+            jobs.remove(jobId);
+            jobStore.remove(jobId);
+            throw e;
+        }
+        return job;
+    }
+
+    private boolean isRejectInfeasible(TimetableRequest request) {
+        return request.getRejectInfeasible() != null ? request.getRejectInfeasible() : rejectInfeasibleByDefault;
+    }
+
+    /**
+     * Resumes the jobs that were unfinished when the service last stopped, under their original job ids.
+     * Each one starts from its last checkpoint and gets the rest of its time budget.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeStoredJobs() {
+        for (StoredJob stored : jobStore.loadUnfinished()) {
+            try {
+                SolverProfile profile = SolverProfile.parse(stored.getSolverProfile());
+                Duration remainingBudget = Duration.ofMillis(stored.getTimeBudgetMillis() - stored.getSolvingTimeMillis());
+                if (remainingBudget.compareTo(MIN_RESUME_BUDGET) < 0) {
+                    remainingBudget = MIN_RESUME_BUDGET;
+                }
+                TimeTable problem = jobStore.restoreProblem(stored);
+                JobPriority priority = stored.getPriority() != null ? JobPriority.parse(stored.getPriority()) : JobPriority.INTERACTIVE;
+                String tenant = stored.getTenant() != null ? stored.getTenant() : JobScheduler.DEFAULT_TENANT;
+                TimetableJob job = new TimetableJob(stored.getJobId(), stored.getRequest(), problem, profile, remainingBudget,
+                        stored.getRepairedJobId(), stored.getFingerprint(), priority, tenant);
+                jobs.put(job.getId(), job);
+                if (job.getFingerprint() != null) {
+                    jobsInFlight.put(job.getFingerprint(), CompletableFuture.completedFuture(job));
+                }
+                log.info("Resuming job {} from checkpoint {} with {}s left", job.getId(), stored.getScore(),
+                        remainingBudget.toSeconds());
+                jobScheduler.resume(job, () -> startSolving(job));
+            } catch (RuntimeException e) {
+                log.warn("Could not resume stored job {}, discarding it", stored.getJobId(), e);
+                jobStore.remove(stored.getJobId());
+            }
+        }
+    }
+
+    private void startSolving(TimetableJob job) {
+        TimeTable problem = job.getProblem();
+        log.info("=== Solver Configuration ===");
+        log.info("Job id: {}", job.getId());
+        log.info("Solver profile: {}, time budget: {}s", job.getProfile(), job.getTimeBudget().toSeconds());
         log.info("Problem size: {} lessons", problem.getLessonList().size());
         log.info("Available timeslots: {}", problem.getTimeslotList().size());
         log.info("Student groups: {}", problem.getStudentGroupList().size());
-        log.info("Starting MAXIMUM ACCURACY solver...");
         
-        long startTime = System.currentTimeMillis();
-        SolverJob<TimeTable, UUID> solverJob = solverManager.solve(problemId, problem);
+        try {
+            solverProfiles.getSolverManager(job.getProfile()).solveAndListen(job.getId(),
+                    id -> {
+                        job.markStarted();
+                        solverMetrics.jobStarted(job);
+                        scheduleBudgetTimeout(job);
+                        return problem;
+                    },
+                    bestSolution -> onBestSolutionChanged(job, bestSolution),
+                    finalBestSolution -> onSolvingEnded(job, finalBestSolution),
+                    (id, throwable) -> onSolvingFailed(job, throwable));
+        } catch (RuntimeException e) {
+            // Runs on the scheduler's caller, which must not see another job's failure
+            onSolvingFailed(job, e);
+        }
+    }
+
+    private SolverProfile resolveProfile(TimetableRequest request) {
+        if (request.getSolverProfile() != null) {
+            return SolverProfile.parse(request.getSolverProfile());
+        }
+        if (request.getTimeBudgetSeconds() != null) {
+            return SolverProfile.forTimeBudget(Duration.ofSeconds(request.getTimeBudgetSeconds()));
+        }
+        return solverProfiles.getDefaultProfile();
+    }
+
+    private Duration resolveTimeBudget(TimetableRequest request, SolverProfile profile, int lessonCount) {
+        if (request.getTimeBudgetSeconds() == null) {
+            return profile.timeBudgetFor(lessonCount);
+        }
+        if (request.getTimeBudgetSeconds() <= 0) {
+            throw new IllegalArgumentException("timeBudgetSeconds must be positive");
+        }
+        Duration timeBudget = Duration.ofSeconds(request.getTimeBudgetSeconds());
+        if (timeBudget.compareTo(profile.getMaxBudget()) > 0) {
+            log.warn("Time budget {}s exceeds the {} profile limit, using {}s",
+                    timeBudget.toSeconds(), profile, profile.getMaxBudget().toSeconds());
+            return profile.getMaxBudget();
+        }
+        return timeBudget;
+    }
+
+    /**
+     * The profile's SolverFactory already stops at its max budget, so only shorter budgets need a timer.
+     * Counted from the start of solving, not from submission, so queued jobs get their full budget.
+     */
+    private void scheduleBudgetTimeout(TimetableJob job) {
+        if (job.getTimeBudget().compareTo(job.getProfile().getMaxBudget()) >= 0) {
+            return;
+        }
+        job.setBudgetTimeout(terminationExecutor.schedule(() -> {
+            log.info("Job {} reached its time budget of {}s", job.getId(), job.getTimeBudget().toSeconds());
+            solverProfiles.getSolverManager(job.getProfile()).terminateEarly(job.getId());
+        }, job.getTimeBudget().toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private void register(TimetableJob job) {
+        retention.evict(jobs, TimetableJob::getFinishedAt);
+        jobs.put(job.getId(), job);
+    }
+
+    /**
+     * @return null if the job is unknown or was evicted after it finished
+     */
+    public TimetableJob getJob(UUID jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Number of jobs per status, used to see how busy the solver threads are
+     */
+    public Map<TimetableJob.Status, Long> countJobsByStatus() {
+        Map<TimetableJob.Status, Long> counts = new EnumMap<>(TimetableJob.Status.class);
+        for (TimetableJob.Status status : TimetableJob.Status.values()) {
+            counts.put(status, 0L);
+        }
+        for (TimetableJob job : jobs.values()) {
+            counts.merge(job.getStatus(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Number of solves that can run at the same time across the solver profiles in use
+     */
+    public int getParallelSolverCount() {
+        return solverProfiles.getSolverThreadCount();
+    }
+
+    /**
+     * Asks the solver to stop early. The job completes with the best solution found so far.
+     * @return false if the job is unknown
+     */
+    public boolean terminate(UUID jobId) {
+        TimetableJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        if (!job.isFinished() && jobScheduler.cancel(job)) {
+            // Still queued, there is no solver run to stop
+            job.requestTermination();
+            jobStore.remove(jobId);
+            TimetableResponse response = new TimetableResponse();
+            response.setFeasible(false);
+            response.setScore("N/A");
+            response.setMessage("Job " + jobId + " was terminated before solving started");
+            job.complete(null, response);
+            removeInFlight(job);
+            log.info("Queued job {} cancelled", jobId);
+        } else if (!job.isFinished()) {
+            job.requestTermination();
+            solverProfiles.getSolverManager(job.getProfile()).terminateEarly(jobId);
+            log.info("Termination requested for job {}", jobId);
+        }
+        return true;
+    }
+
+    private void onBestSolutionChanged(TimetableJob job, TimeTable bestSolution) {
+        job.updateBestSolution(bestSolution);
+        if (bestSolution.getScore() == null) {
+            return;
+        }
+        
+        jobStore.checkpoint(job, bestSolution);
         
-        // Enhanced progress monitoring for very long runs
-        TimeTable bestSolution = null;
-        String lastBestScore = "N/A";
+        long elapsedMillis = job.getSolvingTimeMillis();
+        log.info("[{}] Job {} score improved: {}", formatTime(elapsedMillis / 1000), job.getId(), bestSolution.getScore());
         
-        while (!solverJob.getSolverStatus().equals(SolverStatus.NOT_SOLVING)) {
-            try {
-                bestSolution = solverJob.getFinalBestSolution();
-                if (bestSolution != null && bestSolution.getScore() != null) {
-                    String currentScore = bestSolution.getScore().toString();
-                    
-                    // Track score improvements
-                    if (!currentScore.equals(lastBestScore)) {
-                        lastBestScore = currentScore;
-                        long elapsedMinutes = (System.currentTimeMillis() - startTime) / 60000;
-                        long elapsedSeconds = ((System.currentTimeMillis() - startTime) / 1000) % 60;
-                        log.info("[{}:{}] Score improved: {}", String.format("%02d", elapsedMinutes), String.format("%02d", elapsedSeconds), currentScore);
-                        
-                        if (bestSolution.getScore().isFeasible()) {
-                            int softScore = bestSolution.getScore().softScore();
-                            if (softScore >= 0) {
-                                log.info("🎯 PERFECT feasible solution found!");
-                            } else if (softScore >= -10) {
-                                log.info("🎯 EXCELLENT solution found! (Soft score: {})", softScore);
-                            }
-                        }
-                    }
-                }
-                Thread.sleep(5000); // Check every 5 seconds
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+        if (bestSolution.getScore().isFeasible() && job.isStopWhenFeasible()) {
+            log.info("Job {} found a feasible solution, stopping", job.getId());
+            terminationExecutor.execute(() -> solverProfiles.getSolverManager(job.getProfile()).terminateEarly(job.getId()));
         }
         
-        TimeTable solution = solverJob.getFinalBestSolution();
-        long totalSolvingTime = (System.currentTimeMillis() - startTime) / 1000;
+        if (bestSolution.getScore().isFeasible()) {
+            int softScore = bestSolution.getScore().softScore();
+            if (softScore >= 0) {
+                log.info("🎯 PERFECT feasible solution found!");
+            } else if (softScore >= -10) {
+                log.info("🎯 EXCELLENT solution found! (Soft score: {})", softScore);
+            }
+        }
+    }
+
+    private void onSolvingEnded(TimetableJob job, TimeTable solution) {
+        job.cancelBudgetTimeout();
+        jobScheduler.finished(job);
+        if (shuttingDown) {
+            // Stopped by the shutdown, not finished: keep it for resume and do not cache the partial result
+            jobStore.save(job, solution);
+            log.info("Job {} stopped by shutdown, checkpointed at {}", job.getId(), solution.getScore());
+            return;
+        }
+        jobStore.remove(job.getId());
+        job.complete(solution, responseBuilder.convertToResponse(solution));
+        solverMetrics.jobFinished(job);
+        // Cached before it leaves jobsInFlight, so an identical request finds either the job or its result.
+        // A terminated job stopped before its budget, so a resubmission should get a full solve.
+        if (job.getFingerprint() != null && job.getStatus() == TimetableJob.Status.COMPLETED) {
+            solutionCache.put(job.getFingerprint(), job.getResponse());
+        }
+        removeInFlight(job);
         
-        log.info("=== MAXIMUM ACCURACY Solving Complete ===");
-        log.info("Total solving time: {}", formatTime(totalSolvingTime));
+        log.info("=== Solving Complete ===");
+        log.info("Job {} finished with status {}", job.getId(), job.getStatus());
+        log.info("Total solving time: {}", formatTime(job.getSolvingTimeMillis() / 1000));
         log.info("Final score: {}", solution.getScore());
         log.info("Solution feasible: {}", (solution.getScore() != null && solution.getScore().isFeasible()));
         log.info("Quality rating: {}", assessSolutionQuality(solution));
         
         // Detailed solution analysis
         analyzeSolutionQuality(solution);
-        
-        // Clean up constraint configuration
-        TimeTableConstraintConfig.clearConfiguration();
-        
-        return solution;
+    }
+
+    private void onSolvingFailed(TimetableJob job, Throwable throwable) {
+        log.error("Job {} failed", job.getId(), throwable);
+        job.cancelBudgetTimeout();
+        jobScheduler.finished(job);
+        job.fail(throwable);
+        solverMetrics.jobFinished(job);
+        if (!shuttingDown) {
+            jobStore.remove(job.getId());
+        }
+        removeInFlight(job);
+    }
+
+    /**
+     * Removes a finished job from {@link #jobsInFlight}. If its submission has not completed the registration yet,
+     * the submission sees the job finished and removes it instead.
+     */
+    private void removeInFlight(TimetableJob job) {
+        if (job.getFingerprint() != null) {
+            jobsInFlight.computeIfPresent(job.getFingerprint(),
+                    (fingerprint, registration) -> registration.getNow(null) == job ? null : registration);
+        }
     }
     
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        terminationExecutor.shutdownNow();
+        // Latest best solutions, in case the solvers are closed without a final callback
+        for (TimetableJob job : jobs.values()) {
+            if (!job.isFinished() && job.getBestSolution() != null && job.getBestSolution().getScore() != null) {
+                jobStore.save(job, job.getBestSolution());
+            }
+        }
+    }
+
     private String formatTime(long seconds) {
         long minutes = seconds / 60;
         long remainingSeconds = seconds % 60;
@@ -141,191 +537,4 @@ public class TimeTableService {
         log.info("Unassigned lessons: {}", unassignedLessons);
         log.info("Assignment rate: {}%", String.format("%.2f", (assignedLessons * 100.0) / solution.getLessonList().size()));
     }
-
-    public Map<String, Map<String, Integer>> getUnassignedPeriods() {
-        return unassignedPeriods;
-    }
-
-    public Map<String, Map<String, Map<String, Integer>>> getDetailedUnassignedPeriods() {
-        return detailedUnassignedPeriods;
-    }
-
-    private void configureConstraints(TimetableRequest request) {
-        Map<String, Map<String, Integer>> maxPeriodsConfig = new HashMap<>();
-        
-        log.debug("=== Building Constraint Configuration ===");
-        for (TimetableRequest.LessonAssignment assignment : request.getLessonAssignmentList()) {
-            String subject = assignment.getSubject();
-            String grade = assignment.getGrade();
-            int maxPeriodsPerDay = assignment.getMaxPeriodsPerDay();
-            
-            log.debug("Configuring: {} - Grade {} = {} periods/day", subject, grade, maxPeriodsPerDay);
-            
-            maxPeriodsConfig.computeIfAbsent(subject, k -> new HashMap<>())
-                           .put(grade, maxPeriodsPerDay);
-        }
-        
-        int maxPeriodsPerTeacher;
-        if (request.getTeacherWorkloadConfig() != null && 
-            request.getTeacherWorkloadConfig().getMaxPeriodsPerTeacherPerWeek() > 0) {
-            maxPeriodsPerTeacher = request.getTeacherWorkloadConfig().getMaxPeriodsPerTeacherPerWeek();
-        } else {
-            int totalTimeslots = request.getTimeslotList() != null ? request.getTimeslotList().size() : 40;
-            maxPeriodsPerTeacher = Math.max(20, totalTimeslots / 2);
-            log.warn("No teacherWorkloadConfig.maxPeriodsPerTeacherPerWeek specified, using calculated default: {}", maxPeriodsPerTeacher);
-        }
-        
-        TimeTableConstraintConfig.setConfiguration(maxPeriodsConfig, maxPeriodsPerTeacher);
-        
-        if (!TimeTableConstraintConfig.isConfigured()) {
-            throw new IllegalStateException("Failed to configure constraints from request data");
-        }
-        log.debug("=== Constraint Configuration Complete ===");
-    }
-
-    private TimeTable convertRequestToProblem(TimetableRequest request) {
-        unassignedPeriods.clear();
-        detailedUnassignedPeriods.clear();
-        
-        List<Timeslot> timeslots = new ArrayList<>();
-        for (int i = 0; i < request.getTimeslotList().size(); i++) {
-            Timeslot ts = request.getTimeslotList().get(i);
-            ts.setId((long) i);
-            timeslots.add(ts);
-        }
-
-        List<StudentGroup> studentGroups = new ArrayList<>();
-        for (TimetableRequest.ClassInfo classInfo : request.getClassList()) {
-            String grade = classInfo.getGrade();
-            for (String className : classInfo.getClasses()) {
-                StudentGroup group = new StudentGroup(
-                    grade + className, grade, className, 30
-                );
-                studentGroups.add(group);
-            }
-        }
-
-        List<Lesson> lessons = generateAllRequiredLessons(request, studentGroups);
-
-        return new TimeTable(timeslots, studentGroups, lessons);
-    }
-
-    private List<Lesson> generateAllRequiredLessons(TimetableRequest request, List<StudentGroup> studentGroups) {
-        List<Lesson> lessons = new ArrayList<>();
-        long lessonId = 0;
-        
-        Map<String, Integer> teacherWorkload = new HashMap<>();
-        int maxPeriodsPerTeacher = getMaxPeriodsPerTeacher(request);
-        
-        log.info("=== Teacher Assignment Analysis ===");
-        log.info("Max periods per teacher: {}", maxPeriodsPerTeacher);
-        
-        Set<String> allTeachers = new HashSet<>();
-        for (TimetableRequest.LessonAssignment assignment : request.getLessonAssignmentList()) {
-            allTeachers.addAll(assignment.getPossibleTeachers());
-        }
-        
-        for (String teacher : allTeachers) {
-            teacherWorkload.put(teacher, 0);
-        }
-        
-        log.info("Total teachers available: {}", allTeachers.size());
-        
-        int totalDemand = 0;
-        for (TimetableRequest.LessonAssignment assignment : request.getLessonAssignmentList()) {
-            String grade = assignment.getGrade();
-            int periodsPerWeek = assignment.getPeriodsPerWeek();
-            long classCount = studentGroups.stream().filter(sg -> sg.getGrade().equals(grade)).count();
-            totalDemand += periodsPerWeek * classCount;
-        }
-        
-        log.info("Total demand: {} periods", totalDemand);
-        log.info("Total capacity: {} periods ({} teachers × {} periods)", 
-            allTeachers.size() * maxPeriodsPerTeacher, allTeachers.size(), maxPeriodsPerTeacher);
-        
-        for (TimetableRequest.LessonAssignment assignment : request.getLessonAssignmentList()) {
-            String subject = assignment.getSubject();
-            String grade = assignment.getGrade();
-            int periodsPerWeek = assignment.getPeriodsPerWeek();
-            List<String> possibleTeachers = assignment.getPossibleTeachers();
-            
-            List<StudentGroup> classesForGrade = studentGroups.stream()
-                .filter(sg -> sg.getGrade().equals(grade))
-                .sorted((sg1, sg2) -> sg1.getClassName().compareTo(sg2.getClassName()))
-                .collect(Collectors.toList());
-            
-            log.debug("--- Processing {} Grade {} ---", subject, grade);
-            
-            List<String> sortedTeachers = possibleTeachers.stream()
-                .sorted((t1, t2) -> teacherWorkload.get(t1).compareTo(teacherWorkload.get(t2)))
-                .collect(Collectors.toList());
-            
-            for (StudentGroup studentGroup : classesForGrade) {
-                String assignedTeacher = null;
-                
-                for (String candidateTeacher : sortedTeachers) {
-                    if (teacherWorkload.get(candidateTeacher) + periodsPerWeek <= maxPeriodsPerTeacher) {
-                        assignedTeacher = candidateTeacher;
-                        break;
-                    }
-                }
-                
-                if (assignedTeacher != null) {
-                    teacherWorkload.merge(assignedTeacher, periodsPerWeek, Integer::sum);
-                    
-                    for (int period = 0; period < periodsPerWeek; period++) {
-                        lessons.add(new Lesson(lessonId++, subject, assignedTeacher, studentGroup));
-                    }
-                    
-                    log.debug("✓ Assigned {} to teach {} for class {}{}", 
-                        assignedTeacher, subject, grade, studentGroup.getClassName());
-                    
-                    sortedTeachers.sort((t1, t2) -> teacherWorkload.get(t1).compareTo(teacherWorkload.get(t2)));
-                } else {
-                    unassignedPeriods.computeIfAbsent(grade, k -> new HashMap<>())
-                                   .merge(subject, periodsPerWeek, Integer::sum);
-                    
-                    detailedUnassignedPeriods.computeIfAbsent(grade, k -> new HashMap<>())
-                                           .computeIfAbsent(subject, k -> new HashMap<>())
-                                           .put(studentGroup.getClassName(), periodsPerWeek);
-                    
-                    log.warn("✗ Could not assign teacher for {} - Grade {} Class {} ({} periods unassigned)", 
-                        subject, grade, studentGroup.getClassName(), periodsPerWeek);
-                }
-            }
-        }
-        
-        log.info("=== Final Results ===");
-        log.info("Generated {} lessons total with teacher assignments", lessons.size());
-        
-        int totalAssigned = lessons.size();
-        double successRate = (totalDemand > 0) ? (totalAssigned * 100.0) / totalDemand : 0.0;
-        
-        log.info("=== Assignment Statistics ===");
-        log.info("Total demand: {} periods", totalDemand);
-        log.info("Successfully assigned: {} periods ({}%)", totalAssigned, String.format("%.1f", successRate));
-        log.info("Unassigned: {} periods ({}%)", (totalDemand - totalAssigned), String.format("%.1f", 100.0 - successRate));
-        
-        if (!unassignedPeriods.isEmpty()) {
-            log.warn("Unassigned periods breakdown:");
-            unassignedPeriods.forEach((grade, subjectMap) -> {
-                subjectMap.forEach((subject, count) -> {
-                    log.warn("  Grade {} - {}: {} periods unassigned", grade, subject, count);
-                });
-            });
-        }
-        
-        return lessons;
-    }
-    
-    private int getMaxPeriodsPerTeacher(TimetableRequest request) {
-        if (request.getTeacherWorkloadConfig() != null && 
-            request.getTeacherWorkloadConfig().getMaxPeriodsPerTeacherPerWeek() > 0) {
-            return request.getTeacherWorkloadConfig().getMaxPeriodsPerTeacherPerWeek();
-        } else {
-            // Calculate reasonable default based on request data
-            int totalTimeslots = request.getTimeslotList() != null ? request.getTimeslotList().size() : 40;
-            return Math.max(20, totalTimeslots / 2); // Conservative estimate
-        }
-    }
 }
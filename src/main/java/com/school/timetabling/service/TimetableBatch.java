@@ -0,0 +1,179 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.rest.dto.FeasibilityReport;
+import com.school.timetabling.rest.dto.TimetableRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A list of requests solved as ordinary jobs, at most {@code parallelism} of them at a time.
+ * Items are started in order by {@link TimetableBatchService} as earlier ones finish; their jobs are
+ * normal jobs, so results, events and analysis are available per job id.
+ */
+public class TimetableBatch {
+
+    private final UUID id;
+    private final String tenant;
+    private final int parallelism;
+    private final List<Item> items;
+    private final long submittedAt;
+    private final List<Consumer<TimetableBatch>> progressListeners = new CopyOnWriteArrayList<>();
+
+    private volatile long finishedAt;
+
+    TimetableBatch(UUID id, String tenant, List<TimetableRequest> requests, int parallelism) {
+        this.id = id;
+        this.tenant = tenant;
+        this.parallelism = parallelism;
+        List<Item> batchItems = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            batchItems.add(new Item(i, requests.get(i)));
+        }
+        this.items = Collections.unmodifiableList(batchItems);
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Next item that has not been started, or null
+     */
+    Item nextPending() {
+        for (Item item : items) {
+            if (!item.isStarted()) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    int countRunning() {
+        int running = 0;
+        for (Item item : items) {
+            if (item.isStarted() && !item.isFinished()) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    public int countFinished() {
+        int finished = 0;
+        for (Item item : items) {
+            if (item.isFinished()) {
+                finished++;
+            }
+        }
+        return finished;
+    }
+
+    void markFinished() {
+        finishedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Called on the batch scheduler thread whenever an item starts or finishes, and once more when the batch finishes.
+     * A listener added after the batch finished is never called, so check {@link #isFinished()} after adding.
+     */
+    public void addProgressListener(Consumer<TimetableBatch> listener) {
+        progressListeners.add(listener);
+    }
+
+    public void removeProgressListener(Consumer<TimetableBatch> listener) {
+        progressListeners.remove(listener);
+    }
+
+    void notifyProgressListeners() {
+        for (Consumer<TimetableBatch> listener : progressListeners) {
+            listener.accept(this);
+        }
+        if (isFinished()) {
+            progressListeners.clear();
+        }
+    }
+
+    public boolean isFinished() {
+        return finishedAt != 0;
+    }
+
+    /**
+     * Wall-clock milliseconds from submission until now, or until the last item finished
+     */
+    public long getElapsedMillis() {
+        long end = finishedAt != 0 ? finishedAt : System.currentTimeMillis();
+        return end - submittedAt;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public String getTenant() { return tenant; }
+    public int getParallelism() { return parallelism; }
+    public List<Item> getItems() { return items; }
+    public long getSubmittedAt() { return submittedAt; }
+
+    /**
+     * Epoch millis the last item finished at, 0 while the batch is unfinished
+     */
+    public long getFinishedAt() { return finishedAt; }
+
+    /**
+     * One request of the batch. Before it starts there is no job; a request rejected or failing
+     * at submission finishes without one.
+     */
+    public static class Item {
+        private final int index;
+        private final TimetableRequest request;
+
+        private volatile boolean started;
+        private volatile TimetableJob job;
+        private volatile String errorMessage;
+        private volatile FeasibilityReport rejectionReport;
+
+        Item(int index, TimetableRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+
+        void markStarted(TimetableJob job) {
+            this.job = job;
+            this.started = true;
+        }
+
+        void reject(InfeasibleRequestException e) {
+            errorMessage = e.getMessage();
+            rejectionReport = e.getReport();
+            started = true;
+        }
+
+        void fail(String message) {
+            errorMessage = message;
+            started = true;
+        }
+
+        public boolean isStarted() {
+            return started;
+        }
+
+        public boolean isFinished() {
+            if (!started) {
+                return false;
+            }
+            TimetableJob itemJob = job;
+            return itemJob == null || itemJob.isFinished();
+        }
+
+        public boolean isRejected() {
+            return rejectionReport != null;
+        }
+
+        // Getters
+        public int getIndex() { return index; }
+        public TimetableRequest getRequest() { return request; }
+        public TimetableJob getJob() { return job; }
+        public String getErrorMessage() { return errorMessage; }
+        public FeasibilityReport getRejectionReport() { return rejectionReport; }
+    }
+}
@@ -0,0 +1,146 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.config.SolverProfileRegistry;
+import com.school.timetabling.rest.dto.BatchRequest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs many requests, e.g. every school of a district, as one batch. Each request becomes an ordinary job
+ * through {@link TimeTableService#submit}; the batch keeps {@code parallelism} of them running and starts
+ * the next one as soon as one finishes, so the solver threads stay busy until the batch is done.
+ * Batch jobs have {@link JobPriority#BATCH} unless a request sets its own, so interactive work goes first.
+ */
+@Service
+public class TimetableBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimetableBatchService.class);
+
+    @Autowired
+    private TimeTableService timeTableService;
+
+    @Autowired
+    private SolverProfileRegistry solverProfiles;
+
+    @Autowired
+    private FinishedRetention retention;
+
+    @Value("${timetabling.batch.parallelism:AUTO}")
+    private String defaultParallelism;
+
+    @Value("${timetabling.batch.max-requests:500}")
+    private int maxRequests;
+
+    // Finished batches stay until the FinishedRetention policy evicts them, like finished jobs
+    private final Map<UUID, TimetableBatch> batches = new ConcurrentHashMap<>();
+
+    // Starts batch items. Building a problem takes up to a few hundred milliseconds, which must not
+    // run on a request thread or on the solver's consumer thread of the job that just finished.
+    private final ScheduledExecutorService batchExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "batch-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Registers the batch and returns immediately; its first items start on the scheduler thread.
+     * @throws IllegalArgumentException if the batch is empty, too large or has a parallelism below 1
+     */
+    public TimetableBatch submit(BatchRequest batchRequest, String tenant) {
+        if (batchRequest.getRequests() == null || batchRequest.getRequests().isEmpty()) {
+            throw new IllegalArgumentException("A batch needs at least one request");
+        }
+        if (batchRequest.getRequests().size() > maxRequests) {
+            throw new IllegalArgumentException("A batch can hold at most " + maxRequests + " requests, got "
+                + batchRequest.getRequests().size());
+        }
+        int parallelism = batchRequest.getParallelism() != null ? batchRequest.getParallelism() : resolveDefaultParallelism();
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Batch parallelism must be at least 1, got " + parallelism);
+        }
+        TimetableBatch batch = new TimetableBatch(UUID.randomUUID(), tenant, batchRequest.getRequests(),
+            Math.min(parallelism, batchRequest.getRequests().size()));
+        retention.evict(batches, TimetableBatch::getFinishedAt);
+        batches.put(batch.getId(), batch);
+        log.info("Batch {} submitted: {} requests, {} at a time", batch.getId(), batch.getItems().size(),
+            batch.getParallelism());
+        batchExecutor.execute(() -> startItems(batch));
+        return batch;
+    }
+
+    /**
+     * @return null if the batch is unknown or was evicted after it finished
+     */
+    public TimetableBatch getBatch(UUID batchId) {
+        return batches.get(batchId);
+    }
+
+    /**
+     * Number of batch jobs run at the same time when a batch does not choose one, AUTO = the solver threads of a profile
+     */
+    public int resolveDefaultParallelism() {
+        if ("AUTO".equalsIgnoreCase(defaultParallelism)) {
+            return solverProfiles.getParallelSolverCount();
+        }
+        return Integer.parseInt(defaultParallelism);
+    }
+
+    /**
+     * Tops the batch up to its parallelism. Runs on the scheduler thread only, so items never start twice.
+     */
+    private void startItems(TimetableBatch batch) {
+        while (batch.countRunning() < batch.getParallelism()) {
+            TimetableBatch.Item item = batch.nextPending();
+            if (item == null || !startItem(batch, item)) {
+                break;
+            }
+        }
+        if (!batch.isFinished() && batch.countFinished() == batch.getItems().size()) {
+            batch.markFinished();
+            log.info("Batch {} finished: {} requests in {}ms", batch.getId(), batch.getItems().size(),
+                batch.getElapsedMillis());
+        }
+        batch.notifyProgressListeners();
+    }
+
+    /**
+     * @return false if the scheduler queue is full; the item stays pending and the batch tries again later
+     */
+    private boolean startItem(TimetableBatch batch, TimetableBatch.Item item) {
+        try {
+            TimetableJob job = timeTableService.submit(item.getRequest(), batch.getTenant(), JobPriority.BATCH);
+            item.markStarted(job);
+            log.debug("Batch {} item {} runs as job {}", batch.getId(), item.getIndex(), job.getId());
+            // Cached and failed jobs are complete already, so this runs right away
+            job.getFinalResponse().whenCompleteAsync((response, throwable) -> startItems(batch), batchExecutor);
+        } catch (JobQueueFullException e) {
+            log.info("Batch {} waits {}s for room in the solver queue", batch.getId(), e.getRetryAfterSeconds());
+            batchExecutor.schedule(() -> startItems(batch), e.getRetryAfterSeconds(), TimeUnit.SECONDS);
+            return false;
+        } catch (InfeasibleRequestException e) {
+            log.info("Batch {} item {} rejected: {}", batch.getId(), item.getIndex(), e.getMessage());
+            item.reject(e);
+        } catch (RuntimeException e) {
+            log.warn("Batch {} item {} could not be submitted: {}", batch.getId(), item.getIndex(), e.getMessage());
+            item.fail(e.getMessage());
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Pending items are not stored; jobs already started are kept and resumed by the job store
+        batchExecutor.shutdownNow();
+    }
+}
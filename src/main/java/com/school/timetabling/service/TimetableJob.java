@@ -0,0 +1,264 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.config.SolverProfile;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.rest.dto.FeasibilityReport;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import com.school.timetabling.rest.dto.TimetableResponse;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Tracks a single asynchronous solve submitted to the SolverManager.
+ * The best solution is updated from the solver thread while the job is running,
+ * so all mutable state is volatile and read without locking.
+ */
+public class TimetableJob {
+
+    public enum Status {
+        SCHEDULED,
+        SOLVING,
+        COMPLETED,
+        TERMINATED,
+        FAILED
+    }
+
+    private final UUID id;
+    private final TimetableRequest request;
+    private final TimeTable problem;
+    private final SolverProfile profile;
+    private final Duration timeBudget;
+    private final UUID repairedJobId;
+    private final String fingerprint;
+    private final JobPriority priority;
+    private final String tenant;
+    private final long submittedAt;
+    private final CompletableFuture<TimetableResponse> finalResponse = new CompletableFuture<>();
+    private final List<Consumer<TimetableJob>> progressListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Status status = Status.SCHEDULED;
+    private volatile TimeTable bestSolution;
+    private volatile TimetableResponse response;
+    private volatile boolean cached;
+    private volatile long startedAt;
+    private volatile long constructedAt;
+    private volatile long firstFeasibleAt;
+    private volatile long finishedAt;
+    private volatile boolean terminationRequested;
+    private volatile String errorMessage;
+    private volatile Future<?> budgetTimeout;
+    private volatile FeasibilityReport feasibilityReport;
+    private volatile JobScoreAnalysis scoreAnalysis;
+
+    /**
+     * @param repairedJobId Job whose timetable this job repairs, null for a solve from scratch
+     * @param fingerprint {@link RequestFingerprint} of the request, null if the result must not be cached
+     * @param tenant Caller whose {@link JobScheduler} quota the job counts against
+     */
+    public TimetableJob(UUID id, TimetableRequest request, TimeTable problem, SolverProfile profile, Duration timeBudget,
+                        UUID repairedJobId, String fingerprint, JobPriority priority, String tenant) {
+        this.id = id;
+        this.request = request;
+        this.problem = problem;
+        this.profile = profile;
+        this.timeBudget = timeBudget;
+        this.repairedJobId = repairedJobId;
+        this.fingerprint = fingerprint;
+        this.priority = priority;
+        this.tenant = tenant;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * A job answered from the {@link SolutionCache}: completed on creation, without a solver run.
+     */
+    static TimetableJob fromCache(UUID id, TimetableRequest request, SolverProfile profile, String fingerprint,
+                                  JobPriority priority, String tenant, TimetableResponse response) {
+        TimetableJob job = new TimetableJob(id, request, null, profile, Duration.ZERO, null, fingerprint, priority, tenant);
+        job.cached = true;
+        job.response = response;
+        job.finishedAt = job.submittedAt;
+        job.status = Status.COMPLETED;
+        job.finalResponse.complete(response);
+        return job;
+    }
+
+    void markStarted() {
+        startedAt = System.currentTimeMillis();
+        status = Status.SOLVING;
+    }
+
+    void updateBestSolution(TimeTable solution) {
+        if (solution.getScore() != null) {
+            long now = System.currentTimeMillis();
+            // The construction heuristic ends with the first best solution that has every lesson assigned
+            if (constructedAt == 0 && solution.getScore().isSolutionInitialized()) {
+                constructedAt = now;
+            }
+            if (firstFeasibleAt == 0 && solution.getScore().isFeasible()) {
+                firstFeasibleAt = now;
+            }
+        }
+        bestSolution = solution;
+        notifyProgressListeners();
+    }
+
+    void setFeasibilityReport(FeasibilityReport feasibilityReport) {
+        this.feasibilityReport = feasibilityReport;
+    }
+
+    JobScoreAnalysis getScoreAnalysis() { return scoreAnalysis; }
+
+    void setScoreAnalysis(JobScoreAnalysis scoreAnalysis) {
+        this.scoreAnalysis = scoreAnalysis;
+    }
+
+    void setBudgetTimeout(Future<?> budgetTimeout) {
+        this.budgetTimeout = budgetTimeout;
+    }
+
+    void cancelBudgetTimeout() {
+        Future<?> timeout = budgetTimeout;
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+    }
+
+    void requestTermination() {
+        terminationRequested = true;
+    }
+
+    void complete(TimeTable solution, TimetableResponse solutionResponse) {
+        bestSolution = solution;
+        response = solutionResponse;
+        finishedAt = System.currentTimeMillis();
+        status = terminationRequested ? Status.TERMINATED : Status.COMPLETED;
+        finalResponse.complete(solutionResponse);
+        notifyProgressListeners();
+    }
+
+    void fail(Throwable throwable) {
+        errorMessage = throwable.getMessage();
+        finishedAt = System.currentTimeMillis();
+        status = Status.FAILED;
+        finalResponse.completeExceptionally(throwable);
+        notifyProgressListeners();
+    }
+
+    /**
+     * Called on the solver's consumer thread for every new best solution and once more when the job finishes.
+     * A listener added after the job finished is never called, so check {@link #isFinished()} after adding.
+     */
+    public void addProgressListener(Consumer<TimetableJob> listener) {
+        progressListeners.add(listener);
+    }
+
+    public void removeProgressListener(Consumer<TimetableJob> listener) {
+        progressListeners.remove(listener);
+    }
+
+    private void notifyProgressListeners() {
+        for (Consumer<TimetableJob> listener : progressListeners) {
+            listener.accept(this);
+        }
+        if (isFinished()) {
+            progressListeners.clear();
+        }
+    }
+
+    /**
+     * Solves from scratch end at the first feasible solution. Repairs use their whole budget,
+     * because moving lessons back to their previous timeslot only improves the soft score.
+     */
+    public boolean isStopWhenFeasible() {
+        return repairedJobId == null;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.TERMINATED || status == Status.FAILED;
+    }
+
+    /**
+     * Milliseconds from the start of solving to the end of the construction heuristic, -1 before that
+     */
+    public long getConstructionMillis() {
+        return constructedAt != 0 ? constructedAt - startedAt : -1;
+    }
+
+    /**
+     * Milliseconds from the start of solving to the first feasible best solution, -1 if there is none yet
+     */
+    public long getTimeToFirstFeasibleMillis() {
+        return firstFeasibleAt != 0 ? firstFeasibleAt - startedAt : -1;
+    }
+
+    /**
+     * Milliseconds between submission and the start of solving, including the wait in the {@link JobScheduler} queue
+     */
+    public long getQueuedMillis() {
+        return startedAt != 0 ? startedAt - submittedAt : System.currentTimeMillis() - submittedAt;
+    }
+
+    /**
+     * Milliseconds spent solving so far, or in total once the job has finished.
+     */
+    public long getSolvingTimeMillis() {
+        if (startedAt == 0) {
+            return 0;
+        }
+        long end = finishedAt != 0 ? finishedAt : System.currentTimeMillis();
+        return end - startedAt;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+
+    public TimetableRequest getRequest() { return request; }
+
+    public TimeTable getProblem() { return problem; }
+
+    public SolverProfile getProfile() { return profile; }
+
+    public Duration getTimeBudget() { return timeBudget; }
+
+    public UUID getRepairedJobId() { return repairedJobId; }
+
+    public String getFingerprint() { return fingerprint; }
+
+    public JobPriority getPriority() { return priority; }
+
+    public String getTenant() { return tenant; }
+
+    public long getSubmittedAt() { return submittedAt; }
+
+    /**
+     * Epoch millis the job finished at, 0 while it is unfinished
+     */
+    public long getFinishedAt() { return finishedAt; }
+
+    public Status getStatus() { return status; }
+
+    public TimeTable getBestSolution() { return bestSolution; }
+
+    /**
+     * Response for the final solution, null until the job has finished
+     */
+    public TimetableResponse getResponse() { return response; }
+
+    public boolean isCached() { return cached; }
+
+    public String getErrorMessage() { return errorMessage; }
+
+    public CompletableFuture<TimetableResponse> getFinalResponse() { return finalResponse; }
+
+    /**
+     * Pre-solve check of the problem, null for cached and resumed jobs
+     */
+    public FeasibilityReport getFeasibilityReport() { return feasibilityReport; }
+}
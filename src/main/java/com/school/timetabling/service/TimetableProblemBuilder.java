@@ -0,0 +1,338 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.domain.*;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import com.school.timetabling.solver.TimeTableConstraintConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Problem-building stage between a {@link TimetableRequest} and the planning {@link TimeTable}.
+ * Has no dependencies, so benchmarks and tools can create it directly.
+ */
+@Component
+public class TimetableProblemBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(TimetableProblemBuilder.class);
+
+    private static final LocalTime DEFAULT_MORNING_END_TIME = LocalTime.of(11, 0);
+
+    private final TeacherAllocator teacherAllocator;
+
+    /**
+     * Uses the matching teacher allocation
+     */
+    public TimetableProblemBuilder() {
+        this("matching");
+    }
+
+    /**
+     * @param teacherAllocation {@code matching} or {@code greedy}, see {@link TeacherAllocator}
+     */
+    @Autowired
+    public TimetableProblemBuilder(@Value("${timetabling.teacher-allocation:matching}") String teacherAllocation) {
+        this.teacherAllocator = TeacherAllocator.forMode(teacherAllocation);
+    }
+
+    private TimeTableConstraintConfig configureConstraints(TimetableRequest request) {
+        // Intern teachers, subjects and grades to dense indexes in request order
+        Map<String, Integer> subjectIndexes = new LinkedHashMap<>();
+        Map<String, Integer> gradeIndexes = new LinkedHashMap<>();
+        Map<String, Integer> teacherIndexes = new LinkedHashMap<>();
+        for (TimetableRequest.ClassInfo classInfo : request.getClassList()) {
+            gradeIndexes.putIfAbsent(classInfo.getGrade(), gradeIndexes.size());
+        }
+        for (TimetableRequest.LessonAssignment assignment : request.getLessonAssignmentList()) {
+            subjectIndexes.putIfAbsent(assignment.getSubject(), subjectIndexes.size());
+            gradeIndexes.putIfAbsent(assignment.getGrade(), gradeIndexes.size());
+            for (String teacher : assignment.getPossibleTeachers()) {
+                teacherIndexes.putIfAbsent(teacher, teacherIndexes.size());
+            }
+        }
+        
+        // Primitive subject x grade limit table, unlisted combinations keep the default
+        int gradeCount = gradeIndexes.size();
+        int[] maxPeriodsPerDayBySubjectGrade = new int[subjectIndexes.size() * gradeCount];
+        Arrays.fill(maxPeriodsPerDayBySubjectGrade, TimeTableConstraintConfig.DEFAULT_MAX_PERIODS_PER_DAY);
+        
+        log.debug("=== Building Constraint Configuration ===");
+        for (TimetableRequest.LessonAssignment assignment : request.getLessonAssignmentList()) {
+            String subject = assignment.getSubject();
+            String grade = assignment.getGrade();
+            int maxPeriodsPerDay = assignment.getMaxPeriodsPerDay();
+            
+            log.debug("Configuring: {} - Grade {} = {} periods/day", subject, grade, maxPeriodsPerDay);
+            
+            maxPeriodsPerDayBySubjectGrade[subjectIndexes.get(subject) * gradeCount + gradeIndexes.get(grade)] = maxPeriodsPerDay;
+        }
+        
+        int maxPeriodsPerTeacher;
+        if (request.getTeacherWorkloadConfig() != null && 
+            request.getTeacherWorkloadConfig().getMaxPeriodsPerTeacherPerWeek() > 0) {
+            maxPeriodsPerTeacher = request.getTeacherWorkloadConfig().getMaxPeriodsPerTeacherPerWeek();
+        } else {
+            int totalTimeslots = request.getTimeslotList() != null ? request.getTimeslotList().size() : 40;
+            maxPeriodsPerTeacher = Math.max(20, totalTimeslots / 2);
+            log.warn("No teacherWorkloadConfig.maxPeriodsPerTeacherPerWeek specified, using calculated default: {}", maxPeriodsPerTeacher);
+        }
+        
+        TimeTableConstraintConfig constraintConfig = new TimeTableConstraintConfig(
+            new ArrayList<>(teacherIndexes.keySet()), new ArrayList<>(subjectIndexes.keySet()),
+            new ArrayList<>(gradeIndexes.keySet()), maxPeriodsPerDayBySubjectGrade, maxPeriodsPerTeacher);
+        
+        if (!constraintConfig.isConfigured()) {
+            throw new IllegalStateException("Failed to configure constraints from request data");
+        }
+        log.debug("Interned {} teachers, {} subjects and {} grades", 
+            constraintConfig.getTeacherCount(), constraintConfig.getSubjectCount(), constraintConfig.getGradeCount());
+        log.debug("=== Constraint Configuration Complete ===");
+        return constraintConfig;
+    }
+
+    /**
+     * Builds the planning problem for a request: interns names to dense indexes,
+     * precomputes the constraint config, then creates timeslots, student groups and lessons.
+     */
+    public TimeTable convertRequestToProblem(TimetableRequest request) {
+        return convertRequestToProblem(request, Map.of());
+    }
+
+    /**
+     * Same as {@link #convertRequestToProblem(TimetableRequest)}, but keeps the given teacher for a class and subject
+     * whenever that teacher is still possible, so a repair solve does not reshuffle teachers.
+     * @param preferredTeachers Teacher by {@link #classSubjectKey(String, String)}
+     */
+    public TimeTable convertRequestToProblem(TimetableRequest request, Map<String, String> preferredTeachers) {
+        // Configure constraints with values from request
+        TimeTableConstraintConfig constraintConfig = configureConstraints(request);
+        
+        List<Timeslot> timeslots = buildTimeslotGrid(request);
+
+        Map<String, Integer> gradeIndexes = indexByName(constraintConfig.getGradeNames());
+        List<StudentGroup> studentGroups = new ArrayList<>();
+        for (TimetableRequest.ClassInfo classInfo : request.getClassList()) {
+            String grade = classInfo.getGrade();
+            for (String className : classInfo.getClasses()) {
+                StudentGroup group = new StudentGroup(
+                    grade + className, grade, className, 30
+                );
+                group.setIndex(studentGroups.size());
+                group.setGradeIndex(gradeIndexes.get(grade));
+                studentGroups.add(group);
+            }
+        }
+
+        TimeTable problem = new TimeTable(timeslots, studentGroups, constraintConfig, new ArrayList<>());
+        problem.setLessonList(generateAllRequiredLessons(request, problem, preferredTeachers));
+        return problem;
+    }
+
+    public static String classSubjectKey(String studentGroupId, String subject) {
+        return studentGroupId + "/" + subject;
+    }
+
+    /**
+     * Normalizes the request timeslots into a grid: dense ids, day and period indexes,
+     * breaks between periods and the morning flag, so constraints never do time arithmetic.
+     */
+    private List<Timeslot> buildTimeslotGrid(TimetableRequest request) {
+        LocalTime morningEndTime = request.getMorningEndTime() != null ? request.getMorningEndTime() : DEFAULT_MORNING_END_TIME;
+        
+        List<Timeslot> timeslots = new ArrayList<>();
+        for (int i = 0; i < request.getTimeslotList().size(); i++) {
+            Timeslot ts = request.getTimeslotList().get(i);
+            ts.setId((long) i);
+            ts.setMorning(!ts.getStartTime().isAfter(morningEndTime));
+            timeslots.add(ts);
+        }
+        
+        // Day index follows the week order of the days that have timeslots
+        TreeMap<DayOfWeek, List<Timeslot>> timeslotsByDay = timeslots.stream()
+            .collect(Collectors.groupingBy(Timeslot::getDayOfWeek, TreeMap::new, Collectors.toList()));
+        int dayIndex = 0;
+        for (List<Timeslot> dayTimeslots : timeslotsByDay.values()) {
+            // Period index: position among the timeslots of the same day, ordered by start time
+            dayTimeslots.sort(Comparator.comparing(Timeslot::getStartTime));
+            Timeslot previous = null;
+            for (int period = 0; period < dayTimeslots.size(); period++) {
+                Timeslot ts = dayTimeslots.get(period);
+                ts.setDayIndex(dayIndex);
+                ts.setPeriodIndex(period);
+                ts.setBreakBefore(previous != null && previous.getEndTime().isBefore(ts.getStartTime()));
+                previous = ts;
+            }
+            dayIndex++;
+        }
+        
+        log.debug("Timeslot grid: {} days, up to {} periods per day", timeslotsByDay.size(),
+            timeslotsByDay.values().stream().mapToInt(List::size).max().orElse(0));
+        return timeslots;
+    }
+
+    private List<Lesson> generateAllRequiredLessons(TimetableRequest request, TimeTable problem,
+                                                    Map<String, String> preferredTeachers) {
+        List<StudentGroup> studentGroups = problem.getStudentGroupList();
+        TimeTableConstraintConfig constraintConfig = problem.getConstraintConfig();
+        Map<String, Map<String, Integer>> unassignedPeriods = problem.getUnassignedPeriods();
+        Map<String, Map<String, Map<String, Integer>>> detailedUnassignedPeriods = problem.getDetailedUnassignedPeriods();
+        
+        Map<String, Integer> subjectIndexes = indexByName(constraintConfig.getSubjectNames());
+        Map<String, Integer> teacherIndexes = indexByName(constraintConfig.getTeacherNames());
+        
+        List<Lesson> lessons = new ArrayList<>();
+        long lessonId = 0;
+        
+        Map<String, Integer> teacherWorkload = new HashMap<>();
+        int maxPeriodsPerTeacher = constraintConfig.getMaxPeriodsPerTeacher();
+        
+        log.info("=== Teacher Assignment Analysis ===");
+        log.info("Max periods per teacher: {}", maxPeriodsPerTeacher);
+        
+        Set<String> allTeachers = new HashSet<>();
+        for (TimetableRequest.LessonAssignment assignment : request.getLessonAssignmentList()) {
+            allTeachers.addAll(assignment.getPossibleTeachers());
+        }
+        
+        for (String teacher : allTeachers) {
+            teacherWorkload.put(teacher, 0);
+        }
+        
+        log.info("Total teachers available: {}", allTeachers.size());
+        
+        // Classes of each grade ordered by class name, grouped once instead of filtered per assignment
+        Map<String, List<StudentGroup>> classesByGrade = studentGroups.stream()
+            .sorted(Comparator.comparing(StudentGroup::getClassName))
+            .collect(Collectors.groupingBy(StudentGroup::getGrade));
+        List<TimetableRequest.LessonAssignment> assignments = request.getLessonAssignmentList();
+        
+        // Preferred teachers keep their classes, so count that workload before anything is allocated
+        Map<String, String> keptTeachers = new HashMap<>();
+        for (TimetableRequest.LessonAssignment assignment : assignments) {
+            for (StudentGroup studentGroup : classesByGrade.getOrDefault(assignment.getGrade(), List.of())) {
+                String key = classSubjectKey(studentGroup.getId(), assignment.getSubject());
+                String teacher = preferredTeachers.get(key);
+                if (teacher != null && assignment.getPossibleTeachers().contains(teacher)) {
+                    keptTeachers.put(key, teacher);
+                    teacherWorkload.merge(teacher, assignment.getPeriodsPerWeek(), Integer::sum);
+                }
+            }
+        }
+        if (!preferredTeachers.isEmpty()) {
+            log.info("Kept {} of {} previous class teachers", keptTeachers.size(), preferredTeachers.size());
+        }
+        
+        int totalDemand = 0;
+        List<TeacherAllocator.TeacherDemand> demands = new ArrayList<>();
+        for (int a = 0; a < assignments.size(); a++) {
+            TimetableRequest.LessonAssignment assignment = assignments.get(a);
+            List<StudentGroup> classesForGrade = classesByGrade.getOrDefault(assignment.getGrade(), List.of());
+            totalDemand += assignment.getPeriodsPerWeek() * classesForGrade.size();
+            for (StudentGroup studentGroup : classesForGrade) {
+                if (!keptTeachers.containsKey(classSubjectKey(studentGroup.getId(), assignment.getSubject()))) {
+                    demands.add(new TeacherAllocator.TeacherDemand(a, studentGroup.getId(),
+                        assignment.getPeriodsPerWeek(), assignment.getPossibleTeachers()));
+                }
+            }
+        }
+        
+        log.info("Total demand: {} periods", totalDemand);
+        log.info("Total capacity: {} periods ({} teachers × {} periods)", 
+            allTeachers.size() * maxPeriodsPerTeacher, allTeachers.size(), maxPeriodsPerTeacher);
+        
+        long allocationStart = System.nanoTime();
+        List<String> allocation = teacherAllocator.allocate(demands, teacherWorkload, maxPeriodsPerTeacher);
+        log.info("Allocated teachers to {} classes and subjects in {} ms ({})", demands.size(),
+            (System.nanoTime() - allocationStart) / 1_000_000, teacherAllocator.getClass().getSimpleName());
+        
+        // Allocation follows the order of the demands: assignments in request order, classes by name
+        int demandIndex = 0;
+        for (TimetableRequest.LessonAssignment assignment : assignments) {
+            String subject = assignment.getSubject();
+            String grade = assignment.getGrade();
+            int periodsPerWeek = assignment.getPeriodsPerWeek();
+            int subjectIndex = subjectIndexes.get(subject);
+            
+            log.debug("--- Processing {} Grade {} ---", subject, grade);
+            
+            for (StudentGroup studentGroup : classesByGrade.getOrDefault(grade, List.of())) {
+                String assignedTeacher = keptTeachers.get(classSubjectKey(studentGroup.getId(), subject));
+                if (assignedTeacher == null) {
+                    assignedTeacher = allocation.get(demandIndex++);
+                }
+                
+                if (assignedTeacher != null) {
+                    int teacherIndex = teacherIndexes.get(assignedTeacher);
+                    int maxPeriodsPerDay = constraintConfig.getMaxPeriodsPerDay(subjectIndex, studentGroup.getGradeIndex());
+                    
+                    for (int period = 0; period < periodsPerWeek; period++) {
+                        Lesson lesson = new Lesson(lessonId++, subject, assignedTeacher, studentGroup);
+                        lesson.setSubjectIndex(subjectIndex);
+                        lesson.setTeacherIndex(teacherIndex);
+                        lesson.setMaxPeriodsPerDay(maxPeriodsPerDay);
+                        lessons.add(lesson);
+                    }
+                    
+                    log.debug("✓ Assigned {} to teach {} for class {}{}", 
+                        assignedTeacher, subject, grade, studentGroup.getClassName());
+                } else {
+                    unassignedPeriods.computeIfAbsent(grade, k -> new HashMap<>())
+                                   .merge(subject, periodsPerWeek, Integer::sum);
+                    
+                    detailedUnassignedPeriods.computeIfAbsent(grade, k -> new HashMap<>())
+                                           .computeIfAbsent(subject, k -> new HashMap<>())
+                                           .put(studentGroup.getClassName(), periodsPerWeek);
+                    
+                    log.warn("✗ Could not assign teacher for {} - Grade {} Class {} ({} periods unassigned)", 
+                        subject, grade, studentGroup.getClassName(), periodsPerWeek);
+                }
+            }
+        }
+        
+        log.info("=== Final Results ===");
+        log.info("Generated {} lessons total with teacher assignments", lessons.size());
+        
+        int totalAssigned = lessons.size();
+        double successRate = (totalDemand > 0) ? (totalAssigned * 100.0) / totalDemand : 0.0;
+        
+        log.info("=== Assignment Statistics ===");
+        log.info("Total demand: {} periods", totalDemand);
+        log.info("Successfully assigned: {} periods ({}%)", totalAssigned, String.format("%.1f", successRate));
+        log.info("Unassigned: {} periods ({}%)", (totalDemand - totalAssigned), String.format("%.1f", 100.0 - successRate));
+        
+        if (!unassignedPeriods.isEmpty()) {
+            log.warn("Unassigned periods breakdown:");
+            unassignedPeriods.forEach((grade, subjectMap) -> {
+                subjectMap.forEach((subject, count) -> {
+                    log.warn("  Grade {} - {}: {} periods unassigned", grade, subject, count);
+                });
+            });
+        }
+        
+        return lessons;
+    }
+
+    private static Map<String, Integer> indexByName(List<String> names) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            indexes.put(names.get(i), i);
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,250 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.StudentGroup;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import com.school.timetabling.rest.dto.CompactTimetableResponse;
+import com.school.timetabling.rest.dto.TimetableResponse;
+import com.school.timetabling.solver.TimeTableConstraintConfig;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Converts a solved {@link TimeTable} into the {@link TimetableResponse} returned by the REST API.
+ * Lives next to the service so finished jobs can keep their response, e.g. for the solution cache.
+ */
+@Component
+public class TimetableResponseBuilder {
+
+    public TimetableResponse convertToResponse(TimeTable solution) {
+        TimetableResponse response = new TimetableResponse();
+
+        // Basic solution info
+        response.setScore(solution.getScore() != null ? solution.getScore().toString() : "N/A");
+        response.setFeasible(solution.getScore() != null && solution.getScore().isFeasible());
+
+        // Convert student group schedules - simplified structure
+        Map<String, Map<String, Map<String, Map<String, Object>>>> studentGroupSchedules = new HashMap<>();
+
+        // Group lessons by student group
+        Map<String, List<Lesson>> lessonsByGroup = solution.getLessonList().stream()
+            .filter(lesson -> lesson.getTimeslot() != null)
+            .collect(Collectors.groupingBy(lesson ->
+                lesson.getStudentGroup().getGrade() + lesson.getStudentGroup().getClassName()));
+
+        lessonsByGroup.forEach((groupName, lessons) -> {
+            Map<String, Map<String, Object>> weekSchedule = new HashMap<>();
+
+            lessons.forEach(lesson -> {
+                String day = lesson.getTimeslot().getDayOfWeek().toString();
+                String time = lesson.getTimeslot().getStartTime().toString();
+
+                Map<String, Object> lessonInfo = new HashMap<>();
+                lessonInfo.put("subject", lesson.getSubject());
+                lessonInfo.put("teacher", lesson.getTeacher());
+                lessonInfo.put("startTime", lesson.getTimeslot().getStartTime().toString());
+                lessonInfo.put("endTime", lesson.getTimeslot().getEndTime().toString());
+
+                weekSchedule.computeIfAbsent(day, k -> new HashMap<>()).put(time, lessonInfo);
+            });
+
+            // Fixed: Create the correct structure for studentGroupSchedules
+            Map<String, Map<String, Map<String, Object>>> classData = new HashMap<>();
+            classData.put("weekSchedule", weekSchedule);
+            studentGroupSchedules.put(groupName, classData);
+        });
+
+        response.setStudentGroupSchedules(studentGroupSchedules);
+
+        // Add unassigned periods information
+        response.setUnassignedPeriods(solution.getUnassignedPeriods());
+        response.setDetailedUnassignedPeriods(solution.getDetailedUnassignedPeriods());
+
+        // Calculate teacher workload
+        response.setTeacherWorkloadSummary(calculateTeacherWorkload(solution));
+
+        // Generate unassigned summary - using simple map instead of missing method
+        response.setUnassignedSummary(generateSimpleUnassignedSummary(solution));
+
+        response.setMessage(message(response.isFeasible()));
+
+        return response;
+    }
+
+    /**
+     * Compact form of a solved timetable: dictionaries in problem index order and one index row per scheduled lesson.
+     * Skips the nested maps of {@link #convertToResponse(TimeTable)} entirely.
+     */
+    public CompactTimetableResponse convertToCompactResponse(TimeTable solution) {
+        CompactTimetableResponse response = new CompactTimetableResponse();
+        response.setScore(solution.getScore() != null ? solution.getScore().toString() : "N/A");
+        response.setFeasible(solution.getScore() != null && solution.getScore().isFeasible());
+        response.setMessage(message(response.isFeasible()));
+
+        TimeTableConstraintConfig config = solution.getConstraintConfig();
+        List<String> studentGroups = new ArrayList<>(solution.getStudentGroupList().size());
+        for (StudentGroup group : solution.getStudentGroupList()) {
+            studentGroups.add(group.getId());
+        }
+        response.setStudentGroups(studentGroups);
+        response.setSubjects(config.getSubjectNames());
+        response.setTeachers(config.getTeacherNames());
+
+        Map<Timeslot, Integer> timeslotIndexes = new IdentityHashMap<>();
+        List<CompactTimetableResponse.TimeslotEntry> timeslots = new ArrayList<>(solution.getTimeslotList().size());
+        for (Timeslot timeslot : solution.getTimeslotList()) {
+            timeslotIndexes.put(timeslot, timeslots.size());
+            timeslots.add(new CompactTimetableResponse.TimeslotEntry(timeslot.getDayOfWeek().toString(),
+                timeslot.getStartTime().toString(), timeslot.getEndTime().toString()));
+        }
+        response.setTimeslots(timeslots);
+
+        List<int[]> lessons = new ArrayList<>(solution.getLessonList().size());
+        int[] teacherWorkload = new int[config.getTeacherCount()];
+        for (Lesson lesson : solution.getLessonList()) {
+            if (lesson.getTimeslot() == null) {
+                continue;
+            }
+            int teacherIndex = lesson.getTeacher() != null ? lesson.getTeacherIndex() : -1;
+            if (teacherIndex >= 0) {
+                teacherWorkload[teacherIndex]++;
+            }
+            lessons.add(new int[] {lesson.getStudentGroup().getIndex(), lesson.getSubjectIndex(), teacherIndex,
+                timeslotIndexes.get(lesson.getTimeslot())});
+        }
+        response.setLessons(lessons.toArray(new int[0][]));
+        response.setTeacherWorkload(teacherWorkload);
+
+        response.setUnassignedPeriods(solution.getUnassignedPeriods());
+        response.setDetailedUnassignedPeriods(solution.getDetailedUnassignedPeriods());
+        response.setUnassignedSummary(generateSimpleUnassignedSummary(solution));
+        return response;
+    }
+
+    /**
+     * Compact form of a full response, for jobs answered from the {@link SolutionCache} that have no {@link TimeTable}.
+     * Dictionaries are sorted by name, and only timeslots that hold a lesson are listed.
+     */
+    public CompactTimetableResponse convertToCompactResponse(TimetableResponse fullResponse) {
+        CompactTimetableResponse response = new CompactTimetableResponse();
+        response.setScore(fullResponse.getScore());
+        response.setFeasible(fullResponse.isFeasible());
+        response.setMessage(fullResponse.getMessage());
+
+        Map<String, Map<String, Map<String, Map<String, Object>>>> schedules =
+            fullResponse.getStudentGroupSchedules() != null ? fullResponse.getStudentGroupSchedules() : Map.of();
+        Set<String> subjectNames = new TreeSet<>();
+        Set<String> teacherNames = new TreeSet<>();
+        if (fullResponse.getTeacherWorkloadSummary() != null) {
+            teacherNames.addAll(fullResponse.getTeacherWorkloadSummary().keySet());
+        }
+        Set<List<String>> timeslotKeys = new TreeSet<>(Comparator
+            .comparing((List<String> key) -> DayOfWeek.valueOf(key.get(0)))
+            .thenComparing(key -> key.get(1))
+            .thenComparing(key -> key.get(2)));
+        forEachLesson(schedules, (group, day, lessonInfo) -> {
+            subjectNames.add((String) lessonInfo.get("subject"));
+            if (lessonInfo.get("teacher") != null) {
+                teacherNames.add((String) lessonInfo.get("teacher"));
+            }
+            timeslotKeys.add(List.of(day, (String) lessonInfo.get("startTime"), (String) lessonInfo.get("endTime")));
+        });
+
+        List<String> studentGroups = new ArrayList<>(new TreeSet<>(schedules.keySet()));
+        List<String> subjects = new ArrayList<>(subjectNames);
+        List<String> teachers = new ArrayList<>(teacherNames);
+        List<CompactTimetableResponse.TimeslotEntry> timeslots = new ArrayList<>(timeslotKeys.size());
+        Map<List<String>, Integer> timeslotIndexes = new HashMap<>();
+        for (List<String> key : timeslotKeys) {
+            timeslotIndexes.put(key, timeslots.size());
+            timeslots.add(new CompactTimetableResponse.TimeslotEntry(key.get(0), key.get(1), key.get(2)));
+        }
+        Map<String, Integer> groupIndexes = indexOf(studentGroups);
+        Map<String, Integer> subjectIndexes = indexOf(subjects);
+        Map<String, Integer> teacherIndexes = indexOf(teachers);
+
+        List<int[]> lessons = new ArrayList<>();
+        forEachLesson(schedules, (group, day, lessonInfo) -> lessons.add(new int[] {
+            groupIndexes.get(group),
+            subjectIndexes.get((String) lessonInfo.get("subject")),
+            teacherIndexes.getOrDefault((String) lessonInfo.get("teacher"), -1),
+            timeslotIndexes.get(List.of(day, (String) lessonInfo.get("startTime"), (String) lessonInfo.get("endTime")))}));
+        int[] teacherWorkload = new int[teachers.size()];
+        if (fullResponse.getTeacherWorkloadSummary() != null) {
+            fullResponse.getTeacherWorkloadSummary().forEach((teacher, periods) -> teacherWorkload[teacherIndexes.get(teacher)] = periods);
+        }
+
+        response.setStudentGroups(studentGroups);
+        response.setSubjects(subjects);
+        response.setTeachers(teachers);
+        response.setTimeslots(timeslots);
+        response.setLessons(lessons.toArray(new int[0][]));
+        response.setTeacherWorkload(teacherWorkload);
+        response.setUnassignedPeriods(fullResponse.getUnassignedPeriods());
+        response.setDetailedUnassignedPeriods(fullResponse.getDetailedUnassignedPeriods());
+        response.setUnassignedSummary(fullResponse.getUnassignedSummary());
+        return response;
+    }
+
+    private interface LessonInfoVisitor {
+        void visit(String group, String day, Map<?, ?> lessonInfo);
+    }
+
+    /**
+     * Walks group -> "weekSchedule" -> day -> start time -> lesson info
+     */
+    private static void forEachLesson(Map<String, Map<String, Map<String, Map<String, Object>>>> schedules,
+                                      LessonInfoVisitor visitor) {
+        schedules.forEach((group, classData) ->
+            classData.getOrDefault("weekSchedule", Map.of()).forEach((day, daySchedule) ->
+                daySchedule.values().forEach(lessonInfo -> visitor.visit(group, day, (Map<?, ?>) lessonInfo))));
+    }
+
+    private static Map<String, Integer> indexOf(List<String> names) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            indexes.put(names.get(i), i);
+        }
+        return indexes;
+    }
+
+    private static String message(boolean feasible) {
+        return feasible ? "Timetable generated successfully!"
+            : "Timetable generated but may not satisfy all constraints. Check the score for details.";
+    }
+
+    private Map<String, Integer> calculateTeacherWorkload(TimeTable solution) {
+        Map<String, Integer> workload = new HashMap<>();
+        for (Lesson lesson : solution.getLessonList()) {
+            if (lesson.getTimeslot() != null && lesson.getTeacher() != null) {
+                workload.merge(lesson.getTeacher(), 1, Integer::sum);
+            }
+        }
+        return workload;
+    }
+
+    private Map<String, Object> generateSimpleUnassignedSummary(TimeTable solution) {
+        Map<String, Object> summary = new HashMap<>();
+
+        // Calculate total unassigned periods
+        int totalUnassigned = solution.getUnassignedPeriods().values().stream()
+            .mapToInt(gradeMap -> gradeMap.values().stream().mapToInt(Integer::intValue).sum())
+            .sum();
+
+        summary.put("totalUnassignedPeriods", totalUnassigned);
+        summary.put("affectedGrades", solution.getUnassignedPeriods().keySet().size());
+
+        return summary;
+    }
+}
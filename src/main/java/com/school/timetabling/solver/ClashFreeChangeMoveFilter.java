@@ -0,0 +1,24 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.ChangeMove;
+
+/**
+ * Drops change moves into a timeslot where the lesson's teacher or student group already has a lesson,
+ * before they are scored. Such a move adds a hard clash and is almost never accepted.
+ */
+public class ClashFreeChangeMoveFilter implements SelectionFilter<TimeTable, ChangeMove<TimeTable>> {
+
+    // One filter instance per move selector, which only the solver thread of one working solution uses
+    private LessonPeerIndex peerIndex;
+
+    @Override
+    public boolean accept(ScoreDirector<TimeTable> scoreDirector, ChangeMove<TimeTable> move) {
+        peerIndex = LessonPeerIndex.of(scoreDirector, peerIndex);
+        return !peerIndex.isBusy((Lesson) move.getEntity(), (Timeslot) move.getToPlanningValue(), null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.SwapMove;
+
+/**
+ * Drops swap moves that put either lesson where its teacher or student group already has another lesson.
+ * The other lesson of the swap leaves that timeslot, so it does not count.
+ */
+public class ClashFreeSwapMoveFilter implements SelectionFilter<TimeTable, SwapMove<TimeTable>> {
+
+    // One filter instance per move selector, which only the solver thread of one working solution uses
+    private LessonPeerIndex peerIndex;
+
+    @Override
+    public boolean accept(ScoreDirector<TimeTable> scoreDirector, SwapMove<TimeTable> move) {
+        peerIndex = LessonPeerIndex.of(scoreDirector, peerIndex);
+        Lesson left = (Lesson) move.getLeftEntity();
+        Lesson right = (Lesson) move.getRightEntity();
+        return !peerIndex.isBusy(left, right.getTimeslot(), right) && !peerIndex.isBusy(right, left.getTimeslot(), left);
+    }
+}
@@ -0,0 +1,130 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.StudentGroup;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Day swap moves: every lesson of one student group on day X moves to the same period on day Y and vice versa.
+ * The group's clashes and daily subject counts only change day, so they stay as they are; swaps that would put
+ * a teacher in two places are not generated. Moves a whole day in one step, which takes many change moves
+ * through worse scores otherwise, e.g. to fix where a group's afternoons or gaps fall.
+ */
+public class DaySwapMoveIteratorFactory implements MoveIteratorFactory<TimeTable, LessonTimeslotsMove> {
+
+    static final String MOVE_TYPE = "DaySwapMove";
+
+    // Tries to find a swap without teacher clashes or pinned lessons before giving up on a move
+    private static final int MAX_ATTEMPTS = 10;
+
+    @Override
+    public long getSize(ScoreDirector<TimeTable> scoreDirector) {
+        TimeTable solution = scoreDirector.getWorkingSolution();
+        return (long) solution.getStudentGroupList().size() * solution.getTimeslotList().size();
+    }
+
+    @Override
+    public Iterator<LessonTimeslotsMove> createOriginalMoveIterator(ScoreDirector<TimeTable> scoreDirector) {
+        throw new UnsupportedOperationException("Day swap moves are only selected randomly");
+    }
+
+    @Override
+    public Iterator<LessonTimeslotsMove> createRandomMoveIterator(ScoreDirector<TimeTable> scoreDirector, Random workingRandom) {
+        return new DaySwapMoveIterator(scoreDirector.getWorkingSolution(), workingRandom);
+    }
+
+    private static class DaySwapMoveIterator implements Iterator<LessonTimeslotsMove> {
+
+        private final TimeTable solution;
+        private final Random random;
+        // Built on first use, as a union move selector creates this iterator every step but may not pick from it
+        private TimeslotOccupancy occupancy;
+
+        DaySwapMoveIterator(TimeTable solution, Random random) {
+            this.solution = solution;
+            this.random = random;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+
+        @Override
+        public LessonTimeslotsMove next() {
+            if (occupancy == null) {
+                occupancy = new TimeslotOccupancy(solution);
+            }
+            List<Lesson> lessons = solution.getLessonList();
+            for (int attempt = 0; occupancy.getDayCount() > 1 && attempt < MAX_ATTEMPTS; attempt++) {
+                // A random lesson picks the group and one day, so groups with more lessons are picked more often
+                Lesson lesson = lessons.get(random.nextInt(lessons.size()));
+                if (lesson.getTimeslot() == null) {
+                    continue;
+                }
+                int day = lesson.getTimeslot().getDayIndex();
+                int otherDay = random.nextInt(occupancy.getDayCount() - 1);
+                if (otherDay >= day) {
+                    otherDay++;
+                }
+                LessonTimeslotsMove move = buildSwap(lesson.getStudentGroup(), day, otherDay);
+                if (move != null) {
+                    return move;
+                }
+            }
+            // Not doable, so the solver skips it
+            return new LessonTimeslotsMove(MOVE_TYPE, Collections.emptyList(), Collections.emptyList());
+        }
+
+        /**
+         * @return null if a lesson is pinned, a period is missing on the other day or a teacher would clash
+         */
+        private LessonTimeslotsMove buildSwap(StudentGroup group, int day, int otherDay) {
+            List<Lesson> swapLessons = new ArrayList<>();
+            List<Timeslot> toTimeslots = new ArrayList<>();
+            if (!addDay(group, day, otherDay, swapLessons, toTimeslots)
+                    || !addDay(group, otherDay, day, swapLessons, toTimeslots)) {
+                return null;
+            }
+            for (int i = 0; i < swapLessons.size(); i++) {
+                Lesson lesson = swapLessons.get(i);
+                // Every lesson of the group on both days moves, so only other groups' lessons can clash
+                for (Lesson occupant : occupancy.getLessons(toTimeslots.get(i))) {
+                    if (occupant.getStudentGroup() != group && occupant.getTeacherIndex() == lesson.getTeacherIndex()) {
+                        return null;
+                    }
+                }
+            }
+            return new LessonTimeslotsMove(MOVE_TYPE, swapLessons, toTimeslots);
+        }
+
+        private boolean addDay(StudentGroup group, int fromDay, int toDay, List<Lesson> swapLessons, List<Timeslot> toTimeslots) {
+            for (int period = 0; ; period++) {
+                Timeslot from = occupancy.getTimeslot(fromDay, period);
+                if (from == null) {
+                    return true;
+                }
+                for (Lesson lesson : occupancy.getLessons(from)) {
+                    if (lesson.getStudentGroup() != group) {
+                        continue;
+                    }
+                    Timeslot to = occupancy.getTimeslot(toDay, period);
+                    if (lesson.isPinned() || to == null) {
+                        return false;
+                    }
+                    swapLessons.add(lesson);
+                    toTimeslots.add(to);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Kempe chain moves: a lesson's timeslot A and a random timeslot B are swapped for the lesson and every lesson
+ * connected to it through a shared teacher or student group across A and B. Lessons left behind share nothing
+ * with the chain, so the move never adds a teacher or group clash, where a plain change or swap move usually does
+ * in a tight school. Daily caps and soft constraints are still scored as usual.
+ */
+public class KempeChainMoveIteratorFactory implements MoveIteratorFactory<TimeTable, LessonTimeslotsMove> {
+
+    static final String MOVE_TYPE = "KempeChainMove";
+
+    // Tries to find a chain without pinned lessons before giving up on a move
+    private static final int MAX_ATTEMPTS = 10;
+
+    @Override
+    public long getSize(ScoreDirector<TimeTable> scoreDirector) {
+        TimeTable solution = scoreDirector.getWorkingSolution();
+        return (long) solution.getLessonList().size() * solution.getTimeslotList().size();
+    }
+
+    @Override
+    public Iterator<LessonTimeslotsMove> createOriginalMoveIterator(ScoreDirector<TimeTable> scoreDirector) {
+        throw new UnsupportedOperationException("Kempe chain moves are only selected randomly");
+    }
+
+    @Override
+    public Iterator<LessonTimeslotsMove> createRandomMoveIterator(ScoreDirector<TimeTable> scoreDirector, Random workingRandom) {
+        return new KempeChainMoveIterator(scoreDirector.getWorkingSolution(), workingRandom);
+    }
+
+    private static class KempeChainMoveIterator implements Iterator<LessonTimeslotsMove> {
+
+        private final TimeTable solution;
+        private final Random random;
+        // Built on first use, as a union move selector creates this iterator every step but may not pick from it
+        private TimeslotOccupancy occupancy;
+
+        KempeChainMoveIterator(TimeTable solution, Random random) {
+            this.solution = solution;
+            this.random = random;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+
+        @Override
+        public LessonTimeslotsMove next() {
+            if (occupancy == null) {
+                occupancy = new TimeslotOccupancy(solution);
+            }
+            List<Lesson> lessons = solution.getLessonList();
+            List<Timeslot> timeslots = solution.getTimeslotList();
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                Lesson lesson = lessons.get(random.nextInt(lessons.size()));
+                Timeslot other = timeslots.get(random.nextInt(timeslots.size()));
+                if (lesson.isPinned() || lesson.getTimeslot() == null || lesson.getTimeslot() == other) {
+                    continue;
+                }
+                LessonTimeslotsMove move = buildChain(lesson, lesson.getTimeslot(), other);
+                if (move != null) {
+                    return move;
+                }
+            }
+            // Not doable, so the solver skips it
+            return new LessonTimeslotsMove(MOVE_TYPE, Collections.emptyList(), Collections.emptyList());
+        }
+
+        /**
+         * Breadth-first over lessons of both timeslots that share a teacher or group with a chain lesson in the other one
+         * @return null if the chain contains a pinned lesson
+         */
+        private LessonTimeslotsMove buildChain(Lesson start, Timeslot a, Timeslot b) {
+            Set<Lesson> chain = Collections.newSetFromMap(new IdentityHashMap<>());
+            Deque<Lesson> queue = new ArrayDeque<>();
+            chain.add(start);
+            queue.add(start);
+            List<Lesson> chainLessons = new ArrayList<>();
+            List<Timeslot> toTimeslots = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                Lesson lesson = queue.poll();
+                if (lesson.isPinned()) {
+                    return null;
+                }
+                Timeslot target = lesson.getTimeslot() == a ? b : a;
+                chainLessons.add(lesson);
+                toTimeslots.add(target);
+                for (Lesson neighbour : occupancy.getLessons(target)) {
+                    if (TimeslotOccupancy.shareResource(lesson, neighbour) && chain.add(neighbour)) {
+                        queue.add(neighbour);
+                    }
+                }
+            }
+            return new LessonTimeslotsMove(MOVE_TYPE, chainLessons, toTimeslots);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * The lessons of each teacher and student group, so checking whether a timeslot is busy for a lesson only
+ * reads the timeslots of its peers (a teacher week or a class week) instead of scoring the move.
+ * Which lessons a teacher or group has never changes during a solve; their timeslots are read live,
+ * so unlike {@link TimeslotOccupancy} the index is valid for the whole solve of one working solution.
+ * Also holds the timeslots by day and period.
+ */
+class LessonPeerIndex {
+
+    private final TimeTable solution;
+    private final Lesson[][] lessonsByTeacher;
+    private final Lesson[][] lessonsByGroup;
+    private final Timeslot[][] timeslotGrid;
+
+    private LessonPeerIndex(TimeTable solution) {
+        this.solution = solution;
+        int teacherCount = 0;
+        for (Lesson lesson : solution.getLessonList()) {
+            teacherCount = Math.max(teacherCount, lesson.getTeacherIndex() + 1);
+        }
+        lessonsByTeacher = group(solution.getLessonList(), teacherCount, Lesson::getTeacherIndex);
+        lessonsByGroup = group(solution.getLessonList(), solution.getStudentGroupList().size(),
+                lesson -> lesson.getStudentGroup().getIndex());
+        timeslotGrid = TimeslotOccupancy.timeslotGrid(solution.getTimeslotList());
+    }
+
+    /**
+     * The index of the score director's working solution, reusing {@code cached} while it is the same solution
+     */
+    static LessonPeerIndex of(ScoreDirector<TimeTable> scoreDirector, LessonPeerIndex cached) {
+        TimeTable solution = scoreDirector.getWorkingSolution();
+        return cached != null && cached.solution == solution ? cached : new LessonPeerIndex(solution);
+    }
+
+    /**
+     * Whether another lesson of the same teacher or student group is in the timeslot
+     * @param ignored a lesson that leaves the timeslot in the same move, or null
+     */
+    boolean isBusy(Lesson lesson, Timeslot timeslot, Lesson ignored) {
+        return isBusy(lessonsByTeacher[lesson.getTeacherIndex()], lesson, timeslot, ignored)
+                || isBusy(lessonsByGroup[lesson.getStudentGroup().getIndex()], lesson, timeslot, ignored);
+    }
+
+    /**
+     * @return null if the day has no such period
+     */
+    Timeslot getTimeslot(int dayIndex, int periodIndex) {
+        Timeslot[] day = timeslotGrid[dayIndex];
+        return periodIndex >= 0 && periodIndex < day.length ? day[periodIndex] : null;
+    }
+
+    int getDayCount() {
+        return timeslotGrid.length;
+    }
+
+    int getPeriodCount() {
+        return timeslotGrid.length == 0 ? 0 : timeslotGrid[0].length;
+    }
+
+    private static boolean isBusy(Lesson[] peers, Lesson lesson, Timeslot timeslot, Lesson ignored) {
+        for (Lesson peer : peers) {
+            if (peer.getTimeslot() == timeslot && peer != lesson && peer != ignored) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Lesson[][] group(List<Lesson> lessons, int keyCount, ToIntFunction<Lesson> key) {
+        List<List<Lesson>> grouped = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            grouped.add(new ArrayList<>());
+        }
+        for (Lesson lesson : lessons) {
+            grouped.get(key.applyAsInt(lesson)).add(lesson);
+        }
+        Lesson[][] result = new Lesson[keyCount][];
+        for (int i = 0; i < keyCount; i++) {
+            result[i] = grouped.get(i).toArray(new Lesson[0]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.move.AbstractMove;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Moves several lessons to new timeslots at once. Kempe chain and day swap moves are both a set of
+ * lessons with their target timeslots; {@code moveType} tells them apart in logs and tabu search.
+ */
+public class LessonTimeslotsMove extends AbstractMove<TimeTable> {
+
+    private final String moveType;
+    private final List<Lesson> lessons;
+    private final List<Timeslot> toTimeslots;
+
+    public LessonTimeslotsMove(String moveType, List<Lesson> lessons, List<Timeslot> toTimeslots) {
+        this.moveType = moveType;
+        this.lessons = lessons;
+        this.toTimeslots = toTimeslots;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector<TimeTable> scoreDirector) {
+        for (int i = 0; i < lessons.size(); i++) {
+            if (lessons.get(i).getTimeslot() != toTimeslots.get(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected LessonTimeslotsMove createUndoMove(ScoreDirector<TimeTable> scoreDirector) {
+        List<Timeslot> fromTimeslots = new ArrayList<>(lessons.size());
+        for (Lesson lesson : lessons) {
+            fromTimeslots.add(lesson.getTimeslot());
+        }
+        return new LessonTimeslotsMove(moveType, lessons, fromTimeslots);
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector<TimeTable> scoreDirector) {
+        for (int i = 0; i < lessons.size(); i++) {
+            Lesson lesson = lessons.get(i);
+            scoreDirector.beforeVariableChanged(lesson, "timeslot");
+            lesson.setTimeslot(toTimeslots.get(i));
+            scoreDirector.afterVariableChanged(lesson, "timeslot");
+        }
+    }
+
+    @Override
+    public LessonTimeslotsMove rebase(ScoreDirector<TimeTable> destinationScoreDirector) {
+        return new LessonTimeslotsMove(moveType, rebaseList(lessons, destinationScoreDirector),
+                rebaseList(toTimeslots, destinationScoreDirector));
+    }
+
+    @Override
+    public String getSimpleMoveTypeDescription() {
+        return moveType + "(Lesson.timeslot)";
+    }
+
+    @Override
+    public Collection<Lesson> getPlanningEntities() {
+        return lessons;
+    }
+
+    @Override
+    public Collection<Timeslot> getPlanningValues() {
+        return new LinkedHashSet<>(toTimeslots);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(moveType).append(" {");
+        for (int i = 0; i < lessons.size(); i++) {
+            builder.append(i == 0 ? "" : ", ").append(lessons.get(i)).append(" -> ").append(toTimeslots.get(i).getId());
+        }
+        return builder.append("}").toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Change moves to a timeslot near the lesson's current one: mostly the period before or after it when no break
+ * separates them ({@link Timeslot#isAdjacentTo}), else another period of the same day or the same period of another day. Small shifts keep the rest of the day in place,
+ * so they fix gaps and afternoon lessons without undoing the week. Targets where the teacher or student group
+ * is busy are skipped, as in {@link ClashFreeChangeMoveFilter}.
+ * OptaPlanner's nearby selection caches distances per phase, so it cannot measure from a timeslot that
+ * changes every step; this samples the distance from the current timeslot instead.
+ */
+public class NearbyChangeMoveIteratorFactory implements MoveIteratorFactory<TimeTable, LessonTimeslotsMove> {
+
+    static final String MOVE_TYPE = "NearbyChangeMove";
+
+    // Chance of each kind of target; the same period on another day takes the rest
+    private static final double ADJACENT_PERIOD_PROBABILITY = 0.5;
+    private static final double SAME_DAY_PROBABILITY = 0.3;
+
+    // Tries to find a free nearby timeslot before giving up on a move
+    private static final int MAX_ATTEMPTS = 10;
+
+    private LessonPeerIndex peerIndex;
+
+    @Override
+    public long getSize(ScoreDirector<TimeTable> scoreDirector) {
+        TimeTable solution = scoreDirector.getWorkingSolution();
+        return (long) solution.getLessonList().size() * solution.getTimeslotList().size();
+    }
+
+    @Override
+    public Iterator<LessonTimeslotsMove> createOriginalMoveIterator(ScoreDirector<TimeTable> scoreDirector) {
+        throw new UnsupportedOperationException("Nearby change moves are only selected randomly");
+    }
+
+    @Override
+    public Iterator<LessonTimeslotsMove> createRandomMoveIterator(ScoreDirector<TimeTable> scoreDirector, Random workingRandom) {
+        peerIndex = LessonPeerIndex.of(scoreDirector, peerIndex);
+        return new NearbyChangeMoveIterator(scoreDirector.getWorkingSolution(), peerIndex, workingRandom);
+    }
+
+    private static class NearbyChangeMoveIterator implements Iterator<LessonTimeslotsMove> {
+
+        private final TimeTable solution;
+        private final LessonPeerIndex peerIndex;
+        private final Random random;
+
+        NearbyChangeMoveIterator(TimeTable solution, LessonPeerIndex peerIndex, Random random) {
+            this.solution = solution;
+            this.peerIndex = peerIndex;
+            this.random = random;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+
+        @Override
+        public LessonTimeslotsMove next() {
+            List<Lesson> lessons = solution.getLessonList();
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                Lesson lesson = lessons.get(random.nextInt(lessons.size()));
+                Timeslot from = lesson.getTimeslot();
+                if (lesson.isPinned() || from == null) {
+                    continue;
+                }
+                Timeslot to = nearbyTimeslot(from);
+                if (to != null && to != from && !peerIndex.isBusy(lesson, to, null)) {
+                    return new LessonTimeslotsMove(MOVE_TYPE, List.of(lesson), List.of(to));
+                }
+            }
+            // Not doable, so the solver skips it
+            return new LessonTimeslotsMove(MOVE_TYPE, Collections.emptyList(), Collections.emptyList());
+        }
+
+        /**
+         * @return null if the drawn period does not exist, or is across a break for an adjacent period
+         */
+        private Timeslot nearbyTimeslot(Timeslot from) {
+            int day = from.getDayIndex();
+            int period = from.getPeriodIndex();
+            double kind = random.nextDouble();
+            if (kind < ADJACENT_PERIOD_PROBABILITY) {
+                Timeslot adjacent = peerIndex.getTimeslot(day, random.nextBoolean() ? period - 1 : period + 1);
+                return adjacent != null && from.isAdjacentTo(adjacent) ? adjacent : null;
+            }
+            if (kind < ADJACENT_PERIOD_PROBABILITY + SAME_DAY_PROBABILITY) {
+                return peerIndex.getTimeslot(day, random.nextInt(peerIndex.getPeriodCount()));
+            }
+            return peerIndex.getTimeslot(random.nextInt(peerIndex.getDayCount()), period);
+        }
+    }
+}
@@ -1,116 +1,104 @@
 package com.school.timetabling.solver;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.List;
+import java.util.Set;
 
 /**
- * Global configuration class to store constraint parameters from the request.
- * This allows the constraint provider to access dynamic values instead of hard-coded ones.
- * Uses global static variables instead of ThreadLocal to work with OptaPlanner's multi-threading.
+ * Constraint parameters taken from a single request.
+ * Stored on the TimeTable as a problem fact, so each solve carries its own limits
+ * and concurrent solves can no longer overwrite each other's values.
+ * Teachers, subjects and grades are interned to dense int indexes when the problem is built,
+ * so constraints key on ints and read the limit table without hashing or locking.
+ * Instances are immutable once built and are shared by all clones of the solution.
  */
 public class TimeTableConstraintConfig {
-    
-    // Use global static variables with synchronization instead of ThreadLocal
-    private static volatile Map<String, Map<String, Integer>> maxPeriodsPerDayConfig = new HashMap<>();
-    private static volatile Integer maxPeriodsPerTeacher = 20;
-    
-    // ReadWrite lock for thread safety
-    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    
+
+    public static final int DEFAULT_MAX_PERIODS_PER_DAY = 1;
+
+    // Subjects preferred in the morning periods
+    private static final Set<String> CORE_SUBJECTS = Set.of("Mathematics", "English", "Science", "Sinhala");
+
+    private final List<String> teacherNames;
+    private final List<String> subjectNames;
+    private final List<String> gradeNames;
+    private final int[] maxPeriodsPerDayBySubjectGrade; // index: subjectIndex * gradeCount + gradeIndex
+    private final boolean[] coreSubjects; // index: subjectIndex
+    private final int maxPeriodsPerTeacher;
+
     /**
-     * Set the constraint configuration from the request
-     * @param subjectGradeMaxPeriods Map of subject -> grade -> maxPeriodsPerDay from request
+     * @param teacherNames Teacher names by teacher index
+     * @param subjectNames Subject names by subject index
+     * @param gradeNames Grade names by grade index
+     * @param maxPeriodsPerDayBySubjectGrade maxPeriodsPerDay from request, flattened subject-major
      * @param teacherMaxPeriods Maximum periods per teacher per week from request
      */
-    public static void setConfiguration(Map<String, Map<String, Integer>> subjectGradeMaxPeriods, 
-                                      int teacherMaxPeriods) {
-        lock.writeLock().lock();
-        try {
-            // Create a defensive copy to ensure thread safety
-            Map<String, Map<String, Integer>> configCopy = new HashMap<>();
-            for (Map.Entry<String, Map<String, Integer>> entry : subjectGradeMaxPeriods.entrySet()) {
-                configCopy.put(entry.getKey(), new HashMap<>(entry.getValue()));
-            }
-            
-            maxPeriodsPerDayConfig = configCopy;
-            maxPeriodsPerTeacher = teacherMaxPeriods;
-            
-        } finally {
-            lock.writeLock().unlock();
+    public TimeTableConstraintConfig(List<String> teacherNames, List<String> subjectNames, List<String> gradeNames,
+                                     int[] maxPeriodsPerDayBySubjectGrade, int teacherMaxPeriods) {
+        if (maxPeriodsPerDayBySubjectGrade.length != subjectNames.size() * gradeNames.size()) {
+            throw new IllegalArgumentException("Limit table size (" + maxPeriodsPerDayBySubjectGrade.length
+                    + ") does not match " + subjectNames.size() + " subjects x " + gradeNames.size() + " grades");
+        }
+        this.teacherNames = List.copyOf(teacherNames);
+        this.subjectNames = List.copyOf(subjectNames);
+        this.gradeNames = List.copyOf(gradeNames);
+        this.maxPeriodsPerDayBySubjectGrade = maxPeriodsPerDayBySubjectGrade.clone();
+        this.maxPeriodsPerTeacher = teacherMaxPeriods;
+        this.coreSubjects = new boolean[subjectNames.size()];
+        for (int i = 0; i < coreSubjects.length; i++) {
+            coreSubjects[i] = CORE_SUBJECTS.contains(subjectNames.get(i));
         }
     }
-    
+
     /**
      * Get maximum periods per day for a subject and grade
-     * @param subject Subject name
-     * @param grade Grade name
+     * @param subjectIndex Dense subject index
+     * @param gradeIndex Dense grade index
      * @return Maximum periods per day from request, default 1 if not configured
      */
-    public static int getMaxPeriodsPerDay(String subject, String grade) {
-        lock.readLock().lock();
-        try {
-            Map<String, Map<String, Integer>> config = maxPeriodsPerDayConfig;
-            
-            if (config != null && !config.isEmpty()) {
-                if (config.containsKey(subject)) {
-                    Map<String, Integer> gradeMap = config.get(subject);
-                    if (gradeMap.containsKey(grade)) {
-                        return gradeMap.get(grade);
-                    }
-                }
-            }
-            
-            return 1;
-        } finally {
-            lock.readLock().unlock();
-        }
+    public int getMaxPeriodsPerDay(int subjectIndex, int gradeIndex) {
+        return maxPeriodsPerDayBySubjectGrade[subjectIndex * gradeNames.size() + gradeIndex];
     }
-    
+
     /**
-     * Get maximum periods per teacher per week
-     * @return Maximum periods per teacher from request
+     * Check if a subject should be taught in the morning periods
+     * @param subjectIndex Dense subject index
+     * @return true for Mathematics, English, Science and Sinhala
      */
-    public static int getMaxPeriodsPerTeacher() {
-        lock.readLock().lock();
-        try {
-            Integer maxPeriods = maxPeriodsPerTeacher;
-            
-            if (maxPeriods == null) {
-                return 20;
-            }
-            
-            return maxPeriods;
-        } finally {
-            lock.readLock().unlock();
-        }
+    public boolean isCoreSubject(int subjectIndex) {
+        return coreSubjects[subjectIndex];
     }
-    
+
     /**
-     * Clear the configuration (useful for cleanup)
+     * Get maximum periods per teacher per week
+     * @return Maximum periods per teacher from request
      */
-    public static void clearConfiguration() {
-        lock.writeLock().lock();
-        try {
-            maxPeriodsPerDayConfig = new HashMap<>();
-            maxPeriodsPerTeacher = 20;
-        } finally {
-            lock.writeLock().unlock();
-        }
+    public int getMaxPeriodsPerTeacher() {
+        return maxPeriodsPerTeacher;
     }
-    
+
+    public int getTeacherCount() { return teacherNames.size(); }
+
+    public int getSubjectCount() { return subjectNames.size(); }
+
+    public int getGradeCount() { return gradeNames.size(); }
+
+    public String getTeacherName(int teacherIndex) { return teacherNames.get(teacherIndex); }
+
+    public String getSubjectName(int subjectIndex) { return subjectNames.get(subjectIndex); }
+
+    public String getGradeName(int gradeIndex) { return gradeNames.get(gradeIndex); }
+
+    public List<String> getTeacherNames() { return teacherNames; }
+
+    public List<String> getSubjectNames() { return subjectNames; }
+
+    public List<String> getGradeNames() { return gradeNames; }
+
     /**
      * Check if configuration has been set
-     * @return true if configuration is available
+     * @return true if per-subject limits are available
      */
-    public static boolean isConfigured() {
-        lock.readLock().lock();
-        try {
-            Map<String, Map<String, Integer>> config = maxPeriodsPerDayConfig;
-            Integer teacherMax = maxPeriodsPerTeacher;
-            return config != null && !config.isEmpty() && teacherMax != null;
-        } finally {
-            lock.readLock().unlock();
-        }
+    public boolean isConfigured() {
+        return maxPeriodsPerDayBySubjectGrade.length > 0;
     }
 }
@@ -7,19 +7,28 @@ import org.optaplanner.core.api.score.stream.ConstraintFactory;
 import org.optaplanner.core.api.score.stream.ConstraintProvider;
 import org.optaplanner.core.api.score.stream.Joiners;
 
-import java.time.Duration;
-import java.time.LocalTime;
+import java.util.List;
 
+import static org.optaplanner.core.api.score.stream.ConstraintCollectors.compose;
 import static org.optaplanner.core.api.score.stream.ConstraintCollectors.count;
-import static org.optaplanner.core.api.score.stream.Joiners.equal;
-import static org.optaplanner.core.api.score.stream.Joiners.lessThan;
+import static org.optaplanner.core.api.score.stream.ConstraintCollectors.countDistinct;
+import static org.optaplanner.core.api.score.stream.ConstraintCollectors.max;
+import static org.optaplanner.core.api.score.stream.ConstraintCollectors.min;
 
+/**
+ * Score analysis indicts lessons, student groups, or teachers by name: grouped constraints
+ * indict the group or teacher they were grouped by instead of their index keys.
+ */
 public class TimeTableConstraintProvider implements ConstraintProvider {
 
+    // Soft penalty per lesson moved away from its previous timeslot in a repair solve.
+    // Larger than a single gap or afternoon penalty, so lessons only move to fix more than that.
+    static final int MOVED_LESSON_PENALTY = 10;
+
     private Constraint teacherConflict(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEachUniquePair(Lesson.class,
-                        Joiners.equal(Lesson::getTeacher),
+                        Joiners.equal(Lesson::getTeacherIndex),
                         Joiners.equal(Lesson::getTimeslot))
                 .penalize(HardSoftScore.ONE_HARD)
                 .asConstraint("Teacher conflict");
@@ -40,42 +49,34 @@ public class TimeTableConstraintProvider implements ConstraintProvider {
                 .filter(lesson -> lesson.getTimeslot() != null) // Only consider assigned lessons
                 .groupBy(
                     Lesson::getStudentGroup, 
-                    Lesson::getSubject, 
-                    lesson -> lesson.getTimeslot().getDayOfWeek(), 
-                    count()
+                    Lesson::getSubjectIndex, 
+                    lesson -> lesson.getTimeslot().getDayIndex(), 
+                    // Every lesson of a subject and group carries the same daily cap from the solve's config
+                    compose(count(), max(Lesson::getMaxPeriodsPerDay),
+                            (lessonCount, maxPeriodsPerDay) -> lessonCount - maxPeriodsPerDay)
                 )
-                .filter((studentGroup, subject, dayOfWeek, lessonCount) -> {
-                    // Get maxPeriodsPerDay from configuration
-                    int maxPeriodsPerDay = TimeTableConstraintConfig.getMaxPeriodsPerDay(subject, studentGroup.getGrade());
-                    boolean violates = lessonCount > maxPeriodsPerDay;
-                    
-                    return violates;
-                })
+                .filter((studentGroup, subject, dayOfWeek, excess) -> excess > 0)
                 .penalize(HardSoftScore.ONE_HARD,
-                        (studentGroup, subject, dayOfWeek, lessonCount) -> {
-                            int maxPeriodsPerDay = TimeTableConstraintConfig.getMaxPeriodsPerDay(subject, studentGroup.getGrade());
-                            int violation = lessonCount - maxPeriodsPerDay;
-                            return violation;
-                        })
+                        (studentGroup, subject, dayOfWeek, excess) -> excess)
+                .indictWith((studentGroup, subject, dayOfWeek, excess) -> List.of(studentGroup))
                 .asConstraint("Max periods per day per subject");
     }
 
     public Constraint teacherWorkloadLimit(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(Lesson.class)
-                .filter(lesson -> lesson.getTeacher() != null) // Only count assigned lessons
-                .groupBy(Lesson::getTeacher, count())
-                .filter((teacher, lessonCount) -> {
-                    int maxPeriodsPerTeacher = TimeTableConstraintConfig.getMaxPeriodsPerTeacher();
-                    return lessonCount > maxPeriodsPerTeacher;
-                })
+                // Only lessons with a timeslot count, as forEach skips the rest and the incremental calculator does too
+                .filter(lesson -> lesson.getTimeslot() != null && lesson.getTeacher() != null)
+                .groupBy(Lesson::getTeacherIndex, count())
+                .join(TimeTableConstraintConfig.class)
+                .filter((teacher, lessonCount, config) -> lessonCount > config.getMaxPeriodsPerTeacher())
                 .penalize(HardSoftScore.ONE_HARD,
-                    (teacher, lessonCount) -> {
-                        int maxPeriodsPerTeacher = TimeTableConstraintConfig.getMaxPeriodsPerTeacher();
-                        int excess = lessonCount - maxPeriodsPerTeacher;
+                    (teacher, lessonCount, config) -> {
+                        int excess = lessonCount - config.getMaxPeriodsPerTeacher();
 
                         return excess;
                     })
+                .indictWith((teacher, lessonCount, config) -> List.of(config.getTeacherName(teacher)))
                 .asConstraint("Teacher workload limit");
     }
 
@@ -101,7 +102,8 @@ public class TimeTableConstraintProvider implements ConstraintProvider {
             teacherWorkloadBalance(constraintFactory),
             minimizeGapsInDailySchedule(constraintFactory),
             preferMorningPeriodsForCoreSubjects(constraintFactory),
-            distributeSubjectsEvenly(constraintFactory)
+            distributeSubjectsEvenly(constraintFactory),
+            minimizeMovedLessons(constraintFactory)
         };
     }
 
@@ -109,42 +111,45 @@ public class TimeTableConstraintProvider implements ConstraintProvider {
     private Constraint teacherWorkloadBalance(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Lesson.class)
             .filter(lesson -> lesson.getTimeslot() != null && lesson.getTeacher() != null)
-            .groupBy(Lesson::getTeacher, count())
+            .groupBy(Lesson::getTeacherIndex, count())
+            .join(TimeTableConstraintConfig.class)
             .penalize(HardSoftScore.ONE_SOFT, 
-                (teacher, lessonCount) -> {
+                (teacher, lessonCount, config) -> {
                     // Penalize deviation from average workload
-                    int maxWorkload = TimeTableConstraintConfig.getMaxPeriodsPerTeacher();
+                    int maxWorkload = config.getMaxPeriodsPerTeacher();
                     int averageWorkload = maxWorkload / 2;
                     return Math.abs(lessonCount - averageWorkload);
                 })
+            .indictWith((teacher, lessonCount, config) -> List.of(config.getTeacherName(teacher)))
             .asConstraint("Teacher workload balance");
     }
     
     private Constraint minimizeGapsInDailySchedule(ConstraintFactory constraintFactory) {
+        // Idle periods between a group's first and last lesson of the day: span minus occupied periods.
+        // Linear in lessons per day, unlike joining every pair of lessons.
         return constraintFactory.forEach(Lesson.class)
             .filter(lesson -> lesson.getTimeslot() != null)
-            .join(Lesson.class,
-                equal(Lesson::getStudentGroup),
-                equal(lesson -> lesson.getTimeslot().getDayOfWeek()),
-                lessThan(lesson -> lesson.getTimeslot().getStartTime()))
+            .groupBy(Lesson::getStudentGroup,
+                lesson -> lesson.getTimeslot().getDayIndex(),
+                compose(
+                    min((Lesson lesson) -> lesson.getTimeslot().getPeriodIndex()),
+                    max((Lesson lesson) -> lesson.getTimeslot().getPeriodIndex()),
+                    countDistinct((Lesson lesson) -> lesson.getTimeslot().getPeriodIndex()),
+                    (firstPeriod, lastPeriod, occupiedPeriods) -> lastPeriod - firstPeriod + 1 - occupiedPeriods))
+            .filter((studentGroup, day, idlePeriods) -> idlePeriods > 0)
             .penalize(HardSoftScore.ONE_SOFT,
-                (lesson1, lesson2) -> {
-                    // Calculate time gap and penalize larger gaps
-                    Duration gap = Duration.between(
-                        lesson1.getTimeslot().getEndTime(),
-                        lesson2.getTimeslot().getStartTime()
-                    );
-                    return (int) gap.toMinutes() / 10; // Penalize 10-minute gaps
-                })
+                (studentGroup, day, idlePeriods) -> idlePeriods)
+            .indictWith((studentGroup, day, idlePeriods) -> List.of(studentGroup))
             .asConstraint("Minimize gaps in daily schedule");
     }
     
     private Constraint preferMorningPeriodsForCoreSubjects(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Lesson.class)
-            .filter(lesson -> lesson.getTimeslot() != null)
-            .filter(lesson -> isCoreSubject(lesson.getSubject()))
-            .filter(lesson -> lesson.getTimeslot().getStartTime().isAfter(LocalTime.of(11, 0)))
+            .filter(lesson -> lesson.getTimeslot() != null && !lesson.getTimeslot().isMorning())
+            .join(TimeTableConstraintConfig.class)
+            .filter((lesson, config) -> config.isCoreSubject(lesson.getSubjectIndex()))
             .penalize(HardSoftScore.ONE_SOFT)
+            .indictWith((lesson, config) -> List.of(lesson))
             .asConstraint("Prefer morning periods for core subjects");
     }
     
@@ -152,19 +157,21 @@ public class TimeTableConstraintProvider implements ConstraintProvider {
         return constraintFactory.forEach(Lesson.class)
             .filter(lesson -> lesson.getTimeslot() != null)
             .groupBy(Lesson::getStudentGroup, 
-                    lesson -> lesson.getTimeslot().getDayOfWeek(),
-                    Lesson::getSubject,
+                    lesson -> lesson.getTimeslot().getDayIndex(),
+                    Lesson::getSubjectIndex,
                     count())
             .filter((studentGroup, day, subject, count) -> count > 2)
             .penalize(HardSoftScore.ONE_SOFT, 
                 (studentGroup, day, subject, count) -> count - 2)
+            .indictWith((studentGroup, day, subject, count) -> List.of(studentGroup))
             .asConstraint("Distribute subjects evenly across days");
     }
     
-    private boolean isCoreSubject(String subject) {
-        return subject.equals("Mathematics") || 
-               subject.equals("English") || 
-               subject.equals("Science") ||
-               subject.equals("Sinhala");
+    private Constraint minimizeMovedLessons(ConstraintFactory constraintFactory) {
+        return constraintFactory.forEach(Lesson.class)
+            .filter(lesson -> lesson.getOriginalTimeslot() != null)
+            .filter(lesson -> lesson.getTimeslot() != lesson.getOriginalTimeslot())
+            .penalize(HardSoftScore.ONE_SOFT, lesson -> MOVED_LESSON_PENALTY)
+            .asConstraint("Minimize moved lessons");
     }
 }
@@ -0,0 +1,258 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.calculator.IncrementalScoreCalculator;
+
+import java.util.List;
+
+/**
+ * Incremental alternative to {@link TimeTableConstraintProvider}, selected with
+ * {@code timetabling.solver.score-calculator=incremental}.
+ * Keeps primitive occupancy arrays indexed by the dense ids assigned in the problem builder,
+ * so a {@code Lesson.timeslot} change only touches the counters of that lesson.
+ * Every constraint here must score exactly like its constraint stream counterpart.
+ */
+public class TimeTableIncrementalScoreCalculator implements IncrementalScoreCalculator<TimeTable, HardSoftScore> {
+
+    private int timeslotCount;
+    private int subjectCount;
+    private int dayCount;
+    private int periodCount;
+    private int maxPeriodsPerTeacher;
+
+    // Per timeslot, indexed by Timeslot id (ids are the timeslot list positions set by the problem builder)
+    private int[] timeslotDay;
+    private int[] timeslotPeriod;
+    private boolean[] timeslotAfterMorning;
+    private boolean[] coreSubject;
+
+    private int[] teacherTimeslotCount;   // teacher x timeslot
+    private int[] groupTimeslotCount;     // group x timeslot
+    private int[] groupSubjectDayCount;   // group x subject x day
+    private int[] teacherLoad;            // teacher
+    private int[] groupDayPeriodCount;    // group x day x period
+    private int[] groupDayIdlePeriods;    // group x day, current gap penalty
+
+    private int hardScore;
+    private int softScore;
+
+    @Override
+    public void resetWorkingSolution(TimeTable workingSolution) {
+        TimeTableConstraintConfig config = workingSolution.getConstraintConfig();
+        List<Timeslot> timeslotList = workingSolution.getTimeslotList();
+        int teacherCount = config.getTeacherCount();
+        int groupCount = workingSolution.getStudentGroupList().size();
+
+        timeslotCount = timeslotList.size();
+        subjectCount = config.getSubjectCount();
+        maxPeriodsPerTeacher = config.getMaxPeriodsPerTeacher();
+
+        timeslotDay = new int[timeslotCount];
+        timeslotPeriod = new int[timeslotCount];
+        timeslotAfterMorning = new boolean[timeslotCount];
+        dayCount = 0;
+        periodCount = 0;
+        for (Timeslot timeslot : timeslotList) {
+            int index = timeslotIndex(timeslot);
+            timeslotDay[index] = timeslot.getDayIndex();
+            timeslotPeriod[index] = timeslot.getPeriodIndex();
+            timeslotAfterMorning[index] = !timeslot.isMorning();
+            dayCount = Math.max(dayCount, timeslot.getDayIndex() + 1);
+            periodCount = Math.max(periodCount, timeslot.getPeriodIndex() + 1);
+        }
+        coreSubject = new boolean[subjectCount];
+        for (int i = 0; i < subjectCount; i++) {
+            coreSubject[i] = config.isCoreSubject(i);
+        }
+
+        teacherTimeslotCount = new int[teacherCount * timeslotCount];
+        groupTimeslotCount = new int[groupCount * timeslotCount];
+        groupSubjectDayCount = new int[groupCount * subjectCount * dayCount];
+        teacherLoad = new int[teacherCount];
+        groupDayPeriodCount = new int[groupCount * dayCount * periodCount];
+        groupDayIdlePeriods = new int[groupCount * dayCount];
+
+        hardScore = 0;
+        softScore = 0;
+        for (Lesson lesson : workingSolution.getLessonList()) {
+            insert(lesson);
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(Object entity) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(Object entity) {
+        insert((Lesson) entity);
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+        retract((Lesson) entity);
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+        insert((Lesson) entity);
+    }
+
+    @Override
+    public void beforeEntityRemoved(Object entity) {
+        retract((Lesson) entity);
+    }
+
+    @Override
+    public void afterEntityRemoved(Object entity) {
+        // Do nothing
+    }
+
+    private void insert(Lesson lesson) {
+        Timeslot timeslot = lesson.getTimeslot();
+        if (timeslot == null) {
+            return;
+        }
+        int timeslotIndex = timeslotIndex(timeslot);
+        int groupIndex = lesson.getStudentGroup().getIndex();
+        int teacherIndex = lesson.getTeacherIndex();
+        int day = timeslotDay[timeslotIndex];
+
+        // Student group conflict: every new lesson in a slot pairs with those already there
+        int groupSlot = groupIndex * timeslotCount + timeslotIndex;
+        hardScore -= groupTimeslotCount[groupSlot];
+        groupTimeslotCount[groupSlot]++;
+
+        if (teacherIndex >= 0) {
+            // Teacher conflict
+            int teacherSlot = teacherIndex * timeslotCount + timeslotIndex;
+            hardScore -= teacherTimeslotCount[teacherSlot];
+            teacherTimeslotCount[teacherSlot]++;
+
+            // Teacher workload limit and balance
+            int load = teacherLoad[teacherIndex];
+            hardScore -= workloadExcess(load + 1) - workloadExcess(load);
+            softScore -= workloadImbalance(load + 1) - workloadImbalance(load);
+            teacherLoad[teacherIndex] = load + 1;
+        }
+
+        // Max periods per day per subject and even subject distribution
+        int groupSubjectDay = (groupIndex * subjectCount + lesson.getSubjectIndex()) * dayCount + day;
+        int count = groupSubjectDayCount[groupSubjectDay];
+        hardScore -= excess(count + 1, lesson.getMaxPeriodsPerDay()) - excess(count, lesson.getMaxPeriodsPerDay());
+        softScore -= excess(count + 1, 2) - excess(count, 2);
+        groupSubjectDayCount[groupSubjectDay] = count + 1;
+
+        // Gaps in daily schedule
+        int groupDay = groupIndex * dayCount + day;
+        groupDayPeriodCount[groupDay * periodCount + timeslotPeriod[timeslotIndex]]++;
+        updateIdlePeriods(groupDay);
+
+        // Prefer morning periods for core subjects
+        if (timeslotAfterMorning[timeslotIndex] && coreSubject[lesson.getSubjectIndex()]) {
+            softScore--;
+        }
+
+        // Minimize moved lessons (repair solves only)
+        if (isMoved(lesson)) {
+            softScore -= TimeTableConstraintProvider.MOVED_LESSON_PENALTY;
+        }
+    }
+
+    private void retract(Lesson lesson) {
+        Timeslot timeslot = lesson.getTimeslot();
+        if (timeslot == null) {
+            return;
+        }
+        int timeslotIndex = timeslotIndex(timeslot);
+        int groupIndex = lesson.getStudentGroup().getIndex();
+        int teacherIndex = lesson.getTeacherIndex();
+        int day = timeslotDay[timeslotIndex];
+
+        int groupSlot = groupIndex * timeslotCount + timeslotIndex;
+        groupTimeslotCount[groupSlot]--;
+        hardScore += groupTimeslotCount[groupSlot];
+
+        if (teacherIndex >= 0) {
+            int teacherSlot = teacherIndex * timeslotCount + timeslotIndex;
+            teacherTimeslotCount[teacherSlot]--;
+            hardScore += teacherTimeslotCount[teacherSlot];
+
+            int load = teacherLoad[teacherIndex];
+            hardScore += workloadExcess(load) - workloadExcess(load - 1);
+            softScore += workloadImbalance(load) - workloadImbalance(load - 1);
+            teacherLoad[teacherIndex] = load - 1;
+        }
+
+        int groupSubjectDay = (groupIndex * subjectCount + lesson.getSubjectIndex()) * dayCount + day;
+        int count = groupSubjectDayCount[groupSubjectDay];
+        hardScore += excess(count, lesson.getMaxPeriodsPerDay()) - excess(count - 1, lesson.getMaxPeriodsPerDay());
+        softScore += excess(count, 2) - excess(count - 1, 2);
+        groupSubjectDayCount[groupSubjectDay] = count - 1;
+
+        int groupDay = groupIndex * dayCount + day;
+        groupDayPeriodCount[groupDay * periodCount + timeslotPeriod[timeslotIndex]]--;
+        updateIdlePeriods(groupDay);
+
+        if (timeslotAfterMorning[timeslotIndex] && coreSubject[lesson.getSubjectIndex()]) {
+            softScore++;
+        }
+
+        if (isMoved(lesson)) {
+            softScore += TimeTableConstraintProvider.MOVED_LESSON_PENALTY;
+        }
+    }
+
+    private static boolean isMoved(Lesson lesson) {
+        return lesson.getOriginalTimeslot() != null && lesson.getTimeslot() != lesson.getOriginalTimeslot();
+    }
+
+    /**
+     * Recomputes the idle periods between the first and last lesson of a group-day.
+     * Scans one day of periods, so the cost does not grow with the number of lessons.
+     */
+    private void updateIdlePeriods(int groupDay) {
+        int base = groupDay * periodCount;
+        int firstPeriod = -1;
+        int lastPeriod = -1;
+        int occupiedPeriods = 0;
+        for (int period = 0; period < periodCount; period++) {
+            if (groupDayPeriodCount[base + period] > 0) {
+                if (firstPeriod < 0) {
+                    firstPeriod = period;
+                }
+                lastPeriod = period;
+                occupiedPeriods++;
+            }
+        }
+        int idlePeriods = firstPeriod < 0 ? 0 : lastPeriod - firstPeriod + 1 - occupiedPeriods;
+        softScore += groupDayIdlePeriods[groupDay] - idlePeriods;
+        groupDayIdlePeriods[groupDay] = idlePeriods;
+    }
+
+    private int workloadExcess(int load) {
+        return excess(load, maxPeriodsPerTeacher);
+    }
+
+    private int workloadImbalance(int load) {
+        // Teachers without assigned lessons are not matched by the groupBy
+        return load == 0 ? 0 : Math.abs(load - maxPeriodsPerTeacher / 2);
+    }
+
+    private static int excess(int count, int limit) {
+        return Math.max(0, count - limit);
+    }
+
+    private static int timeslotIndex(Timeslot timeslot) {
+        return timeslot.getId().intValue();
+    }
+
+    @Override
+    public HardSoftScore calculateScore() {
+        return HardSoftScore.of(hardScore, softScore);
+    }
+}
@@ -0,0 +1,113 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.SolutionPartitioner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a timetable into parts that share no student group and no teacher, for partitioned search.
+ * Every constraint is scored per group, per teacher or per lesson, so a part's score does not depend on
+ * the other parts and each one can be solved on its own thread without losing quality.
+ * Components are the connected components of the group-teacher graph (one edge per lesson). When there are
+ * more components than part threads, they are packed into that many parts of similar lesson counts.
+ * Parts share the timeslots, groups and constraint config, which the solver only reads.
+ */
+public class TimeTablePartitioner implements SolutionPartitioner<TimeTable> {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeTablePartitioner.class);
+
+    @Override
+    public List<TimeTable> splitWorkingSolution(ScoreDirector<TimeTable> scoreDirector, Integer runnablePartThreadLimit) {
+        TimeTable solution = scoreDirector.getWorkingSolution();
+        List<List<Lesson>> components = findComponents(solution);
+        int partCount = runnablePartThreadLimit == null ? components.size()
+                : Math.max(1, Math.min(components.size(), runnablePartThreadLimit));
+
+        // Largest component first into the smallest part
+        components.sort(Comparator.comparingInt((List<Lesson> component) -> component.size()).reversed());
+        List<List<Lesson>> partLessons = new ArrayList<>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            partLessons.add(new ArrayList<>());
+        }
+        for (List<Lesson> component : components) {
+            partLessons.stream().min(Comparator.comparingInt(List::size)).orElseThrow().addAll(component);
+        }
+
+        List<TimeTable> parts = new ArrayList<>(partCount);
+        for (List<Lesson> lessons : partLessons) {
+            List<Lesson> copies = new ArrayList<>(lessons.size());
+            for (Lesson lesson : lessons) {
+                copies.add(copy(lesson));
+            }
+            // All groups stay in every part: the incremental calculator indexes its arrays by group index
+            TimeTable part = new TimeTable(solution.getTimeslotList(), solution.getStudentGroupList(),
+                    solution.getConstraintConfig(), copies);
+            part.setUnassignedPeriods(solution.getUnassignedPeriods());
+            part.setDetailedUnassignedPeriods(solution.getDetailedUnassignedPeriods());
+            parts.add(part);
+        }
+        log.info("Partitioned {} lessons: {} independent components in {} parts", solution.getLessonList().size(),
+                components.size(), parts.size());
+        return parts;
+    }
+
+    /**
+     * Lessons grouped by connected component of the student group / teacher graph, using union-find
+     * over group indexes followed by teacher indexes.
+     */
+    public static List<List<Lesson>> findComponents(TimeTable solution) {
+        int groupCount = solution.getStudentGroupList().size();
+        int[] parent = new int[groupCount + solution.getConstraintConfig().getTeacherCount()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (Lesson lesson : solution.getLessonList()) {
+            if (lesson.getTeacherIndex() >= 0) {
+                union(parent, lesson.getStudentGroup().getIndex(), groupCount + lesson.getTeacherIndex());
+            }
+        }
+        Map<Integer, List<Lesson>> componentsByRoot = new HashMap<>();
+        for (Lesson lesson : solution.getLessonList()) {
+            componentsByRoot.computeIfAbsent(find(parent, lesson.getStudentGroup().getIndex()), k -> new ArrayList<>())
+                    .add(lesson);
+        }
+        return new ArrayList<>(componentsByRoot.values());
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]]; // Path halving
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    private static Lesson copy(Lesson lesson) {
+        Lesson copy = new Lesson(lesson.getId(), lesson.getSubject(), lesson.getTeacher(), lesson.getStudentGroup());
+        copy.setSubjectIndex(lesson.getSubjectIndex());
+        copy.setTeacherIndex(lesson.getTeacherIndex());
+        copy.setMaxPeriodsPerDay(lesson.getMaxPeriodsPerDay());
+        copy.setPossibleTeachers(lesson.getPossibleTeachers());
+        copy.setTimeslot(lesson.getTimeslot());
+        copy.setOriginalTimeslot(lesson.getOriginalTimeslot());
+        copy.setPinned(lesson.isPinned());
+        return copy;
+    }
+}
@@ -0,0 +1,69 @@
+package com.school.timetabling.solver;
+
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lessons per timeslot and timeslots by day and period, taken from the working solution at the start of a step.
+ * Moves are undone after they are scored, so it stays valid until the step's move is done.
+ */
+class TimeslotOccupancy {
+
+    private final Map<Timeslot, List<Lesson>> lessonsByTimeslot = new HashMap<>();
+    private final Timeslot[][] timeslotGrid;
+
+    TimeslotOccupancy(TimeTable solution) {
+        timeslotGrid = timeslotGrid(solution.getTimeslotList());
+        for (Lesson lesson : solution.getLessonList()) {
+            if (lesson.getTimeslot() != null) {
+                lessonsByTimeslot.computeIfAbsent(lesson.getTimeslot(), timeslot -> new ArrayList<>()).add(lesson);
+            }
+        }
+    }
+
+    List<Lesson> getLessons(Timeslot timeslot) {
+        return lessonsByTimeslot.getOrDefault(timeslot, List.of());
+    }
+
+    /**
+     * @return null if the day has no such period
+     */
+    Timeslot getTimeslot(int dayIndex, int periodIndex) {
+        Timeslot[] day = timeslotGrid[dayIndex];
+        return periodIndex < day.length ? day[periodIndex] : null;
+    }
+
+    int getDayCount() {
+        return timeslotGrid.length;
+    }
+
+    /**
+     * Timeslots by day index and period index; a day with fewer periods has nulls at the end
+     */
+    static Timeslot[][] timeslotGrid(List<Timeslot> timeslots) {
+        int dayCount = 0;
+        int periodCount = 0;
+        for (Timeslot timeslot : timeslots) {
+            dayCount = Math.max(dayCount, timeslot.getDayIndex() + 1);
+            periodCount = Math.max(periodCount, timeslot.getPeriodIndex() + 1);
+        }
+        Timeslot[][] grid = new Timeslot[dayCount][periodCount];
+        for (Timeslot timeslot : timeslots) {
+            grid[timeslot.getDayIndex()][timeslot.getPeriodIndex()] = timeslot;
+        }
+        return grid;
+    }
+
+    /**
+     * Whether the lessons share a teacher or a student group, so they clash in the same timeslot
+     */
+    static boolean shareResource(Lesson a, Lesson b) {
+        return a.getTeacherIndex() == b.getTeacherIndex() || a.getStudentGroup() == b.getStudentGroup();
+    }
+}
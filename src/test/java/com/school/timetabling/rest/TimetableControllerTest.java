@@ -0,0 +1,101 @@
+package com.school.timetabling.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// No solver slots, so every submitted job stays queued
+@SpringBootTest(properties = {
+    "timetabling.scheduler.max-running-jobs=0",
+    "timetabling.job-store.enabled=false",
+    "timetabling.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+class TimetableControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void compactResultOfJobCancelledWhileQueued() throws Exception {
+        String request = Files.readString(Path.of("web-ui", "request.json"));
+        MvcResult submitted = mockMvc.perform(post("/api/timetable/jobs")
+                .contentType(MediaType.APPLICATION_JSON).content(request))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.queuePosition").value(0))
+            .andReturn();
+        JsonNode job = objectMapper.readTree(submitted.getResponse().getContentAsString());
+        String jobId = job.get("jobId").asText();
+
+        mockMvc.perform(delete("/api/timetable/jobs/{jobId}", jobId))
+            .andExpect(status().isOk());
+
+        MvcResult compact = mockMvc.perform(get("/api/timetable/jobs/{jobId}/result/compact", jobId))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(compact))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.score").value("N/A"))
+            .andExpect(jsonPath("$.feasible").value(false));
+    }
+
+    @Test
+    void identicalRequestAttachesToQueuedJob() throws Exception {
+        String request = Files.readString(Path.of("web-ui", "request.json"));
+        String jobId = submit(request);
+        try {
+            assertEquals(jobId, submit(request));
+        } finally {
+            mockMvc.perform(delete("/api/timetable/jobs/{jobId}", jobId));
+        }
+    }
+
+    @Test
+    void invalidJobSettingIsBadRequest() throws Exception {
+        String request = Files.readString(Path.of("web-ui", "request.json"));
+        ObjectNode invalid = (ObjectNode) objectMapper.readTree(request);
+        invalid.put("priority", "URGENT");
+        mockMvc.perform(post("/api/timetable/jobs")
+                .contentType(MediaType.APPLICATION_JSON).content(invalid.toString()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.status").value("FAILED"));
+    }
+
+    @Test
+    void jobWithoutTimeslotsOrClassesIsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/timetable/jobs")
+                .contentType(MediaType.APPLICATION_JSON).content("{}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.status").value("FAILED"));
+    }
+
+    private String submit(String request) throws Exception {
+        MvcResult submitted = mockMvc.perform(post("/api/timetable/jobs")
+                .contentType(MediaType.APPLICATION_JSON).content(request))
+            .andExpect(status().isAccepted())
+            .andReturn();
+        return objectMapper.readTree(submitted.getResponse().getContentAsString()).get("jobId").asText();
+    }
+}
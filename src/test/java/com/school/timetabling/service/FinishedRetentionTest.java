@@ -0,0 +1,33 @@
+package com.school.timetabling.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FinishedRetentionTest {
+
+    @Test
+    void evictsExpiredAndOldestSurplusButNeverUnfinished() {
+        FinishedRetention retention = new FinishedRetention();
+        ReflectionTestUtils.setField(retention, "finishedTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(retention, "maxFinished", 2);
+
+        long now = System.currentTimeMillis();
+        // Value is the finish time, 0 for unfinished
+        Map<String, Long> entries = new ConcurrentHashMap<>(Map.of(
+            "running", 0L,
+            "expired", now - Duration.ofMinutes(11).toMillis(),
+            "oldest", now - 3000,
+            "older", now - 2000,
+            "newest", now - 1000));
+        retention.evict(entries, finishedAt -> finishedAt);
+
+        assertEquals(Set.of("running", "older", "newest"), entries.keySet());
+    }
+}
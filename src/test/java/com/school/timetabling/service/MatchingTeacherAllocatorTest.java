@@ -0,0 +1,75 @@
+package com.school.timetabling.service;
+
+import com.school.timetabling.service.TeacherAllocator.TeacherDemand;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchingTeacherAllocatorTest {
+
+    private static final int MAX_PERIODS = 4;
+
+    @Test
+    void movesAClassToMakeRoom() {
+        // Both demands fill a teacher. Greedy gives 8A to the first least loaded teacher, T1,
+        // which 9A needs since T3 is already full
+        List<TeacherDemand> demands = List.of(
+            new TeacherDemand(0, "8A", 4, List.of("T1", "T2")),
+            new TeacherDemand(1, "9A", 4, List.of("T1", "T3")));
+
+        assertEquals(Arrays.asList("T1", null), new GreedyTeacherAllocator().allocate(demands, workload("T3", 4), MAX_PERIODS));
+
+        Map<String, Integer> workload = workload("T3", 4);
+        List<String> allocation = new MatchingTeacherAllocator().allocate(demands, workload, MAX_PERIODS);
+        assertEquals(List.of("T2", "T1"), allocation);
+        assertEquals(Map.of("T1", 4, "T2", 4, "T3", 4), workload);
+        assertWithinLimit(demands, allocation, workload("T3", 4));
+    }
+
+    @Test
+    void restoresATeachersClassWhenItsPathFails() {
+        // TF is full and T2 has room for one more class. When 8C finds T1 full, moving 8A fails (its other
+        // teacher is TF), so 8A must go back to T1 before moving 8B to T2 succeeds
+        List<TeacherDemand> demands = List.of(
+            new TeacherDemand(0, "8A", 2, List.of("T1", "TF")),
+            new TeacherDemand(1, "8B", 2, List.of("T1", "T2")),
+            new TeacherDemand(2, "8C", 2, List.of("T1", "TF")));
+
+        assertEquals(Arrays.asList("T1", "T1", null),
+            new GreedyTeacherAllocator().allocate(demands, workload("TF", 4, "T2", 2), MAX_PERIODS));
+
+        Map<String, Integer> workload = workload("TF", 4, "T2", 2);
+        List<String> allocation = new MatchingTeacherAllocator().allocate(demands, workload, MAX_PERIODS);
+        assertEquals(List.of("T1", "T2", "T1"), allocation);
+        assertEquals(Map.of("T1", 4, "T2", 4, "TF", 4), workload);
+        assertWithinLimit(demands, allocation, workload("TF", 4, "T2", 2));
+    }
+
+    /**
+     * Recomputes every teacher's periods from the kept workload plus the allocation
+     */
+    private static void assertWithinLimit(List<TeacherDemand> demands, List<String> allocation, Map<String, Integer> keptWorkload) {
+        Map<String, Integer> periods = new HashMap<>(keptWorkload);
+        for (int i = 0; i < demands.size(); i++) {
+            if (allocation.get(i) != null) {
+                assertTrue(demands.get(i).getPossibleTeachers().contains(allocation.get(i)));
+                periods.merge(allocation.get(i), demands.get(i).getPeriodsPerWeek(), Integer::sum);
+            }
+        }
+        periods.forEach((teacher, load) -> assertTrue(load <= MAX_PERIODS, teacher + " has " + load + " periods"));
+    }
+
+    private static Map<String, Integer> workload(Object... teacherPeriods) {
+        Map<String, Integer> workload = new HashMap<>();
+        for (int i = 0; i < teacherPeriods.length; i += 2) {
+            workload.put((String) teacherPeriods[i], (Integer) teacherPeriods[i + 1]);
+        }
+        return workload;
+    }
+}
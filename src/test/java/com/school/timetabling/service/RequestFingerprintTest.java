@@ -0,0 +1,52 @@
+package com.school.timetabling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RequestFingerprintTest {
+
+    @Test
+    void reorderedRequestHasTheSameFingerprint() throws IOException {
+        TimetableRequest reordered = readSampleRequest();
+        Random random = new Random(7);
+        reordered.setTimeslotList(shuffled(reordered.getTimeslotList(), random));
+        reordered.setClassList(shuffled(reordered.getClassList(), random));
+        for (TimetableRequest.ClassInfo classInfo : reordered.getClassList()) {
+            classInfo.setClasses(shuffled(classInfo.getClasses(), random));
+        }
+        reordered.setLessonAssignmentList(shuffled(reordered.getLessonAssignmentList(), random));
+        for (TimetableRequest.LessonAssignment assignment : reordered.getLessonAssignmentList()) {
+            assignment.setPossibleTeachers(shuffled(assignment.getPossibleTeachers(), random));
+        }
+
+        assertEquals(RequestFingerprint.of(readSampleRequest(), false), RequestFingerprint.of(reordered, false));
+    }
+
+    @Test
+    void rejectInfeasibleChangesTheFingerprint() throws IOException {
+        TimetableRequest request = readSampleRequest();
+        assertNotEquals(RequestFingerprint.of(request, false), RequestFingerprint.of(request, true));
+    }
+
+    private static <T> List<T> shuffled(List<T> list, Random random) {
+        List<T> copy = new ArrayList<>(list);
+        Collections.shuffle(copy, random);
+        return copy;
+    }
+
+    private static TimetableRequest readSampleRequest() throws IOException {
+        return new ObjectMapper().findAndRegisterModules()
+                .readValue(Path.of("web-ui", "request.json").toFile(), TimetableRequest.class);
+    }
+}
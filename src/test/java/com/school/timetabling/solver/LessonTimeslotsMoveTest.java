@@ -0,0 +1,174 @@
+package com.school.timetabling.solver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.config.OptaPlannerConfiguration;
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import com.school.timetabling.service.TimetableProblemBuilder;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Kempe chain and day swap moves on a timetable with randomly placed and pinned lessons: they must never add
+ * a teacher or student group clash, never move a pinned lesson, and their undo move must restore the score.
+ */
+class LessonTimeslotsMoveTest {
+
+    private static final int MOVE_COUNT = 2000;
+
+    // In web-ui/request.json
+    private static final int CLASSES_PER_GRADE = 6;
+
+    // Many day swaps hit a teacher clash and are not doable
+    private static final int MIN_DONE_MOVES = 100;
+
+    @Test
+    void kempeChainMoves() throws IOException {
+        assertMovesAreSafe(new KempeChainMoveIteratorFactory());
+    }
+
+    @Test
+    void daySwapMoves() throws IOException {
+        assertMovesAreSafe(new DaySwapMoveIteratorFactory());
+    }
+
+    private static void assertMovesAreSafe(MoveIteratorFactory<TimeTable, LessonTimeslotsMove> moveFactory) throws IOException {
+        Random random = new Random(13);
+        try (InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector = buildScoreDirector()) {
+            scoreDirector.setWorkingSolution(buildProblem(random));
+            TimeTable solution = scoreDirector.getWorkingSolution();
+            Map<Lesson, Timeslot> pinnedTimeslots = new IdentityHashMap<>();
+            for (Lesson lesson : solution.getLessonList()) {
+                if (lesson.isPinned()) {
+                    pinnedTimeslots.put(lesson, lesson.getTimeslot());
+                }
+            }
+
+            int doneMoves = 0;
+            for (int i = 0; i < MOVE_COUNT; i++) {
+                LessonTimeslotsMove move = moveFactory.createRandomMoveIterator(scoreDirector, random).next();
+                if (!move.isMoveDoable(scoreDirector)) {
+                    continue;
+                }
+                HardSoftScore scoreBefore = scoreDirector.calculateScore();
+                int teacherConflictsBefore = countConflicts(solution, Lesson::getTeacherIndex);
+                int groupConflictsBefore = countConflicts(solution, lesson -> lesson.getStudentGroup().getIndex());
+
+                Move<TimeTable> undoMove = move.doMove(scoreDirector);
+                doneMoves++;
+                assertTrue(countConflicts(solution, Lesson::getTeacherIndex) <= teacherConflictsBefore,
+                        "Teacher clash added by " + move);
+                assertTrue(countConflicts(solution, lesson -> lesson.getStudentGroup().getIndex()) <= groupConflictsBefore,
+                        "Student group clash added by " + move);
+                for (Map.Entry<Lesson, Timeslot> pinned : pinnedTimeslots.entrySet()) {
+                    assertSame(pinned.getValue(), pinned.getKey().getTimeslot(), "Pinned lesson moved by " + move);
+                }
+
+                // Undo every other move and keep the rest, so later moves start from changed timetables
+                if (i % 2 == 0) {
+                    undoMove.doMove(scoreDirector);
+                    assertEquals(scoreBefore, scoreDirector.calculateScore(), "Undo of " + move);
+                }
+            }
+            assertTrue(doneMoves >= MIN_DONE_MOVES, "Only " + doneMoves + " doable moves");
+        }
+    }
+
+    /**
+     * Pairs of lessons with the same teacher or student group in the same timeslot, as the conflict constraints count them
+     */
+    private static int countConflicts(TimeTable solution, ToIntFunction<Lesson> resource) {
+        Map<Long, Integer> lessonsPerSlot = new HashMap<>();
+        int conflicts = 0;
+        for (Lesson lesson : solution.getLessonList()) {
+            int resourceIndex = resource.applyAsInt(lesson);
+            if (lesson.getTimeslot() == null || resourceIndex < 0) {
+                continue;
+            }
+            long slot = (long) resourceIndex * solution.getTimeslotList().size() + lesson.getTimeslot().getId();
+            int earlier = lessonsPerSlot.merge(slot, 1, Integer::sum) - 1;
+            conflicts += earlier;
+        }
+        return conflicts;
+    }
+
+    /**
+     * One class per grade of the sample request, each lesson in a random timeslot where its teacher and student group are free, or in any
+     * random timeslot when there is none, so both clash-free days and clashes to keep are present.
+     * The lessons of every other kept class are pinned.
+     */
+    private static TimeTable buildProblem(Random random) throws IOException {
+        TimetableRequest request = new ObjectMapper().findAndRegisterModules()
+                .readValue(Path.of("web-ui", "request.json").toFile(), TimetableRequest.class);
+        TimeTable problem = new TimetableProblemBuilder().convertRequestToProblem(request);
+        // One class per grade: the sample's teachers are fully booked, which leaves almost no day free to swap
+        problem.setLessonList(problem.getLessonList().stream()
+                .filter(lesson -> lesson.getStudentGroup().getIndex() % CLASSES_PER_GRADE == 0)
+                .collect(Collectors.toCollection(ArrayList::new)));
+        List<Timeslot> timeslots = problem.getTimeslotList();
+        Set<Long> busy = new HashSet<>();
+        for (Lesson lesson : problem.getLessonList()) {
+            List<Timeslot> candidates = new ArrayList<>(timeslots);
+            Collections.shuffle(candidates, random);
+            Timeslot timeslot = candidates.get(0);
+            for (Timeslot candidate : candidates) {
+                if (!busy.contains(teacherSlot(lesson, candidate, timeslots.size()))
+                        && !busy.contains(groupSlot(lesson, candidate, timeslots.size()))) {
+                    timeslot = candidate;
+                    break;
+                }
+            }
+            lesson.setTimeslot(timeslot);
+            busy.add(teacherSlot(lesson, timeslot, timeslots.size()));
+            busy.add(groupSlot(lesson, timeslot, timeslots.size()));
+            lesson.setPinned(lesson.getStudentGroup().getIndex() % (2 * CLASSES_PER_GRADE) == 0);
+        }
+        return problem;
+    }
+
+    // Teacher and group slots share one set, group slots are negative
+    private static long teacherSlot(Lesson lesson, Timeslot timeslot, int timeslotCount) {
+        return (long) lesson.getTeacherIndex() * timeslotCount + timeslot.getId();
+    }
+
+    private static long groupSlot(Lesson lesson, Timeslot timeslot, int timeslotCount) {
+        return -1 - ((long) lesson.getStudentGroup().getIndex() * timeslotCount + timeslot.getId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static InnerScoreDirector<TimeTable, HardSoftScore> buildScoreDirector() {
+        DefaultSolverFactory<TimeTable> solverFactory = (DefaultSolverFactory<TimeTable>) SolverFactory.<TimeTable>create(
+                new SolverConfig()
+                        .withSolutionClass(TimeTable.class)
+                        .withEntityClasses(Lesson.class)
+                        .withScoreDirectorFactory(OptaPlannerConfiguration.scoreDirectorFactoryConfig(
+                                OptaPlannerConfiguration.INCREMENTAL_SCORE_CALCULATOR)));
+        return (InnerScoreDirector<TimeTable, HardSoftScore>) solverFactory.getScoreDirectorFactory().buildScoreDirector();
+    }
+}
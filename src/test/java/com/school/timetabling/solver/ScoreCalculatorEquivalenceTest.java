@@ -0,0 +1,133 @@
+package com.school.timetabling.solver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.timetabling.config.OptaPlannerConfiguration;
+import com.school.timetabling.domain.Lesson;
+import com.school.timetabling.domain.TimeTable;
+import com.school.timetabling.domain.Timeslot;
+import com.school.timetabling.rest.dto.TimetableRequest;
+import com.school.timetabling.service.TimetableProblemBuilder;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.SolutionManager;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Both scoring engines must score every solution the same, including solutions the construction
+ * heuristic has not finished, where lessons have a teacher but no timeslot yet.
+ */
+class ScoreCalculatorEquivalenceTest {
+
+    @Test
+    void uninitializedSolution() throws IOException {
+        TimeTable problem = buildProblem(readRequest());
+        assertSameScore(problem);
+    }
+
+    @Test
+    void partiallyAssignedSolutionOverTeacherWorkload() throws IOException {
+        TimeTable problem = buildProblem(readRequest());
+        // The problem builder keeps teachers within the limit, so overload the first teacher by hand
+        String teacher = problem.getConstraintConfig().getTeacherName(0);
+        for (Lesson lesson : problem.getLessonList()) {
+            lesson.setTeacher(teacher);
+            lesson.setTeacherIndex(0);
+        }
+        // Lessons without a timeslot do not count towards the workload yet
+        assertEquals(HardSoftScore.ZERO, assertSameScore(problem));
+
+        List<Timeslot> timeslots = problem.getTimeslotList();
+        List<Lesson> lessons = problem.getLessonList();
+        for (int i = 0; i < lessons.size(); i += 2) {
+            lessons.get(i).setTimeslot(timeslots.get(i % timeslots.size()));
+        }
+        HardSoftScore score = assertSameScore(problem);
+        assertTrue(score.hardScore() < 0, "Expected a broken workload limit, got " + score);
+    }
+
+    @Test
+    void incrementalScoreWhileAssigningTimeslots() throws IOException {
+        TimeTable problem = buildProblem(readRequest());
+        List<Timeslot> timeslots = problem.getTimeslotList();
+        Random random = new Random(37);
+        try (InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector = buildScoreDirector(
+                OptaPlannerConfiguration.INCREMENTAL_SCORE_CALCULATOR)) {
+            scoreDirector.setWorkingSolution(problem);
+            List<Lesson> lessons = scoreDirector.getWorkingSolution().getLessonList();
+            for (int i = 0; i < lessons.size(); i++) {
+                Lesson lesson = lessons.get(i);
+                scoreDirector.beforeVariableChanged(lesson, "timeslot");
+                lesson.setTimeslot(timeslots.get(random.nextInt(timeslots.size())));
+                scoreDirector.afterVariableChanged(lesson, "timeslot");
+                scoreDirector.triggerVariableListeners();
+                if (i % 50 == 0 || i == lessons.size() - 1) {
+                    assertEquals(constraintStreamsScore(scoreDirector.getWorkingSolution()),
+                            scoreDirector.calculateScore().withInitScore(0),
+                            "After assigning " + (i + 1) + " of " + lessons.size() + " lessons");
+                }
+            }
+            // Unassign a few lessons again, as a repair or a ruin move would
+            for (int i = 0; i < lessons.size(); i += 7) {
+                Lesson lesson = lessons.get(i);
+                scoreDirector.beforeVariableChanged(lesson, "timeslot");
+                lesson.setTimeslot(null);
+                scoreDirector.afterVariableChanged(lesson, "timeslot");
+            }
+            scoreDirector.triggerVariableListeners();
+            assertEquals(constraintStreamsScore(scoreDirector.getWorkingSolution()),
+                    scoreDirector.calculateScore().withInitScore(0));
+        }
+    }
+
+    private static HardSoftScore assertSameScore(TimeTable solution) {
+        HardSoftScore constraintStreamsScore = constraintStreamsScore(solution);
+        assertEquals(constraintStreamsScore, score(solution, OptaPlannerConfiguration.INCREMENTAL_SCORE_CALCULATOR));
+        return constraintStreamsScore;
+    }
+
+    private static HardSoftScore constraintStreamsScore(TimeTable solution) {
+        return score(solution, OptaPlannerConfiguration.CONSTRAINT_STREAMS_SCORE_CALCULATOR);
+    }
+
+    /**
+     * Score calculated from scratch, without the init score, as both engines count uninitialized lessons the same
+     */
+    private static HardSoftScore score(TimeTable solution, String scoreCalculator) {
+        HardSoftScore score = SolutionManager.<TimeTable, HardSoftScore>create(solverFactory(scoreCalculator))
+                .update(solution);
+        return score.withInitScore(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static InnerScoreDirector<TimeTable, HardSoftScore> buildScoreDirector(String scoreCalculator) {
+        DefaultSolverFactory<TimeTable> solverFactory = (DefaultSolverFactory<TimeTable>) solverFactory(scoreCalculator);
+        return (InnerScoreDirector<TimeTable, HardSoftScore>) solverFactory.getScoreDirectorFactory().buildScoreDirector();
+    }
+
+    private static SolverFactory<TimeTable> solverFactory(String scoreCalculator) {
+        return SolverFactory.create(new SolverConfig()
+                .withSolutionClass(TimeTable.class)
+                .withEntityClasses(Lesson.class)
+                .withScoreDirectorFactory(OptaPlannerConfiguration.scoreDirectorFactoryConfig(scoreCalculator)));
+    }
+
+    private static TimeTable buildProblem(TimetableRequest request) {
+        return new TimetableProblemBuilder().convertRequestToProblem(request);
+    }
+
+    private static TimetableRequest readRequest() throws IOException {
+        return new ObjectMapper().findAndRegisterModules()
+                .readValue(Path.of("web-ui", "request.json").toFile(), TimetableRequest.class);
+    }
+}
@@ -4,6 +4,9 @@ let subjectColorMap = new Map();
 let availableDays = [];
 let availableTimeSlots = [];
 let currentRequestData = null; // Add this to store the original request
+let currentJobId = null;
+let progressEventSource = null;
+let liveLessons = new Map(); // Lesson id -> latest lesson change streamed by the solver
 
 async function loadRequestJson() {
     // Try multiple possible paths for request.json
@@ -181,7 +184,7 @@ async function processTimetable() {
     showApiStatus('Processing timetable request...', 'info');
     
     try {
-        const response = await fetch(`${API_BASE_URL}/solve`, {
+        const response = await fetch(`${API_BASE_URL}/jobs`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',
@@ -193,21 +196,175 @@ async function processTimetable() {
             throw new Error(`HTTP ${response.status}: ${response.statusText}`);
         }
         
-        const result = await response.json();
+        const job = await response.json();
+        currentJobId = job.jobId;
+        followJobProgress(job.jobId);
+        
+    } catch (error) {
+        console.error('Error processing timetable:', error);
+        showApiStatus(`Error: ${error.message}`, 'danger');
+        finishProcessing();
+    }
+}
+
+// Renders each best solution as the solver finds it, then loads the full result
+function followJobProgress(jobId) {
+    liveLessons = new Map();
+    document.getElementById('acceptBtn').classList.remove('d-none');
+    
+    progressEventSource = new EventSource(`${API_BASE_URL}/jobs/${jobId}/events`);
+    progressEventSource.addEventListener('progress', event => {
+        displayProgress(JSON.parse(event.data));
+    });
+    progressEventSource.addEventListener('finished', async event => {
+        closeProgressStream();
+        const progress = JSON.parse(event.data);
+        try {
+            await loadJobResult(jobId, progress.status);
+        } finally {
+            finishProcessing();
+        }
+    });
+    progressEventSource.onerror = () => {
+        // The browser reconnects on its own; a new stream starts with a full event
+        document.getElementById('progressText').textContent = 'Connection lost, reconnecting...';
+    };
+}
+
+function displayProgress(progress) {
+    if (progress.full) {
+        liveLessons = new Map();
+    }
+    progress.changedLessons.forEach(lesson => {
+        if (lesson.dayOfWeek) {
+            liveLessons.set(lesson.id, lesson);
+        } else {
+            liveLessons.delete(lesson.id);
+        }
+    });
+    
+    const seconds = (progress.elapsedMillis / 1000).toFixed(1);
+    document.getElementById('progressText').textContent =
+        `Best score ${progress.score} after ${seconds}s (${progress.changedLessons.length} lessons moved)`;
+    
+    // Same structure as the final response, so the timetable view renders it unchanged
+    const studentGroupSchedules = {};
+    liveLessons.forEach(lesson => {
+        const classData = studentGroupSchedules[lesson.studentGroup] ||
+            (studentGroupSchedules[lesson.studentGroup] = { weekSchedule: {} });
+        const daySchedule = classData.weekSchedule[lesson.dayOfWeek] ||
+            (classData.weekSchedule[lesson.dayOfWeek] = {});
+        daySchedule[lesson.startTime] = {
+            subject: lesson.subject,
+            teacher: lesson.teacher,
+            startTime: lesson.startTime,
+            endTime: lesson.endTime
+        };
+    });
+    currentTimetableData = { score: progress.score, feasible: progress.feasible, studentGroupSchedules };
+    
+    document.getElementById('welcomeMessage').style.display = 'none';
+    document.getElementById('resultsPanel').classList.remove('d-none');
+    displayScore(currentTimetableData);
+    if (progress.full) {
+        assignSubjectColors(extractSubjectsFromResponse(currentTimetableData));
+        const selectedClass = document.getElementById('classSelect').value;
+        populateClassSelector(studentGroupSchedules);
+        if (selectedClass && studentGroupSchedules[selectedClass]) {
+            document.getElementById('classSelect').value = selectedClass;
+        }
+    }
+    displayTimetable();
+}
+
+async function loadJobResult(jobId, status) {
+    try {
+        const response = await fetch(`${API_BASE_URL}/jobs/${jobId}/result/compact`);
+        if (!response.ok) {
+            throw new Error(`HTTP ${response.status}: ${response.statusText}`);
+        }
+        
+        const result = expandCompactTimetable(await response.json());
         currentTimetableData = result;
         
         displayResults(result);
-        showApiStatus('Timetable generated successfully!', 'success');
-        
+        if (status === 'TERMINATED') {
+            showApiStatus('Accepted the best timetable found so far.', 'success');
+        } else {
+            showApiStatus('Timetable generated successfully!', 'success');
+        }
     } catch (error) {
-        console.error('Error processing timetable:', error);
+        console.error('Error loading timetable result:', error);
+        showApiStatus(`Error: ${error.message}`, 'danger');
+    }
+}
+
+// Rebuilds the nested structure of /result from the compact format's dictionaries and index rows
+function expandCompactTimetable(compact) {
+    const studentGroupSchedules = {};
+    compact.lessons.forEach(([group, subject, teacher, timeslot]) => {
+        const slot = compact.timeslots[timeslot];
+        const groupName = compact.studentGroups[group];
+        const classData = studentGroupSchedules[groupName] ||
+            (studentGroupSchedules[groupName] = { weekSchedule: {} });
+        const daySchedule = classData.weekSchedule[slot.dayOfWeek] ||
+            (classData.weekSchedule[slot.dayOfWeek] = {});
+        daySchedule[slot.startTime] = {
+            subject: compact.subjects[subject],
+            teacher: teacher >= 0 ? compact.teachers[teacher] : null,
+            startTime: slot.startTime,
+            endTime: slot.endTime
+        };
+    });
+    const teacherWorkloadSummary = {};
+    compact.teachers.forEach((teacher, index) => {
+        if (compact.teacherWorkload[index] > 0) {
+            teacherWorkloadSummary[teacher] = compact.teacherWorkload[index];
+        }
+    });
+    return {
+        score: compact.score,
+        feasible: compact.feasible,
+        message: compact.message,
+        studentGroupSchedules,
+        teacherWorkloadSummary,
+        unassignedPeriods: compact.unassignedPeriods,
+        detailedUnassignedPeriods: compact.detailedUnassignedPeriods,
+        unassignedSummary: compact.unassignedSummary
+    };
+}
+
+// Stops the solver early; the job finishes with its current best solution
+async function acceptCurrentSolution() {
+    if (!currentJobId) {
+        return;
+    }
+    document.getElementById('acceptBtn').disabled = true;
+    try {
+        await fetch(`${API_BASE_URL}/jobs/${currentJobId}`, { method: 'DELETE' });
+    } catch (error) {
+        console.error('Error stopping solver:', error);
         showApiStatus(`Error: ${error.message}`, 'danger');
-    } finally {
-        processBtn.disabled = false;
-        loadingIndicator.classList.add('d-none');
+        document.getElementById('acceptBtn').disabled = false;
+    }
+}
+
+function closeProgressStream() {
+    if (progressEventSource) {
+        progressEventSource.close();
+        progressEventSource = null;
     }
 }
 
+function finishProcessing() {
+    document.getElementById('processBtn').disabled = false;
+    document.getElementById('loadingIndicator').classList.add('d-none');
+    document.getElementById('progressText').textContent = 'Processing timetable...';
+    const acceptBtn = document.getElementById('acceptBtn');
+    acceptBtn.classList.add('d-none');
+    acceptBtn.disabled = false;
+}
+
 function displayResults(data) {
     // Hide welcome message and show results
     document.getElementById('welcomeMessage').style.display = 'none';